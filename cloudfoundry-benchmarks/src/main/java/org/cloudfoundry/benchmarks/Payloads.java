@@ -0,0 +1,535 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import okio.ByteString;
+import org.cloudfoundry.dropsonde.events.Envelope;
+import org.cloudfoundry.dropsonde.events.LogMessage;
+import reactor.core.publisher.Flux;
+import reactor.netty.ByteBufFlux;
+
+/**
+ * Generators for realistic payloads used by the benchmarks
+ */
+public final class Payloads {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String TIMESTAMP = "2023-10-17T12:00:00Z";
+
+    private Payloads() {}
+
+    /**
+     * Splits a payload into chunks, as it would be received from the network
+     *
+     * @param payload   the payload
+     * @param chunkSize the size of each chunk
+     * @return the chunked payload
+     */
+    public static ByteBufFlux chunked(byte[] payload, int chunkSize) {
+        List<ByteBuf> chunks = new ArrayList<>();
+
+        for (int index = 0; index < payload.length; index += chunkSize) {
+            chunks.add(
+                    Unpooled.wrappedBuffer(
+                            payload, index, Math.min(chunkSize, payload.length - index)));
+        }
+
+        return ByteBufFlux.fromInbound(Flux.fromIterable(chunks));
+    }
+
+    /**
+     * Generates a v2 {@code GET /v2/apps} response
+     *
+     * @param count the number of resources in the response
+     * @return the payload
+     */
+    public static byte[] clientV2Applications(int count) {
+        return json(
+                generator -> {
+                    generator.writeStartObject();
+                    generator.writeNumberField("total_results", count);
+                    generator.writeNumberField("total_pages", 1);
+                    generator.writeNullField("prev_url");
+                    generator.writeNullField("next_url");
+                    generator.writeArrayFieldStart("resources");
+
+                    for (int i = 0; i < count; i++) {
+                        String id = UUID.randomUUID().toString();
+
+                        generator.writeStartObject();
+                        generator.writeObjectFieldStart("metadata");
+                        generator.writeStringField("guid", id);
+                        generator.writeStringField("url", "/v2/apps/" + id);
+                        generator.writeStringField("created_at", TIMESTAMP);
+                        generator.writeStringField("updated_at", TIMESTAMP);
+                        generator.writeEndObject();
+                        generator.writeObjectFieldStart("entity");
+                        generator.writeStringField("name", "test-application-" + i);
+                        generator.writeBooleanField("production", false);
+                        generator.writeStringField("space_guid", UUID.randomUUID().toString());
+                        generator.writeStringField("stack_guid", UUID.randomUUID().toString());
+                        generator.writeNullField("buildpack");
+                        generator.writeStringField("detected_buildpack", "java_buildpack");
+                        generator.writeObjectFieldStart("environment_json");
+                        generator.writeStringField(
+                                "JBP_CONFIG_OPEN_JDK_JRE", "{ jre: { version: 17.+ } }");
+                        generator.writeEndObject();
+                        generator.writeNumberField("memory", 1024);
+                        generator.writeNumberField("instances", 2);
+                        generator.writeNumberField("disk_quota", 1024);
+                        generator.writeStringField("state", "STARTED");
+                        generator.writeStringField("version", UUID.randomUUID().toString());
+                        generator.writeNullField("command");
+                        generator.writeBooleanField("console", false);
+                        generator.writeNullField("debug");
+                        generator.writeNullField("staging_task_id");
+                        generator.writeStringField("package_state", "STAGED");
+                        generator.writeStringField("health_check_type", "port");
+                        generator.writeNullField("health_check_timeout");
+                        generator.writeNullField("staging_failed_reason");
+                        generator.writeNullField("staging_failed_description");
+                        generator.writeBooleanField("diego", true);
+                        generator.writeNullField("docker_image");
+                        generator.writeStringField("package_updated_at", TIMESTAMP);
+                        generator.writeStringField(
+                                "detected_start_command",
+                                "JAVA_OPTS=\"-Xss1M\" exec java -jar app.jar");
+                        generator.writeBooleanField("enable_ssh", true);
+                        generator.writeArrayFieldStart("ports");
+                        generator.writeNumber(8080);
+                        generator.writeEndArray();
+                        generator.writeStringField("space_url", "/v2/spaces/" + id);
+                        generator.writeStringField("stack_url", "/v2/stacks/" + id);
+                        generator.writeStringField("routes_url", "/v2/apps/" + id + "/routes");
+                        generator.writeStringField("events_url", "/v2/apps/" + id + "/events");
+                        generator.writeStringField(
+                                "service_bindings_url", "/v2/apps/" + id + "/service_bindings");
+                        generator.writeStringField(
+                                "route_mappings_url", "/v2/apps/" + id + "/route_mappings");
+                        generator.writeEndObject();
+                        generator.writeEndObject();
+                    }
+
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                });
+    }
+
+    /**
+     * Generates a v2 {@code GET /v2/info} response
+     *
+     * @param root the root of the stand-in foundation
+     * @return the payload
+     */
+    public static byte[] clientV2Info(String root) {
+        return json(
+                generator -> {
+                    generator.writeStartObject();
+                    generator.writeStringField("name", "benchmarks");
+                    generator.writeStringField("api_version", "2.200.0");
+                    generator.writeStringField("authorization_endpoint", root);
+                    generator.writeStringField("token_endpoint", root);
+                    generator.writeStringField(
+                            "doppler_logging_endpoint", root.replaceFirst("^http", "ws"));
+                    generator.writeEndObject();
+                });
+    }
+
+    /**
+     * Generates a v2 list response containing a single named resource, such as a {@code GET
+     * /v2/organizations?q=name:...} response
+     *
+     * @param id   the id of the resource
+     * @param name the name of the resource
+     * @return the payload
+     */
+    public static byte[] clientV2Resource(String id, String name) {
+        return json(
+                generator -> {
+                    generator.writeStartObject();
+                    generator.writeNumberField("total_results", 1);
+                    generator.writeNumberField("total_pages", 1);
+                    generator.writeNullField("prev_url");
+                    generator.writeNullField("next_url");
+                    generator.writeArrayFieldStart("resources");
+                    generator.writeStartObject();
+                    generator.writeObjectFieldStart("metadata");
+                    generator.writeStringField("guid", id);
+                    generator.writeStringField("created_at", TIMESTAMP);
+                    generator.writeEndObject();
+                    generator.writeObjectFieldStart("entity");
+                    generator.writeStringField("name", name);
+                    generator.writeEndObject();
+                    generator.writeEndObject();
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                });
+    }
+
+    /**
+     * Generates a v2 {@code GET /v2/spaces/:id/summary} response
+     *
+     * @param spaceId the id of the space
+     * @param count   the number of applications in the space
+     * @return the payload
+     */
+    public static byte[] clientV2SpaceSummary(String spaceId, int count) {
+        return json(
+                generator -> {
+                    generator.writeStartObject();
+                    generator.writeStringField("guid", spaceId);
+                    generator.writeStringField("name", "test-space");
+                    generator.writeArrayFieldStart("apps");
+
+                    for (int i = 0; i < count; i++) {
+                        generator.writeStartObject();
+                        generator.writeStringField("guid", UUID.randomUUID().toString());
+                        generator.writeStringField("name", "test-application-" + i);
+                        generator.writeArrayFieldStart("urls");
+                        generator.writeString("test-application-" + i + ".apps.example.org");
+                        generator.writeEndArray();
+                        generator.writeNumberField("service_count", 0);
+                        generator.writeNumberField("running_instances", 2);
+                        generator.writeStringField("space_guid", spaceId);
+                        generator.writeNumberField("memory", 1024);
+                        generator.writeNumberField("instances", 2);
+                        generator.writeNumberField("disk_quota", 1024);
+                        generator.writeStringField("state", "STARTED");
+                        generator.writeStringField("package_state", "STAGED");
+                        generator.writeStringField("health_check_type", "port");
+                        generator.writeBooleanField("diego", true);
+                        generator.writeStringField("package_updated_at", TIMESTAMP);
+                        generator.writeBooleanField("enable_ssh", true);
+                        generator.writeEndObject();
+                    }
+
+                    generator.writeEndArray();
+                    generator.writeArrayFieldStart("services");
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                });
+    }
+
+    /**
+     * Generates a v3 {@code GET /v3/apps} response
+     *
+     * @param count the number of resources in the response
+     * @return the payload
+     */
+    public static byte[] clientV3Applications(int count) {
+        return clientV3Applications("https://api.example.org", 1, count, count);
+    }
+
+    /**
+     * Generates a page of a v3 {@code GET /v3/apps} response
+     *
+     * @param root         the root of the Cloud Controller, used to generate links
+     * @param page         the page to generate
+     * @param perPage      the number of resources per page
+     * @param totalResults the total number of resources across all pages
+     * @return the payload
+     */
+    public static byte[] clientV3Applications(
+            String root, int page, int perPage, int totalResults) {
+        int totalPages = Math.max(1, (totalResults + perPage - 1) / perPage);
+        int count = Math.max(0, Math.min(perPage, totalResults - (page - 1) * perPage));
+
+        return json(
+                generator -> {
+                    generator.writeStartObject();
+                    generator.writeObjectFieldStart("pagination");
+                    generator.writeNumberField("total_results", totalResults);
+                    generator.writeNumberField("total_pages", totalPages);
+                    writeLink(generator, "first", root, 1, perPage);
+                    writeLink(generator, "last", root, totalPages, perPage);
+
+                    if (page < totalPages) {
+                        writeLink(generator, "next", root, page + 1, perPage);
+                    } else {
+                        generator.writeNullField("next");
+                    }
+
+                    if (page > 1) {
+                        writeLink(generator, "previous", root, page - 1, perPage);
+                    } else {
+                        generator.writeNullField("previous");
+                    }
+
+                    generator.writeEndObject();
+                    generator.writeArrayFieldStart("resources");
+
+                    for (int i = 0; i < count; i++) {
+                        String id = UUID.randomUUID().toString();
+                        String href = root + "/v3/apps/" + id;
+
+                        generator.writeStartObject();
+                        generator.writeStringField("guid", id);
+                        generator.writeStringField(
+                                "name", "test-application-" + ((page - 1) * perPage + i));
+                        generator.writeStringField("state", "STARTED");
+                        generator.writeStringField("created_at", TIMESTAMP);
+                        generator.writeStringField("updated_at", TIMESTAMP);
+                        generator.writeObjectFieldStart("lifecycle");
+                        generator.writeStringField("type", "buildpack");
+                        generator.writeObjectFieldStart("data");
+                        generator.writeArrayFieldStart("buildpacks");
+                        generator.writeString("java_buildpack");
+                        generator.writeEndArray();
+                        generator.writeStringField("stack", "cflinuxfs4");
+                        generator.writeEndObject();
+                        generator.writeEndObject();
+                        generator.writeObjectFieldStart("relationships");
+                        generator.writeObjectFieldStart("space");
+                        generator.writeObjectFieldStart("data");
+                        generator.writeStringField("guid", UUID.randomUUID().toString());
+                        generator.writeEndObject();
+                        generator.writeEndObject();
+                        generator.writeEndObject();
+                        generator.writeObjectFieldStart("metadata");
+                        generator.writeObjectFieldStart("labels");
+                        generator.writeStringField("team", "benchmarks");
+                        generator.writeEndObject();
+                        generator.writeObjectFieldStart("annotations");
+                        generator.writeEndObject();
+                        generator.writeEndObject();
+                        generator.writeObjectFieldStart("links");
+
+                        for (String link :
+                                new String[] {
+                                    "self",
+                                    "space",
+                                    "processes",
+                                    "packages",
+                                    "environment_variables",
+                                    "current_droplet",
+                                    "droplets",
+                                    "tasks"
+                                }) {
+                            generator.writeObjectFieldStart(link);
+                            generator.writeStringField(
+                                    "href", "self".equals(link) ? href : href + "/" + link);
+                            generator.writeEndObject();
+                        }
+
+                        generator.writeEndObject();
+                        generator.writeEndObject();
+                    }
+
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                });
+    }
+
+    /**
+     * Generates wire-encoded Doppler {@code LogMessage} envelopes
+     *
+     * @param applicationId the id of the application the messages are for
+     * @param count         the number of envelopes
+     * @return the encoded envelopes
+     */
+    public static List<byte[]> dopplerLogMessages(String applicationId, int count) {
+        List<byte[]> envelopes = new ArrayList<>(count);
+        long timestamp = System.currentTimeMillis() * 1_000_000;
+
+        for (int i = 0; i < count; i++) {
+            envelopes.add(
+                    new Envelope.Builder()
+                            .origin("rep")
+                            .eventType(Envelope.EventType.LogMessage)
+                            .timestamp(timestamp + i)
+                            .deployment("cf")
+                            .job("diego-cell")
+                            .index("0")
+                            .ip("10.0.16.21")
+                            .logMessage(
+                                    new LogMessage.Builder()
+                                            .message(
+                                                    ByteString.encodeUtf8(
+                                                            "2023-10-17 12:00:00.000  INFO 7 ---"
+                                                                    + " [main] o.c.b.Application   "
+                                                                    + "         : message "
+                                                                    + i))
+                                            .message_type(LogMessage.MessageType.OUT)
+                                            .timestamp(timestamp + i)
+                                            .app_id(applicationId)
+                                            .source_type("APP/PROC/WEB")
+                                            .source_instance(String.valueOf(i % 2))
+                                            .build())
+                            .build()
+                            .encode());
+        }
+
+        return envelopes;
+    }
+
+    /**
+     * Joins parts into a {@code multipart/x-protobuf} body
+     *
+     * @param boundary the multipart boundary
+     * @param parts    the parts
+     * @return the body
+     */
+    public static byte[] multipart(String boundary, List<byte[]> parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        for (byte[] part : parts) {
+            write(out, String.format("\r\n--%s\r\n\r\n", boundary));
+            out.write(part, 0, part.length);
+        }
+
+        write(out, String.format("\r\n--%s--\r\n", boundary));
+        return out.toByteArray();
+    }
+
+    /**
+     * Generates a {@code GET /} response
+     *
+     * @param root the root of the stand-in foundation, used for every link
+     * @return the payload
+     */
+    public static byte[] root(String root) {
+        return json(
+                generator -> {
+                    generator.writeStartObject();
+                    generator.writeObjectFieldStart("links");
+                    writeHref(generator, "self", root);
+                    writeHref(generator, "cloud_controller_v2", root + "/v2");
+                    writeHref(generator, "cloud_controller_v3", root + "/v3");
+                    writeHref(generator, "login", root);
+                    writeHref(generator, "uaa", root);
+                    writeHref(generator, "logging", root.replaceFirst("^http", "ws"));
+                    writeHref(generator, "log_cache", root);
+                    generator.writeEndObject();
+                    generator.writeEndObject();
+                });
+    }
+
+    /**
+     * Generates a {@code GET /routing/v1/tcp_routes/events} {@code text/event-stream} body
+     *
+     * @param count the number of events
+     * @return the body
+     */
+    public static byte[] tcpRouteEvents(int count) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        for (int i = 0; i < count; i++) {
+            write(out, String.format("id: %d\n", i));
+            write(out, "event: Upsert\n");
+            write(
+                    out,
+                    String.format(
+                            "data: {\"router_group_guid\":\"%s\",\"backend_port\":%d,"
+                                    + "\"backend_ip\":\"10.0.16.%d\",\"port\":%d,"
+                                    + "\"modification_tag\":{\"guid\":\"%s\",\"index\":%d},"
+                                    + "\"ttl\":120,\"isolation_segment\":\"\"}\n",
+                            UUID.randomUUID(),
+                            60000 + (i % 1000),
+                            i % 256,
+                            1024 + (i % 1000),
+                            UUID.randomUUID(),
+                            i));
+            write(out, "\n");
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Generates a UAA {@code POST /oauth/token} response. The access token is an unsigned JWT.
+     *
+     * @param expiresIn the lifetime of the access token, in seconds
+     * @return the payload
+     */
+    public static byte[] uaaToken(long expiresIn) {
+        long now = System.currentTimeMillis() / 1000;
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+        String accessToken =
+                String.format(
+                        "%s.%s.",
+                        encoder.encodeToString(
+                                "{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)),
+                        encoder.encodeToString(
+                                String.format(
+                                                "{\"iat\":%d,\"exp\":%d,\"client_id\":\"cf\"}",
+                                                now, now + expiresIn)
+                                        .getBytes(StandardCharsets.UTF_8)));
+
+        return json(
+                generator -> {
+                    generator.writeStartObject();
+                    generator.writeStringField("access_token", accessToken);
+                    generator.writeStringField("token_type", "bearer");
+                    generator.writeNumberField("expires_in", expiresIn);
+                    generator.writeStringField("scope", "cloud_controller.admin");
+                    generator.writeStringField("jti", UUID.randomUUID().toString());
+                    generator.writeEndObject();
+                });
+    }
+
+    private static byte[] json(JsonWriter writer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            writer.write(generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static void write(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeHref(JsonGenerator generator, String name, String href)
+            throws IOException {
+        generator.writeObjectFieldStart(name);
+        generator.writeStringField("href", href);
+        generator.writeEndObject();
+    }
+
+    private static void writeLink(
+            JsonGenerator generator, String name, String root, int page, int perPage)
+            throws IOException {
+        generator.writeObjectFieldStart(name);
+        generator.writeStringField(
+                "href", String.format("%s/v3/apps?page=%d&per_page=%d", root, page, perPage));
+        generator.writeEndObject();
+    }
+
+    @FunctionalInterface
+    private interface JsonWriter {
+
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.benchmarks.load;
+
+import io.netty.channel.ChannelId;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+
+/**
+ * A {@link ConnectionObserver} that tracks how many pooled connections are in use and how many have been opened. A
+ * connection is in use from the time it is acquired from the pool until it is either released back to the pool or closed.
+ */
+final class ConnectionPoolObserver implements ConnectionObserver {
+
+    private final Set<ChannelId> inUse = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong opened = new AtomicLong();
+
+    private final AtomicInteger peakInUse = new AtomicInteger();
+
+    @Override
+    public void onStateChange(Connection connection, State newState) {
+        if (newState == State.CONNECTED) {
+            this.opened.incrementAndGet();
+        } else if (newState == State.CONFIGURED || newState == State.ACQUIRED) {
+            this.inUse.add(connection.channel().id());
+            this.peakInUse.accumulateAndGet(this.inUse.size(), Math::max);
+        } else if (newState == State.RELEASED || newState == State.DISCONNECTING) {
+            this.inUse.remove(connection.channel().id());
+        }
+    }
+
+    /**
+     * Returns the number of connections currently in use
+     *
+     * @return the number of connections currently in use
+     */
+    int getInUse() {
+        return this.inUse.size();
+    }
+
+    /**
+     * Returns the number of connections opened
+     *
+     * @return the number of connections opened
+     */
+    long getOpened() {
+        return this.opened.get();
+    }
+
+    /**
+     * Returns the largest number of connections in use at the same time since the last reset
+     *
+     * @return the largest number of connections in use at the same time
+     */
+    int getPeakInUse() {
+        return this.peakInUse.get();
+    }
+
+    /**
+     * Resets the peak number of connections in use to the current number
+     */
+    void resetPeak() {
+        this.peakInUse.set(this.inUse.size());
+    }
+}
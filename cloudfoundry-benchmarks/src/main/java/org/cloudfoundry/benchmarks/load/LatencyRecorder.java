@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.benchmarks.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Records latencies and reports percentiles over them. Recording is thread-safe.
+ */
+final class LatencyRecorder {
+
+    private int count;
+
+    private long[] latencies = new long[1024];
+
+    /**
+     * Returns the number of recorded latencies
+     *
+     * @return the number of recorded latencies
+     */
+    synchronized int count() {
+        return this.count;
+    }
+
+    /**
+     * Returns the latency at a percentile of the recorded latencies
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100}
+     * @return the latency at the percentile
+     */
+    synchronized Duration percentile(double percentile) {
+        if (this.count == 0) {
+            return Duration.ZERO;
+        }
+
+        long[] sorted = Arrays.copyOf(this.latencies, this.count);
+        Arrays.sort(sorted);
+
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+    }
+
+    /**
+     * Records a latency
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    synchronized void record(long nanos) {
+        if (this.count == this.latencies.length) {
+            this.latencies = Arrays.copyOf(this.latencies, this.latencies.length * 2);
+        }
+
+        this.latencies[this.count++] = nanos;
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.benchmarks.load;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.cloudfoundry.client.v3.applications.ListApplicationsRequest;
+import org.cloudfoundry.doppler.RecentLogsRequest;
+import org.cloudfoundry.operations.DefaultCloudFoundryOperations;
+import org.cloudfoundry.reactor.DefaultConnectionContext;
+import org.cloudfoundry.reactor.client.ReactorCloudFoundryClient;
+import org.cloudfoundry.reactor.doppler.ReactorDopplerClient;
+import org.cloudfoundry.reactor.tokenprovider.ClientCredentialsGrantTokenProvider;
+import org.cloudfoundry.util.PaginationUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Drives {@link ReactorCloudFoundryClient}, {@link ReactorDopplerClient} and {@link DefaultCloudFoundryOperations} against a
+ * {@link MockFoundation} at a target request rate and reports throughput, latency percentiles, connection pool utilisation
+ * and allocation rate. Options are passed as {@code --name=value} arguments:
+ *
+ * <ul>
+ *     <li>{@code scenario}: the {@link Scenario} to drive. Defaults to {@code client-v3-applications}.</li>
+ *     <li>{@code rate}: the target number of operations per second. Defaults to {@code 100}.</li>
+ *     <li>{@code duration}: the length of the measurement, in seconds. Defaults to {@code 30}.</li>
+ *     <li>{@code warmup}: the length of the warmup, in seconds. Defaults to {@code 10}.</li>
+ *     <li>{@code max-in-flight}: the maximum number of concurrent operations. Defaults to {@code 256}.</li>
+ *     <li>{@code pool-size}: the connection pool size. Defaults to the Reactor Netty default.</li>
+ *     <li>{@code threads}: the number of event loop threads. Defaults to the Reactor Netty default.</li>
+ *     <li>{@code latency}: the latency of each response, in milliseconds. Defaults to {@code 20}.</li>
+ *     <li>{@code error-rate}: the fraction of requests that fail. Defaults to {@code 0}.</li>
+ *     <li>{@code applications}: the number of applications in the space. Defaults to {@code 250}.</li>
+ *     <li>{@code per-page}: the page size used by {@code client-v3-applications}. Defaults to {@code 50}.</li>
+ *     <li>{@code page-concurrency}: the number of pages requested concurrently. Defaults to {@code 4}.</li>
+ *     <li>{@code envelopes}: the number of envelopes returned by recent logs. Defaults to {@code 100}.</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+    private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(100);
+
+    private final int applications;
+
+    private final Duration duration;
+
+    private final int envelopes;
+
+    private final double errorRate;
+
+    private final Duration latency;
+
+    private final int maxInFlight;
+
+    private final int pageConcurrency;
+
+    private final int perPage;
+
+    private final int poolSize;
+
+    private final int rate;
+
+    private final Scenario scenario;
+
+    private final int threads;
+
+    private final Duration warmup;
+
+    private LoadTest(Map<String, String> options) {
+        this.applications = Integer.parseInt(options.getOrDefault("applications", "250"));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        this.envelopes = Integer.parseInt(options.getOrDefault("envelopes", "100"));
+        this.errorRate = Double.parseDouble(options.getOrDefault("error-rate", "0"));
+        this.latency = Duration.ofMillis(Long.parseLong(options.getOrDefault("latency", "20")));
+        this.maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "256"));
+        this.pageConcurrency = Integer.parseInt(options.getOrDefault("page-concurrency", "4"));
+        this.perPage = Integer.parseInt(options.getOrDefault("per-page", "50"));
+        this.poolSize =
+                Integer.parseInt(
+                        options.getOrDefault(
+                                "pool-size",
+                                String.valueOf(ConnectionProvider.DEFAULT_POOL_MAX_CONNECTIONS)));
+        this.rate = Integer.parseInt(options.getOrDefault("rate", "100"));
+        this.scenario = Scenario.from(options.getOrDefault("scenario", "client-v3-applications"));
+        this.threads =
+                Integer.parseInt(
+                        options.getOrDefault(
+                                "threads", String.valueOf(LoopResources.DEFAULT_IO_WORKER_COUNT)));
+        this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException(
+                        String.format("Argument %s is not of the form --name=value", arg));
+            }
+
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        new LoadTest(options).run();
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+
+        long[] ids = threadMXBean.getAllThreadIds();
+        ThreadInfo[] infos = threadMXBean.getThreadInfo(ids);
+        long[] allocated =
+                ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(ids);
+
+        long total = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (infos[i] != null
+                    && allocated[i] > 0
+                    && !isFoundationThread(infos[i].getThreadName())) {
+                total += allocated[i];
+            }
+        }
+
+        return total;
+    }
+
+    private static boolean isFoundationThread(String name) {
+        return name.startsWith("MockWebServer") || name.startsWith("OkHttp");
+    }
+
+    private Mono<Long> execute(
+            ReactorCloudFoundryClient cloudFoundryClient,
+            ReactorDopplerClient dopplerClient,
+            DefaultCloudFoundryOperations operations) {
+        switch (this.scenario) {
+            case CLIENT_V3_APPLICATIONS:
+                return PaginationUtils.requestClientV3Resources(
+                                page ->
+                                        cloudFoundryClient
+                                                .applicationsV3()
+                                                .list(
+                                                        ListApplicationsRequest.builder()
+                                                                .page(page)
+                                                                .perPage(this.perPage)
+                                                                .build()),
+                                this.pageConcurrency)
+                        .count();
+            case DOPPLER_RECENT_LOGS:
+                return dopplerClient
+                        .recentLogs(
+                                RecentLogsRequest.builder()
+                                        .applicationId(MockFoundation.APPLICATION_ID)
+                                        .build())
+                        .count();
+            case OPERATIONS_APPLICATIONS:
+                return operations.applications().list().count();
+            default:
+                throw new IllegalStateException(
+                        String.format("Unknown scenario %s", this.scenario));
+        }
+    }
+
+    private Result phase(
+            Duration length,
+            MockFoundation foundation,
+            ConnectionPoolObserver observer,
+            Mono<Long> operation) {
+        LatencyRecorder latencies = new LatencyRecorder();
+        LongAdder dropped = new LongAdder();
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        LongAdder inUseSamples = new LongAdder();
+        LongAdder samples = new LongAdder();
+
+        long requests = foundation.getRequests();
+        long opened = observer.getOpened();
+        long allocated = allocatedBytes();
+        observer.resetPeak();
+
+        Disposable sampler =
+                Flux.interval(SAMPLE_INTERVAL)
+                        .subscribe(
+                                tick -> {
+                                    inUseSamples.add(observer.getInUse());
+                                    samples.increment();
+                                });
+
+        long start = System.nanoTime();
+
+        Flux.interval(Duration.ofNanos(TimeUnit.SECONDS.toNanos(1) / this.rate))
+                .take(length)
+                .onBackpressureDrop(tick -> dropped.increment())
+                .flatMap(
+                        tick ->
+                                Mono.defer(
+                                        () -> {
+                                            long operationStart = System.nanoTime();
+
+                                            return operation
+                                                    .doOnSuccess(
+                                                            count ->
+                                                                    latencies.record(
+                                                                            System.nanoTime()
+                                                                                    - operationStart))
+                                                    .onErrorResume(
+                                                            t -> {
+                                                                errors.computeIfAbsent(
+                                                                                t.getClass()
+                                                                                        .getSimpleName(),
+                                                                                k ->
+                                                                                        new LongAdder())
+                                                                        .increment();
+                                                                return Mono.empty();
+                                                            });
+                                        }),
+                        this.maxInFlight)
+                .blockLast();
+
+        long elapsed = System.nanoTime() - start;
+        sampler.dispose();
+
+        return new Result(
+                allocatedBytes() - allocated,
+                dropped.sum(),
+                elapsed,
+                errors,
+                latencies,
+                samples.sum() == 0 ? 0 : (double) inUseSamples.sum() / samples.sum(),
+                observer.getOpened() - opened,
+                observer.getPeakInUse(),
+                foundation.getRequests() - requests);
+    }
+
+    private void report(Result result) {
+        double seconds = result.elapsed / 1e9;
+        int operations = result.latencies.count();
+
+        System.out.printf("%nScenario:           %s%n", this.scenario);
+        System.out.printf(
+                "Configuration:      rate=%d/s, max-in-flight=%d, pool-size=%d, threads=%d,"
+                        + " latency=%dms, error-rate=%.3f%n",
+                this.rate,
+                this.maxInFlight,
+                this.poolSize,
+                this.threads,
+                this.latency.toMillis(),
+                this.errorRate);
+        System.out.printf(
+                "Throughput:         %.1f ops/s (%.1f HTTP requests/s)%n",
+                operations / seconds, result.requests / seconds);
+        System.out.printf(
+                "Latency:            p50=%.2fms, p99=%.2fms, max=%.2fms%n",
+                millis(result.latencies.percentile(50)),
+                millis(result.latencies.percentile(99)),
+                millis(result.latencies.percentile(100)));
+        System.out.printf(
+                "Errors:             %s%n", result.errors.isEmpty() ? "none" : result.errors);
+        System.out.printf(
+                "Dropped:            %d (target rate not sustained within max-in-flight)%n",
+                result.dropped);
+        System.out.printf(
+                "Connection pool:    mean in use=%.1f (%.1f%%), peak in use=%d (%.1f%%),"
+                        + " opened=%d%n",
+                result.meanInUse,
+                100 * result.meanInUse / this.poolSize,
+                result.peakInUse,
+                100.0 * result.peakInUse / this.poolSize,
+                result.opened);
+
+        if (result.allocated < 0) {
+            System.out.printf("Allocation rate:    unavailable on this JVM%n");
+        } else {
+            System.out.printf(
+                    "Allocation rate:    %.1f MB/s (%.1f KB/op)%n",
+                    result.allocated / seconds / (1024 * 1024),
+                    operations == 0 ? 0 : (double) result.allocated / operations / 1024);
+        }
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1e6;
+    }
+
+    private void run() throws IOException {
+        try (MockFoundation foundation =
+                new MockFoundation(this.applications, this.envelopes, this.latency, this.errorRate)
+                        .start()) {
+            ConnectionPoolObserver observer = new ConnectionPoolObserver();
+
+            DefaultConnectionContext connectionContext =
+                    DefaultConnectionContext.builder()
+                            .additionalHttpClientConfiguration(client -> client.observe(observer))
+                            .apiHost(foundation.getHost())
+                            .connectionPoolSize(this.poolSize)
+                            .port(foundation.getPort())
+                            .secure(false)
+                            .threadPoolSize(this.threads)
+                            .build();
+
+            ClientCredentialsGrantTokenProvider tokenProvider =
+                    ClientCredentialsGrantTokenProvider.builder()
+                            .clientId("test-client-id")
+                            .clientSecret("test-client-secret")
+                            .build();
+
+            ReactorCloudFoundryClient cloudFoundryClient =
+                    ReactorCloudFoundryClient.builder()
+                            .connectionContext(connectionContext)
+                            .tokenProvider(tokenProvider)
+                            .build();
+
+            ReactorDopplerClient dopplerClient =
+                    ReactorDopplerClient.builder()
+                            .connectionContext(connectionContext)
+                            .tokenProvider(tokenProvider)
+                            .build();
+
+            DefaultCloudFoundryOperations operations =
+                    DefaultCloudFoundryOperations.builder()
+                            .cloudFoundryClient(cloudFoundryClient)
+                            .dopplerClient(dopplerClient)
+                            .organization(MockFoundation.ORGANIZATION)
+                            .space(MockFoundation.SPACE)
+                            .build();
+
+            try {
+                Mono<Long> operation = execute(cloudFoundryClient, dopplerClient, operations);
+
+                System.out.printf("Warming up for %ds%n", this.warmup.getSeconds());
+                phase(this.warmup, foundation, observer, operation);
+
+                System.out.printf("Measuring for %ds%n", this.duration.getSeconds());
+                report(phase(this.duration, foundation, observer, operation));
+            } finally {
+                connectionContext.dispose();
+            }
+        }
+    }
+
+    private static final class Result {
+
+        private final long allocated;
+
+        private final long dropped;
+
+        private final long elapsed;
+
+        private final Map<String, LongAdder> errors;
+
+        private final LatencyRecorder latencies;
+
+        private final double meanInUse;
+
+        private final long opened;
+
+        private final int peakInUse;
+
+        private final long requests;
+
+        private Result(
+                long allocated,
+                long dropped,
+                long elapsed,
+                Map<String, LongAdder> errors,
+                LatencyRecorder latencies,
+                double meanInUse,
+                long opened,
+                int peakInUse,
+                long requests) {
+            this.allocated = allocated;
+            this.dropped = dropped;
+            this.elapsed = elapsed;
+            this.errors = errors;
+            this.latencies = latencies;
+            this.meanInUse = meanInUse;
+            this.opened = opened;
+            this.peakInUse = peakInUse;
+            this.requests = requests;
+        }
+    }
+}
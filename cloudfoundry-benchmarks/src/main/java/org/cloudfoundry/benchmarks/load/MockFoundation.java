@@ -0,0 +1,286 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.benchmarks.load;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.cloudfoundry.benchmarks.Payloads;
+
+/**
+ * A local stand-in for the Cloud Controller, UAA and Doppler of a Cloud Foundry foundation. Every component is served from
+ * a single {@link MockWebServer} and responds with realistic, paginated payloads after a configurable latency. A
+ * configurable fraction of Cloud Controller and Doppler requests fail with a {@code 502 Bad Gateway}.
+ */
+public final class MockFoundation implements AutoCloseable {
+
+    /**
+     * The id of the application used for Doppler requests
+     */
+    public static final String APPLICATION_ID = "7c8a4c5e-0b9f-4c5a-9b0e-2f1e3d4c5b6a";
+
+    /**
+     * The name of the organization served by the foundation
+     */
+    public static final String ORGANIZATION = "test-organization";
+
+    /**
+     * The name of the space served by the foundation
+     */
+    public static final String SPACE = "test-space";
+
+    private static final String BOUNDARY =
+            "90ad9060c87222ee30ddcffe751393a7c5734c48e070a623121abf82eb3c";
+
+    private static final String ORGANIZATION_ID = "a3a7d2a1-5b52-4f0c-9d2f-6d2e4b7c8e91";
+
+    private static final String SPACE_ID = "0f4a8f8e-1c0b-4b7a-a0a5-4bfe1ac1d4a0";
+
+    private final int applications;
+
+    private final AtomicLong connections = new AtomicLong();
+
+    private final int envelopes;
+
+    private final double errorRate;
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private final Duration latency;
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private final Map<String, byte[]> payloads = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private String root;
+
+    /**
+     * Creates a new instance
+     *
+     * @param applications the number of applications in the space
+     * @param envelopes    the number of envelopes returned by a recent logs request
+     * @param latency      the latency added to every response
+     * @param errorRate    the fraction, between {@code 0} and {@code 1}, of requests that fail
+     */
+    public MockFoundation(int applications, int envelopes, Duration latency, double errorRate) {
+        this.applications = applications;
+        this.envelopes = envelopes;
+        this.errorRate = errorRate;
+        this.latency = latency;
+
+        Logger.getLogger(MockWebServer.class.getName()).setLevel(Level.WARNING);
+        this.mockWebServer.setDispatcher(new FoundationDispatcher());
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.mockWebServer.shutdown();
+    }
+
+    /**
+     * Returns the number of connections accepted
+     *
+     * @return the number of connections accepted
+     */
+    public long getConnections() {
+        return this.connections.get();
+    }
+
+    /**
+     * Returns the number of injected errors
+     *
+     * @return the number of injected errors
+     */
+    public long getErrors() {
+        return this.errors.get();
+    }
+
+    /**
+     * Returns the host of the API root
+     *
+     * @return the host of the API root
+     */
+    public String getHost() {
+        return this.mockWebServer.getHostName();
+    }
+
+    /**
+     * Returns the port of the API root
+     *
+     * @return the port of the API root
+     */
+    public int getPort() {
+        return this.mockWebServer.getPort();
+    }
+
+    /**
+     * Returns the number of requests received
+     *
+     * @return the number of requests received
+     */
+    public long getRequests() {
+        return this.requests.get();
+    }
+
+    /**
+     * Starts the foundation on an ephemeral port
+     *
+     * @return this foundation
+     * @throws IOException if the server cannot be started
+     */
+    public MockFoundation start() throws IOException {
+        this.mockWebServer.start(InetAddress.getLoopbackAddress(), 0);
+        this.root = String.format("http://%s:%d", getHost(), getPort());
+        return this;
+    }
+
+    private MockResponse applications(HttpUrl url) {
+        int page = intParameter(url, "page", 1);
+        int perPage = intParameter(url, "per_page", 50);
+
+        return json(
+                payload(
+                        String.format("applications-%d-%d", page, perPage),
+                        () ->
+                                Payloads.clientV3Applications(
+                                        this.root, page, perPage, this.applications)));
+    }
+
+    private MockResponse dispatch(String method, HttpUrl url) {
+        String path = url.encodedPath();
+
+        if ("POST".equals(method) && "/oauth/token".equals(path)) {
+            return json(Payloads.uaaToken(TimeUnit.HOURS.toSeconds(12)));
+        }
+
+        if (!"GET".equals(method)) {
+            return notFound();
+        }
+
+        if ("/".equals(path)) {
+            return json(payload("root", () -> Payloads.root(this.root)));
+        }
+
+        if ("/v2/info".equals(path)) {
+            return json(payload("info", () -> Payloads.clientV2Info(this.root)));
+        }
+
+        if (shouldFail()) {
+            this.errors.incrementAndGet();
+            return new MockResponse()
+                    .setResponseCode(502)
+                    .setHeader("Content-Type", "application/json")
+                    .setBody(
+                            "{\"errors\":[{\"code\":10001,\"title\":\"CF-BadGateway\",\"detail\":\"Injected"
+                                + " failure\"}]}");
+        }
+
+        switch (path) {
+            case "/v2/organizations":
+                return json(
+                        payload(
+                                "organizations",
+                                () -> Payloads.clientV2Resource(ORGANIZATION_ID, ORGANIZATION)));
+            case "/v2/spaces":
+                return json(payload("spaces", () -> Payloads.clientV2Resource(SPACE_ID, SPACE)));
+            case "/v2/spaces/" + SPACE_ID + "/summary":
+                return json(
+                        payload(
+                                "space-summary",
+                                () -> Payloads.clientV2SpaceSummary(SPACE_ID, this.applications)));
+            case "/v3/apps":
+                return applications(url);
+            case "/apps/" + APPLICATION_ID + "/recentlogs":
+                return new MockResponse()
+                        .setHeader(
+                                "Content-Type",
+                                String.format("multipart/x-protobuf; boundary=%s", BOUNDARY))
+                        .setBody(
+                                new Buffer()
+                                        .write(
+                                                payload(
+                                                        "recent-logs",
+                                                        () ->
+                                                                Payloads.multipart(
+                                                                        BOUNDARY,
+                                                                        Payloads.dopplerLogMessages(
+                                                                                APPLICATION_ID,
+                                                                                this.envelopes)))));
+            default:
+                return notFound();
+        }
+    }
+
+    private static int intParameter(HttpUrl url, String name, int defaultValue) {
+        String value = url.queryParameter(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static MockResponse json(byte[] payload) {
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody(new Buffer().write(payload));
+    }
+
+    private static MockResponse notFound() {
+        return new MockResponse()
+                .setResponseCode(404)
+                .setHeader("Content-Type", "application/json")
+                .setBody(
+                        "{\"errors\":[{\"code\":10000,\"title\":\"CF-NotFound\",\"detail\":\"Unknown"
+                            + " request\"}]}");
+    }
+
+    private byte[] payload(String key, Supplier<byte[]> supplier) {
+        return this.payloads.computeIfAbsent(key, k -> supplier.get());
+    }
+
+    private boolean shouldFail() {
+        return this.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < this.errorRate;
+    }
+
+    private final class FoundationDispatcher extends Dispatcher {
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            MockFoundation.this.requests.incrementAndGet();
+
+            if (request.getSequenceNumber() == 0) {
+                MockFoundation.this.connections.incrementAndGet();
+            }
+
+            return MockFoundation.this
+                    .dispatch(request.getMethod(), request.getRequestUrl())
+                    .setHeadersDelay(MockFoundation.this.latency.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The operations a {@link LoadTest} can drive
+ */
+enum Scenario {
+
+    /**
+     * Lists every application with {@code GET /v3/apps}, following pagination
+     */
+    CLIENT_V3_APPLICATIONS("client-v3-applications"),
+
+    /**
+     * Requests the recent logs of an application from Doppler
+     */
+    DOPPLER_RECENT_LOGS("doppler-recent-logs"),
+
+    /**
+     * Lists the applications in the targeted space with {@code CloudFoundryOperations}
+     */
+    OPERATIONS_APPLICATIONS("operations-applications");
+
+    private final String value;
+
+    Scenario(String value) {
+        this.value = value;
+    }
+
+    static Scenario from(String s) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.value.equalsIgnoreCase(s))
+                .findFirst()
+                .orElseThrow(
+                        () ->
+                                new IllegalArgumentException(
+                                        String.format(
+                                                "Unknown scenario: %s. Valid scenarios are %s",
+                                                s,
+                                                Arrays.stream(values())
+                                                        .map(Scenario::getValue)
+                                                        .collect(Collectors.joining(", ")))));
+    }
+
+    String getValue() {
+        return this.value;
+    }
+
+    @Override
+    public String toString() {
+        return getValue();
+    }
+}
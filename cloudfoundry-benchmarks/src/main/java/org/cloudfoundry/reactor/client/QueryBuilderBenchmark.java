@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.cloudfoundry.client.v2.OrderDirection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class QueryBuilderBenchmark {
+
+    private final QueryBuilder queryBuilder = new QueryBuilder();
+
+    private final org.cloudfoundry.client.v2.applications.ListApplicationsRequest v2Request =
+            org.cloudfoundry.client.v2.applications.ListApplicationsRequest.builder()
+                    .name("test-application")
+                    .orderDirection(OrderDirection.DESCENDING)
+                    .page(3)
+                    .resultsPerPage(100)
+                    .build();
+
+    private final org.cloudfoundry.client.v3.applications.ListApplicationsRequest v3Request =
+            org.cloudfoundry.client.v3.applications.ListApplicationsRequest.builder()
+                    .name("test-application")
+                    .orderBy("-created_at")
+                    .page(3)
+                    .perPage(5000)
+                    .build();
+
+    @Benchmark
+    public Object buildClientV2() {
+        return this.queryBuilder.build(this.v2Request).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Object buildClientV3() {
+        return this.queryBuilder.build(this.v3Request).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor.client.v3;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.cloudfoundry.client.v3.applications.ListApplicationsRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class FilterBuilderBenchmark {
+
+    private final FilterBuilder filterBuilder = new FilterBuilder();
+
+    private final ListApplicationsRequest request =
+            ListApplicationsRequest.builder()
+                    .applicationIds("test-application-id-1", "test-application-id-2")
+                    .labelSelector("team in (a,b),!deprecated")
+                    .names("test-application-1", "test-application-2", "test-application-3")
+                    .organizationId("test-organization-id")
+                    .spaceIds("test-space-id-1", "test-space-id-2")
+                    .build();
+
+    @Benchmark
+    public Object build() {
+        return this.filterBuilder.build(this.request).collect(Collectors.toList());
+    }
+}
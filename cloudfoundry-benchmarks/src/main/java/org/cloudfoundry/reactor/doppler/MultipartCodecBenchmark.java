@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cloudfoundry.benchmarks.Payloads;
+import org.cloudfoundry.doppler.Envelope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.netty.http.client.HttpClientResponse;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class MultipartCodecBenchmark {
+
+    private static final String BOUNDARY = "7f5d0f7c2a6e4b8d9c1e3a5b";
+
+    @Param({"100", "1000"})
+    public int envelopes;
+
+    private byte[] payload;
+
+    private HttpClientResponse response;
+
+    @Benchmark
+    public List<Envelope> decode() throws IOException {
+        EmbeddedChannel channel = new EmbeddedChannel(MultipartCodec.createDecoder(this.response));
+        channel.writeInbound(Unpooled.wrappedBuffer(this.payload));
+        channel.finish();
+
+        List<Envelope> envelopes = new ArrayList<>(this.envelopes);
+
+        for (ByteBuf frame = channel.readInbound(); frame != null; frame = channel.readInbound()) {
+            try (InputStream in = new ByteBufInputStream(frame, true)) {
+                if (frame.isReadable()) {
+                    envelopes.add(
+                            Envelope.from(
+                                    org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.decode(in)));
+                }
+            }
+        }
+
+        return envelopes;
+    }
+
+    @Setup
+    public void setUp() {
+        this.payload =
+                Payloads.multipart(
+                        BOUNDARY,
+                        Payloads.dopplerLogMessages(
+                                "7c8a4c5e-0b9f-4c5a-9b0e-2f1e3d4c5b6a", this.envelopes));
+        this.response = response();
+    }
+
+    private static HttpClientResponse response() {
+        HttpHeaders headers =
+                new DefaultHttpHeaders()
+                        .set(
+                                HttpHeaderNames.CONTENT_TYPE,
+                                String.format("multipart/x-protobuf; boundary=%s", BOUNDARY));
+
+        return (HttpClientResponse)
+                Proxy.newProxyInstance(
+                        HttpClientResponse.class.getClassLoader(),
+                        new Class<?>[] {HttpClientResponse.class},
+                        (proxy, method, args) -> {
+                            if ("responseHeaders".equals(method.getName())) {
+                                return headers;
+                            }
+
+                            throw new UnsupportedOperationException(method.getName());
+                        });
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor.routing.v1.tcproutes;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cloudfoundry.benchmarks.Payloads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.netty.ByteBufFlux;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class EventStreamCodecBenchmark {
+
+    @Param({"100", "1000"})
+    public int events;
+
+    private byte[] payload;
+
+    @Benchmark
+    public List<ServerSentEvent> decode() {
+        EmbeddedChannel channel = new EmbeddedChannel(EventStreamCodec.createDecoder(null));
+        channel.writeInbound(Unpooled.wrappedBuffer(this.payload));
+        channel.finish();
+
+        List<ByteBuf> frames = new ArrayList<>();
+
+        for (ByteBuf frame = channel.readInbound(); frame != null; frame = channel.readInbound()) {
+            frames.add(frame);
+        }
+
+        return EventStreamCodec.decode(ByteBufFlux.fromInbound(Flux.fromIterable(frames)))
+                .collectList()
+                .block();
+    }
+
+    @Setup
+    public void setUp() {
+        this.payload = Payloads.tcpRouteEvents(this.events);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.cloudfoundry.benchmarks.Payloads;
+import org.cloudfoundry.client.v3.BuildpackData;
+import org.cloudfoundry.client.v3.Lifecycle;
+import org.cloudfoundry.client.v3.LifecycleType;
+import org.cloudfoundry.client.v3.Metadata;
+import org.cloudfoundry.client.v3.Relationship;
+import org.cloudfoundry.client.v3.ToOneRelationship;
+import org.cloudfoundry.client.v3.applications.ApplicationRelationships;
+import org.cloudfoundry.client.v3.applications.ApplicationResource;
+import org.cloudfoundry.client.v3.applications.CreateApplicationRequest;
+import org.cloudfoundry.reactor.DefaultConnectionContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.netty.NettyOutbound;
+import reactor.netty.http.client.HttpClientRequest;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class JsonCodecBenchmark {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    @Param({"50", "5000"})
+    public int resources;
+
+    private byte[] clientV2Payload;
+
+    private byte[] clientV3Payload;
+
+    private DefaultConnectionContext connectionContext;
+
+    private ObjectMapper objectMapper;
+
+    private NettyOutbound outbound;
+
+    private HttpClientRequest request;
+
+    private CreateApplicationRequest requestPayload;
+
+    @Benchmark
+    public Object decodeClientV2() {
+        return JsonCodec.decode(
+                        this.objectMapper,
+                        Payloads.chunked(this.clientV2Payload, CHUNK_SIZE),
+                        org.cloudfoundry.client.v2.applications.ListApplicationsResponse.class)
+                .block();
+    }
+
+    @Benchmark
+    public Object decodeClientV3() {
+        return JsonCodec.decode(
+                        this.objectMapper,
+                        Payloads.chunked(this.clientV3Payload, CHUNK_SIZE),
+                        org.cloudfoundry.client.v3.applications.ListApplicationsResponse.class)
+                .block();
+    }
+
+    @Benchmark
+    public Object decodeClientV3Resources() {
+        return JsonCodec.decodeElements(
+                        this.objectMapper,
+                        Payloads.chunked(this.clientV3Payload, CHUNK_SIZE),
+                        ApplicationResource.class,
+                        "resources")
+                .count()
+                .block();
+    }
+
+    @Benchmark
+    public Object encode() {
+        return JsonCodec.encode(this.objectMapper, this.requestPayload)
+                .apply(this.request, this.outbound);
+    }
+
+    @Setup
+    public void setUp() {
+        this.connectionContext =
+                DefaultConnectionContext.builder().apiHost("api.example.org").build();
+        this.objectMapper = this.connectionContext.getObjectMapper();
+
+        this.clientV2Payload = Payloads.clientV2Applications(this.resources);
+        this.clientV3Payload = Payloads.clientV3Applications(this.resources);
+
+        this.outbound = outbound();
+        this.request = request();
+        this.requestPayload =
+                CreateApplicationRequest.builder()
+                        .name("test-application")
+                        .environmentVariable(
+                                "JBP_CONFIG_OPEN_JDK_JRE", "{ jre: { version: 17.+ } }")
+                        .lifecycle(
+                                Lifecycle.builder()
+                                        .type(LifecycleType.BUILDPACK)
+                                        .data(
+                                                BuildpackData.builder()
+                                                        .buildpack("java_buildpack")
+                                                        .stack("cflinuxfs4")
+                                                        .build())
+                                        .build())
+                        .metadata(
+                                Metadata.builder()
+                                        .labels(Collections.singletonMap("team", "benchmarks"))
+                                        .build())
+                        .relationships(
+                                ApplicationRelationships.builder()
+                                        .space(
+                                                ToOneRelationship.builder()
+                                                        .data(
+                                                                Relationship.builder()
+                                                                        .id("test-space-id")
+                                                                        .build())
+                                                        .build())
+                                        .build())
+                        .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.connectionContext.dispose();
+    }
+
+    private static NettyOutbound outbound() {
+        return (NettyOutbound)
+                Proxy.newProxyInstance(
+                        NettyOutbound.class.getClassLoader(),
+                        new Class<?>[] {NettyOutbound.class},
+                        (proxy, method, args) -> {
+                            switch (method.getName()) {
+                                case "alloc":
+                                    return PooledByteBufAllocator.DEFAULT;
+                                case "send":
+                                    @SuppressWarnings("unchecked")
+                                    Publisher<ByteBuf> body = (Publisher<ByteBuf>) args[0];
+                                    Flux.from(body).subscribe(ByteBuf::release);
+                                    return proxy;
+                                default:
+                                    throw new UnsupportedOperationException(method.getName());
+                            }
+                        });
+    }
+
+    private static HttpClientRequest request() {
+        return (HttpClientRequest)
+                Proxy.newProxyInstance(
+                        HttpClientRequest.class.getClassLoader(),
+                        new Class<?>[] {HttpClientRequest.class},
+                        (proxy, method, args) -> {
+                            if ("header".equals(method.getName())) {
+                                return proxy;
+                            }
+
+                            throw new UnsupportedOperationException(method.getName());
+                        });
+    }
+}
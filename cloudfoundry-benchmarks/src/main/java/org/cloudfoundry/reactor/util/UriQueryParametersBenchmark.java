@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.util.UriComponentsBuilder;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class UriQueryParametersBenchmark {
+
+    private final UriQueryParameter[] parameters =
+            new UriQueryParameter[] {
+                UriQueryParameter.of("names", "test-application-1,test-application-2"),
+                UriQueryParameter.of("space_guids", "0f4a8f8e-1c0b-4b7a-a0a5-4bfe1ac1d4a0"),
+                UriQueryParameter.of("label_selector", "team in (a,b),!deprecated"),
+                UriQueryParameter.of("order_by", "-created_at"),
+                UriQueryParameter.of("page", "1"),
+                UriQueryParameter.of("per_page", "5000")
+            };
+
+    @Benchmark
+    public String set() {
+        UriComponentsBuilder builder =
+                UriComponentsBuilder.fromUriString("https://api.example.org/v3/apps");
+        UriQueryParameters.set(builder, Stream.of(this.parameters));
+        return builder.build().encode().toUriString();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class FileUtilsBenchmark {
+
+    private static final int FILE_SIZE = 16 * 1024;
+
+    @Param({"100", "1000"})
+    public int files;
+
+    private Path application;
+
+    private Path archive;
+
+    @Benchmark
+    public long compress() throws IOException {
+        Path compressed = FileUtils.compress(this.application).block();
+
+        try {
+            return Files.size(compressed);
+        } finally {
+            Files.delete(compressed);
+        }
+    }
+
+    @Benchmark
+    public String hash() {
+        return FileUtils.hash(this.archive);
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(0);
+        byte[] content = new byte[FILE_SIZE];
+
+        this.application = Files.createTempDirectory("benchmark-application-");
+
+        for (int i = 0; i < this.files; i++) {
+            Path file =
+                    this.application.resolve(
+                            String.format("directory-%d/file-%d.class", i % 10, i));
+            Files.createDirectories(file.getParent());
+
+            random.nextBytes(content);
+            Files.write(file, content);
+        }
+
+        this.archive = FileUtils.compress(this.application).block();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(this.archive);
+
+        try (Stream<Path> paths = Files.walk(this.application)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .forEach(
+                            path -> {
+                                try {
+                                    Files.delete(path);
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            });
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cloudfoundry.client.v3.BuildpackData;
+import org.cloudfoundry.client.v3.Lifecycle;
+import org.cloudfoundry.client.v3.LifecycleType;
+import org.cloudfoundry.client.v3.Link;
+import org.cloudfoundry.client.v3.Pagination;
+import org.cloudfoundry.client.v3.applications.ApplicationResource;
+import org.cloudfoundry.client.v3.applications.ApplicationState;
+import org.cloudfoundry.client.v3.applications.ListApplicationsResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class PaginationUtilsBenchmark {
+
+    private static final int RESOURCES_PER_PAGE = 50;
+
+    @Param({"1", "4"})
+    public int concurrency;
+
+    @Param({"0", "1"})
+    public int latency;
+
+    @Param({"20"})
+    public int pages;
+
+    private List<ListApplicationsResponse> responses;
+
+    @Benchmark
+    public Long requestClientV3Resources() {
+        return PaginationUtils.requestClientV3Resources(this::page, this.concurrency)
+                .count()
+                .block();
+    }
+
+    @Benchmark
+    public Long requestClientV3ResourcesByCursor() {
+        return PaginationUtils.requestClientV3ResourcesByCursor(this::page, this.concurrency)
+                .count()
+                .block();
+    }
+
+    @Setup
+    public void setUp() {
+        this.responses = new ArrayList<>(this.pages);
+
+        for (int page = 1; page <= this.pages; page++) {
+            ListApplicationsResponse.Builder builder =
+                    ListApplicationsResponse.builder()
+                            .pagination(
+                                    Pagination.builder()
+                                            .totalPages(this.pages)
+                                            .totalResults(this.pages * RESOURCES_PER_PAGE)
+                                            .next(
+                                                    page < this.pages
+                                                            ? Link.builder()
+                                                                    .href(
+                                                                            "https://api.example.org/v3/apps?page="
+                                                                                    + (page + 1))
+                                                                    .build()
+                                                            : null)
+                                            .build());
+
+            for (int i = 0; i < RESOURCES_PER_PAGE; i++) {
+                builder.resource(
+                        ApplicationResource.builder()
+                                .createdAt("2023-10-17T12:00:00Z")
+                                .id(String.format("test-application-%d-%d", page, i))
+                                .lifecycle(
+                                        Lifecycle.builder()
+                                                .type(LifecycleType.BUILDPACK)
+                                                .data(BuildpackData.builder().build())
+                                                .build())
+                                .name(String.format("test-application-%d-%d", page, i))
+                                .state(ApplicationState.STARTED)
+                                .build());
+            }
+
+            this.responses.add(builder.build());
+        }
+    }
+
+    private Mono<ListApplicationsResponse> page(int page) {
+        Mono<ListApplicationsResponse> response = Mono.just(this.responses.get(page - 1));
+        return this.latency == 0
+                ? response
+                : response.delayElement(Duration.ofMillis(this.latency));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+public class SortingUtilsBenchmark {
+
+    @Param({"10000"})
+    public int elements;
+
+    private List<Long> timestamps;
+
+    @Benchmark
+    public Long timespan() {
+        return Flux.fromIterable(this.timestamps)
+                .transform(
+                        SortingUtils.<Long>timespan(
+                                Comparator.naturalOrder(), Duration.ofMillis(10)))
+                .count()
+                .block();
+    }
+
+    @Benchmark
+    public Long timespanBounded() {
+        return Flux.fromIterable(this.timestamps)
+                .transform(
+                        SortingUtils.<Long>timespan(
+                                Comparator.naturalOrder(),
+                                Duration.ofMillis(10),
+                                1024,
+                                SortingUtils.OverflowStrategy.EMIT_EARLY))
+                .count()
+                .block();
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        this.timestamps = new ArrayList<>(this.elements);
+
+        for (long i = 0; i < this.elements; i++) {
+            this.timestamps.add(i);
+        }
+
+        for (int i = 0; i < this.elements; i += 16) {
+            Collections.shuffle(
+                    this.timestamps.subList(i, Math.min(i + 16, this.elements)), random);
+        }
+    }
+}
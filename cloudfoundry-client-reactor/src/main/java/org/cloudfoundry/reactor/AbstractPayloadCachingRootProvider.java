@@ -17,15 +17,34 @@
 package org.cloudfoundry.reactor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+/**
+ * An abstract implementation of {@link RootProvider} that returns endpoints from a payload that is fetched once per {@link ConnectionContext}. If a discovery cache directory is configured, the
+ * payload is also persisted so that later processes can start without fetching it. A persisted payload is used until it is older than the discovery cache TTL, and is revalidated in the background
+ * each time it is used.
+ */
 abstract class AbstractPayloadCachingRootProvider extends AbstractRootProvider {
 
+    private static final Duration DEFAULT_DISCOVERY_CACHE_TTL = Duration.ofDays(1);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.discovery");
+
     private final ConcurrentMap<ConnectionContext, Mono<Map<String, String>>> payloads =
             new ConcurrentHashMap<>(1);
 
@@ -33,24 +52,124 @@ abstract class AbstractPayloadCachingRootProvider extends AbstractRootProvider {
 
     @Override
     protected final Mono<UriComponents> doGetRoot(String key, ConnectionContext connectionContext) {
-        return this.payloads
-                .computeIfAbsent(connectionContext, this::getPayload)
+        return getPayload(connectionContext)
                 .map(
                         payload -> {
                             if (!payload.containsKey(key)) {
                                 throw new IllegalArgumentException(
-                                        String.format("Payload does not contain key '%s;", key));
+                                        String.format("Payload does not contain key '%s'", key));
                             }
 
                             return normalize(UriComponentsBuilder.fromUriString(payload.get(key)));
                         });
     }
 
+    /**
+     * The directory to persist discovered payloads in. If not set, payloads are only cached in memory.
+     */
+    abstract Optional<Path> getDiscoveryCacheDirectory();
+
+    /**
+     * The age after which a persisted payload is no longer used. Defaults to one day.
+     */
+    abstract Optional<Duration> getDiscoveryCacheTtl();
+
     abstract ObjectMapper getObjectMapper();
 
-    private Mono<Map<String, String>> getPayload(ConnectionContext connectionContext) {
-        Mono<Map<String, String>> cached = doGetPayload(connectionContext);
+    final Mono<Map<String, String>> getPayload(ConnectionContext connectionContext) {
+        return this.payloads.computeIfAbsent(connectionContext, this::createPayload);
+    }
+
+    private static void writeAtomically(Path path, byte[] contents) throws IOException {
+        Files.createDirectories(path.getParent());
+        Path temporary =
+                Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+
+        try {
+            Files.write(temporary, contents);
+            Files.move(
+                    temporary,
+                    path,
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private Mono<Map<String, String>> createPayload(ConnectionContext connectionContext) {
+        Mono<Map<String, String>> cached =
+                getDiscoveryCacheDirectory()
+                        .map(directory -> directory.resolve(getDiscoveryCacheFileName()))
+                        .map(path -> getPersistedPayload(path, connectionContext))
+                        .orElseGet(() -> doGetPayload(connectionContext));
 
         return connectionContext.getCacheDuration().map(cached::cache).orElseGet(cached::cache);
     }
+
+    private String getDiscoveryCacheFileName() {
+        UriComponents root = getRoot();
+
+        return String.format(
+                "%s_%s_%d_%s.json",
+                root.getScheme(), root.getHost(), root.getPort(), getClass().getSimpleName());
+    }
+
+    private Mono<Map<String, String>> getPersistedPayload(
+            Path path, ConnectionContext connectionContext) {
+        Mono<Map<String, String>> discovered =
+                doGetPayload(connectionContext).delayUntil(payload -> persist(path, payload));
+
+        return read(path)
+                .doOnNext(
+                        payload ->
+                                discovered.subscribe(
+                                        null,
+                                        t ->
+                                                LOGGER.debug(
+                                                        "Unable to revalidate discovery payload"
+                                                                + " {}",
+                                                        path,
+                                                        t)))
+                .switchIfEmpty(discovered);
+    }
+
+    private Mono<Void> persist(Path path, Map<String, String> payload) {
+        return Mono.<Void>fromCallable(
+                        () -> {
+                            writeAtomically(path, getObjectMapper().writeValueAsBytes(payload));
+                            return null;
+                        })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(
+                        t -> {
+                            LOGGER.debug("Unable to persist discovery payload {}", path, t);
+                            return Mono.empty();
+                        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Map<String, String>> read(Path path) {
+        Duration ttl = getDiscoveryCacheTtl().orElse(DEFAULT_DISCOVERY_CACHE_TTL);
+
+        return Mono.fromCallable(
+                        () -> {
+                            if (!Files.exists(path)
+                                    || Files.getLastModifiedTime(path)
+                                            .toInstant()
+                                            .plus(ttl)
+                                            .isBefore(Instant.now())) {
+                                return null;
+                            }
+
+                            return (Map<String, String>)
+                                    getObjectMapper().readValue(path.toFile(), Map.class);
+                        })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(
+                        t -> {
+                            LOGGER.debug("Unable to read discovery payload {}", path, t);
+                            return Mono.empty();
+                        });
+    }
 }
@@ -19,6 +19,9 @@ package org.cloudfoundry.reactor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Duration;
 import java.util.Optional;
+import org.cloudfoundry.reactor.util.RequestCoalescer;
+import org.cloudfoundry.reactor.util.RequestGovernor;
+import org.cloudfoundry.reactor.util.ResponseCache;
 import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
 
@@ -42,16 +45,51 @@ public interface ConnectionContext {
      */
     Long getInvalidTokenRetries();
 
+    /**
+     * The {@link MetricsRecorder} to use. Defaults to none.
+     */
+    default Optional<MetricsRecorder> getMetricsRecorder() {
+        return Optional.empty();
+    }
+
     /**
      * The {@link ObjectMapper} to use
      */
     ObjectMapper getObjectMapper();
 
+    /**
+     * The {@link RequestCoalescer} used for {@code GET} requests. Defaults to none.
+     */
+    default Optional<RequestCoalescer> getRequestCoalescer() {
+        return Optional.empty();
+    }
+
+    /**
+     * The {@link RequestGovernor} used for all requests. Defaults to none.
+     */
+    default Optional<RequestGovernor> getRequestGovernor() {
+        return Optional.empty();
+    }
+
+    /**
+     * The {@link ResponseCache} used for {@code GET} requests. Defaults to none.
+     */
+    default Optional<ResponseCache> getResponseCache() {
+        return Optional.empty();
+    }
+
     /**
      * The {@link RootProvider} to use
      */
     RootProvider getRootProvider();
 
+    /**
+     * The {@link HttpClient} to use for WebSocket connections, which must use HTTP/1.1. Defaults to {@link #getHttpClient()}.
+     */
+    default HttpClient getWebSocketHttpClient() {
+        return getHttpClient();
+    }
+
     /**
      * Attempt to explicitly trust the TLS certificate of an endpoint.  Implementations can choose whether any actual trusting will happen.
      *
@@ -59,4 +97,23 @@ public interface ConnectionContext {
      * @param port the port of the endpoint to trust
      */
     Mono<Void> trust(String host, int port);
+
+    /**
+     * Prepare connections to the endpoints of the Cloud Foundry instance ahead of their first use.  Implementations can choose whether any actual warming will happen.
+     *
+     * @param connections the number of connections to open to each endpoint, where less than 1 opens none
+     */
+    default Mono<Void> warmUp(int connections) {
+        return Mono.empty();
+    }
+
+    /**
+     * Prepare connections to the endpoints of the Cloud Foundry instance ahead of their first use, and concurrently retrieve a token from a {@link TokenProvider}
+     *
+     * @param connections   the number of connections to open to each endpoint
+     * @param tokenProvider the token provider to retrieve a token from
+     */
+    default Mono<Void> warmUp(int connections, TokenProvider tokenProvider) {
+        return Mono.when(warmUp(connections), tokenProvider.getToken(this));
+    }
 }
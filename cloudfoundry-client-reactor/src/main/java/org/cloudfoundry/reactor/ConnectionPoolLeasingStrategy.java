@@ -0,0 +1,32 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor;
+
+/**
+ * The order in which idle connections are leased from a connection pool
+ */
+public enum ConnectionPoolLeasingStrategy {
+
+    /**
+     * Lease the connection that has been idle the longest, spreading requests across all connections
+     */
+    FIFO,
+
+    /**
+     * Lease the connection that has been idle the shortest, allowing surplus connections to reach their maximum idle time and be closed
+     */
+    LIFO
+}
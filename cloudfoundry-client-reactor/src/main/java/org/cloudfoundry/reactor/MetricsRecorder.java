@@ -0,0 +1,92 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import java.time.Duration;
+import org.cloudfoundry.Nullable;
+
+/**
+ * A recorder of metrics about the HTTP exchanges made with a Cloud Foundry instance. This is typically adapted to a metrics
+ * library such as Micrometer. Since not all implementations care about every metric, the default implementations do
+ * nothing. Implementations are called on I/O threads and must be thread-safe and non-blocking.
+ * <p>
+ * Endpoints are identified by a URI template, the path of the request with identifiers replaced by a placeholder (e.g.
+ * {@code /v3/apps/{guid}}), so that it can be used as a low-cardinality tag.
+ */
+public interface MetricsRecorder {
+
+    /**
+     * Called when a connection has been acquired for a request. This includes any time spent waiting for a pooled
+     * connection and, for new connections, resolving the address and connecting.
+     *
+     * @param method      the method of the request
+     * @param uriTemplate the URI template of the request
+     * @param duration    the time taken to acquire the connection
+     */
+    default void recordConnectionAcquireTime(
+            String method, String uriTemplate, Duration duration) {}
+
+    /**
+     * Called when the body of a response has been received
+     *
+     * @param method      the method of the request
+     * @param uriTemplate the URI template of the request
+     * @param bytes       the number of bytes in the response body
+     */
+    default void recordDataReceived(String method, String uriTemplate, long bytes) {}
+
+    /**
+     * Called when the body of a request has been sent
+     *
+     * @param method      the method of the request
+     * @param uriTemplate the URI template of the request
+     * @param bytes       the number of bytes in the request body
+     */
+    default void recordDataSent(String method, String uriTemplate, long bytes) {}
+
+    /**
+     * Called when an exchange completes, either successfully or with an error. The duration is measured from the time a
+     * connection is requested until the response body has been consumed, and does not include negotiating an access token.
+     *
+     * @param method      the method of the request
+     * @param uriTemplate the URI template of the request
+     * @param status      the status code of the response, or {@code null} if no response was received
+     * @param error       the error the exchange completed with, or {@code null} if it completed successfully
+     * @param duration    the duration of the exchange
+     */
+    default void recordExchange(
+            String method,
+            String uriTemplate,
+            @Nullable Integer status,
+            @Nullable Throwable error,
+            Duration duration) {}
+
+    /**
+     * Called when a request is retried because it was rejected with {@code 401 UNAUTHORIZED}
+     *
+     * @param method      the method of the request
+     * @param uriTemplate the URI template of the request
+     */
+    default void recordInvalidTokenRetry(String method, String uriTemplate) {}
+
+    /**
+     * Called when a token provider negotiates a new access token
+     *
+     * @param refreshToken whether the access token is negotiated using a refresh token
+     */
+    default void recordTokenRefresh(boolean refreshToken) {}
+}
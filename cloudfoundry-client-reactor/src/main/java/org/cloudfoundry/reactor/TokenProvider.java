@@ -38,4 +38,15 @@ public interface TokenProvider {
      * @param connectionContext A {@link ConnectionContext} to be used to identity which connection the tokens should be invalidated for
      */
     default void invalidate(ConnectionContext connectionContext) {}
+
+    /**
+     * Called when a {@code 401 UNAUTHORIZED} is received for a request that used a specific token. Implementations that cache tokens should only negotiate a new token if {@code token} is still
+     * the current one, so that concurrent requests rejected with the same token share a single negotiation. The default implementation delegates to {@link #invalidate(ConnectionContext)}.
+     *
+     * @param connectionContext A {@link ConnectionContext} to be used to identity which connection the tokens should be invalidated for
+     * @param token             the token that was rejected
+     */
+    default void invalidate(ConnectionContext connectionContext, String token) {
+        invalidate(connectionContext);
+    }
 }
@@ -26,12 +26,21 @@ import io.netty.handler.ssl.SslContextBuilder;
 import org.cloudfoundry.Nullable;
 import org.cloudfoundry.reactor.util.ByteBufAllocatorMetricProviderWrapper;
 import org.cloudfoundry.reactor.util.DefaultSslCertificateTruster;
+import org.cloudfoundry.reactor.util.JmxConnectionPoolMeterRegistrar;
+import org.cloudfoundry.reactor.util.RequestCoalescer;
+import org.cloudfoundry.reactor.util.RequestGovernor;
+import org.cloudfoundry.reactor.util.ResponseCache;
 import org.cloudfoundry.reactor.util.SslCertificateTruster;
 import org.cloudfoundry.reactor.util.StaticTrustManagerFactory;
 import org.immutables.value.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.resources.ConnectionProvider;
 import reactor.netty.resources.LoopResources;
@@ -45,8 +54,12 @@ import javax.management.ObjectName;
 import javax.net.ssl.SSLException;
 import javax.net.ssl.TrustManagerFactory;
 import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.UnaryOperator;
 
@@ -64,8 +77,12 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
 
     private static final int DEFAULT_PORT = 443;
 
+    private static final int DEFAULT_INSECURE_PORT = 80;
+
     private static final int SEND_RECEIVE_BUFFER_SIZE = 10 * 1024 * 1024;
 
+    private static final List<String> WARM_UP_ENDPOINTS = Arrays.asList("authorization_endpoint", "cloud_controller_v2", "log-cache", "logging", "uaa");
+
     private final Logger logger = LoggerFactory.getLogger("cloudfoundry-client");
 
     /**
@@ -102,11 +119,13 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
     @Override
     @Value.Default
     public HttpClient getHttpClient() {
-        HttpClient client = configureHttpClient(createHttpClient().compress(true)
-            .secure(this::configureSsl));
+        if (getHttp2().orElse(false)) {
+            return createHttpClient(createHttpClient()
+                .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                .secure(this::configureHttp2Ssl));
+        }
 
-        return getAdditionalHttpClientConfiguration().map(configuration -> configuration.apply(client))
-            .orElse(client);
+        return createHttpClient(createHttpClient().secure(this::configureSsl));
     }
 
     @Override
@@ -115,6 +134,9 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
         return 5L;
     }
 
+    @Override
+    public abstract Optional<MetricsRecorder> getMetricsRecorder();
+
     @Override
     @Value.Default
     public ObjectMapper getObjectMapper() {
@@ -128,12 +150,24 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
         return objectMapper;
     }
 
+    @Override
+    public abstract Optional<RequestCoalescer> getRequestCoalescer();
+
+    @Override
+    public abstract Optional<RequestGovernor> getRequestGovernor();
+
+    @Override
+    public abstract Optional<ResponseCache> getResponseCache();
+
     @Override
     @Value.Default
     public RootProvider getRootProvider() {
         return DelegatingRootProvider.builder()
             .apiHost(getApiHost())
+            .discoveryCacheDirectory(getDiscoveryCacheDirectory())
+            .discoveryCacheTtl(getDiscoveryCacheTtl())
             .objectMapper(getObjectMapper())
+            .parallelDiscovery(getParallelDiscovery())
             .port(getPort())
             .secure(getSecure())
             .build();
@@ -147,6 +181,16 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
         return LoopResources.DEFAULT_IO_WORKER_COUNT;
     }
 
+    @Override
+    @Value.Default
+    public HttpClient getWebSocketHttpClient() {
+        if (getHttp2().orElse(false)) {
+            return createHttpClient(createHttpClient().secure(this::configureSsl));
+        }
+
+        return getHttpClient();
+    }
+
     @Override
     public Mono<Void> trust(String host, int port) {
         return getSslCertificateTruster()
@@ -154,6 +198,38 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
             .orElse(Mono.empty());
     }
 
+    /**
+     * Resolves the API, UAA, Doppler, and Log Cache hosts and opens {@code connections} connections to each of them in the connection pool, completing once they have been established.  Endpoints
+     * that cannot be discovered or connected to are skipped.  Nothing is warmed up if {@code connections} is less than 1.
+     */
+    @Override
+    public final Mono<Void> warmUp(int connections) {
+        if (connections < 1) {
+            return Mono.empty();
+        }
+
+        return Mono.when(
+            getHttpClient().warmup(),
+            getRootProvider().getRoot(this)
+                .mergeWith(Flux.fromIterable(WARM_UP_ENDPOINTS)
+                    .flatMap(key -> getRootProvider().getRoot(key, this)
+                        .onErrorResume(t -> {
+                            this.logger.debug("Unable to discover {} endpoint", key, t);
+                            return Mono.empty();
+                        })))
+                .map(uri -> UriComponentsBuilder.fromUriString(uri).replacePath(null).build().toUriString())
+                .distinct()
+                .flatMap(origin -> warmUp(origin, connections)));
+    }
+
+    Http2AllocationStrategy createHttp2AllocationStrategy(int connectionPoolSize) {
+        Http2AllocationStrategy.Builder allocationStrategy = Http2AllocationStrategy.builder()
+            .maxConnections(connectionPoolSize);
+        getHttp2MaxConcurrentStreams().ifPresent(allocationStrategy::maxConcurrentStreams);
+
+        return allocationStrategy.build();
+    }
+
     /**
      * Additional configuration for the underlying HttpClient
      */
@@ -169,21 +245,88 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
      */
     abstract Optional<Duration> getConnectTimeout();
 
+    /**
+     * The interval at which idle and expired connections are evicted from the connection pool in the background. By default, connections are only checked when they are leased.
+     */
+    abstract Optional<Duration> getConnectionPoolEvictionInterval();
+
+    /**
+     * The order in which idle connections are leased from the connection pool. Defaults to {@link ConnectionPoolLeasingStrategy#FIFO}.
+     */
+    abstract Optional<ConnectionPoolLeasingStrategy> getConnectionPoolLeasingStrategy();
+
+    /**
+     * The time after which an idle connection is closed. Set this below any idle timeout of the load balancers in front of Cloud Foundry to avoid leasing connections they have already closed.
+     */
+    abstract Optional<Duration> getConnectionPoolMaxIdleTime();
+
+    /**
+     * The time after which a connection is closed once it is released, regardless of how recently it was used
+     */
+    abstract Optional<Duration> getConnectionPoolMaxLifeTime();
+
+    /**
+     * The maximum number of requests that can wait for a connection once all connections are in use. Requests beyond this fail immediately rather than queueing. Defaults to {@code -1}, for no
+     * limit.
+     */
+    abstract Optional<Integer> getConnectionPoolPendingAcquireMaxCount();
+
+    /**
+     * The time a request waits for a connection before failing. Defaults to 45 seconds.
+     */
+    abstract Optional<Duration> getConnectionPoolPendingAcquireTimeout();
+
     @Value.Derived
     Optional<ConnectionProvider> getConnectionProvider() {
-        ConnectionProvider.Builder builder = ConnectionProvider.builder("cloudfoundry-client");
-
         return Optional.ofNullable(getConnectionPoolSize())
-            .map(connectionPoolSize -> builder.maxConnections(connectionPoolSize)
-                .pendingAcquireMaxCount(-1)
-                .build());
+            .map(connectionPoolSize -> {
+                ConnectionProvider.Builder builder = configureConnectionPool(ConnectionProvider.builder("cloudfoundry-client"), connectionPoolSize);
+
+                getHostConnectionPoolSizes().forEach((host, hostConnectionPoolSize) ->
+                    builder.forRemoteHost(getRemoteAddress(host), spec -> configureConnectionPool(spec, hostConnectionPoolSize)));
+
+                return builder.build();
+            });
     }
 
+    /**
+     * The directory to persist the root and info payloads in, so that later clients for the same API can start without fetching them. If not set, payloads are only cached in memory.
+     */
+    abstract Optional<Path> getDiscoveryCacheDirectory();
+
+    /**
+     * The age after which a persisted root or info payload is no longer used. Payloads younger than this are used immediately and revalidated in the background. Defaults to one day.
+     */
+    abstract Optional<Duration> getDiscoveryCacheTtl();
+
+    /**
+     * The number of connections to use for specific hosts, overriding the connection pool size. Keys are a host name with an optional port (e.g. {@code uaa.run.pivotal.io:443}), which defaults
+     * to {@code 443} or {@code 80} depending on whether the connection to the root API is secure.
+     */
+    abstract Map<String, Integer> getHostConnectionPoolSizes();
+
+    /**
+     * Whether to negotiate HTTP/2 with endpoints using ALPN, multiplexing concurrent requests over fewer connections.  Connections fall back to HTTP/1.1 when an endpoint does not negotiate HTTP/2,
+     * and WebSocket connections always use HTTP/1.1.  Defaults to {@code false}.
+     */
+    abstract Optional<Boolean> getHttp2();
+
+    /**
+     * The maximum number of concurrent requests on a single HTTP/2 connection.  Defaults to the limit advertised by the endpoint.
+     */
+    abstract Optional<Long> getHttp2MaxConcurrentStreams();
+
     /**
      * The {@code SO_KEEPALIVE} value
      */
     abstract Optional<Boolean> getKeepAlive();
 
+    /**
+     * Whether to request the root and info payloads at the same time, rather than only requesting the info payload when an endpoint is missing from the root payload. Endpoints such as
+     * {@code authorization_endpoint} are only available from the info payload, so enabling this saves a round trip when first connecting. Defaults to {@code false}.
+     */
+    abstract Optional<Boolean> getParallelDiscovery();
+
     /**
      * The port for the Cloud Foundry instance. Defaults to {@code 443}.
      */
@@ -254,6 +397,26 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
         }
     }
 
+    private <SPEC extends ConnectionProvider.ConnectionPoolSpec<SPEC>> SPEC configureConnectionPool(SPEC spec, int connectionPoolSize) {
+        spec.maxConnections(connectionPoolSize)
+            .metrics(true, () -> new JmxConnectionPoolMeterRegistrar(getEndpoint()))
+            .pendingAcquireMaxCount(getConnectionPoolPendingAcquireMaxCount().orElse(-1));
+
+        getConnectionPoolEvictionInterval().ifPresent(spec::evictInBackground);
+        getConnectionPoolMaxIdleTime().ifPresent(spec::maxIdleTime);
+        getConnectionPoolMaxLifeTime().ifPresent(spec::maxLifeTime);
+        getConnectionPoolPendingAcquireTimeout().ifPresent(spec::pendingAcquireTimeout);
+        getConnectionPoolLeasingStrategy()
+            .filter(ConnectionPoolLeasingStrategy.LIFO::equals)
+            .ifPresent(strategy -> spec.lifo());
+
+        if (getHttp2().orElse(false)) {
+            spec.allocationStrategy(createHttp2AllocationStrategy(connectionPoolSize));
+        }
+
+        return spec;
+    }
+
     private HttpClient configureConnectTimeout(HttpClient client) {
         return getConnectTimeout()
             .map(connectTimeout -> client.option(CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis()))
@@ -283,30 +446,47 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
             .orElse(client);
     }
 
+    private void configureHttp2Ssl(SslProvider.SslContextSpec ssl) {
+        configureSslTimeouts(ssl.sslContext(Http2SslContextSpec.forClient()
+            .configure(this::configureTrustManager)));
+    }
+
     private void configureSsl(SslProvider.SslContextSpec ssl){
         try{
-            SslProvider.Builder builder = ssl.sslContext(createSslContextBuilder().build());
-
-            getSslCloseNotifyReadTimeout().ifPresent(builder::closeNotifyReadTimeout);
-            getSslHandshakeTimeout().ifPresent(builder::handshakeTimeout);
-            getSslCloseNotifyFlushTimeout().ifPresent(builder::closeNotifyFlushTimeout);
+            configureSslTimeouts(ssl.sslContext(createSslContextBuilder().build()));
         } catch (SSLException e) {
             this.logger.error("Unable to configure SSL", e);
         }
     }
 
+    private void configureSslTimeouts(SslProvider.Builder builder) {
+        getSslCloseNotifyReadTimeout().ifPresent(builder::closeNotifyReadTimeout);
+        getSslHandshakeTimeout().ifPresent(builder::handshakeTimeout);
+        getSslCloseNotifyFlushTimeout().ifPresent(builder::closeNotifyFlushTimeout);
+    }
+
+    private void configureTrustManager(SslContextBuilder sslContextBuilder) {
+        getSslCertificateTruster()
+            .map(this::createTrustManagerFactory)
+            .ifPresent(sslContextBuilder::trustManager);
+    }
+
     private HttpClient createHttpClient() {
         return getConnectionProvider()
             .map(HttpClient::create)
             .orElse(HttpClient.create());
     }
 
+    private HttpClient createHttpClient(HttpClient secureClient) {
+        HttpClient client = configureHttpClient(secureClient.compress(true));
+
+        return getAdditionalHttpClientConfiguration().map(configuration -> configuration.apply(client))
+            .orElse(client);
+    }
+
     private SslContextBuilder createSslContextBuilder() {
         SslContextBuilder sslContextBuilder = SslContextBuilder.forClient();
-
-        getSslCertificateTruster()
-            .map(this::createTrustManagerFactory)
-            .ifPresent(sslContextBuilder::trustManager);
+        configureTrustManager(sslContextBuilder);
 
         return sslContextBuilder;
     }
@@ -316,7 +496,35 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
     }
 
     private ObjectName getByteBufAllocatorObjectName() throws MalformedObjectNameException {
-        return ObjectName.getInstance(String.format("org.cloudfoundry.reactor:type=ByteBufAllocator,endpoint=%s/%d", getApiHost(), getPort().orElse(DEFAULT_PORT)));
+        return ObjectName.getInstance(String.format("org.cloudfoundry.reactor:type=ByteBufAllocator,endpoint=%s", getEndpoint()));
+    }
+
+    private String getEndpoint() {
+        return String.format("%s/%d", getApiHost(), getPort().orElse(DEFAULT_PORT));
+    }
+
+    private InetSocketAddress getRemoteAddress(String host) {
+        int separator = host.lastIndexOf(':');
+
+        if (separator != -1 && host.indexOf(']', separator) == -1) {
+            return InetSocketAddress.createUnresolved(host.substring(0, separator), Integer.parseInt(host.substring(separator + 1)));
+        }
+
+        return InetSocketAddress.createUnresolved(host, getSecure().orElse(true) ? DEFAULT_PORT : DEFAULT_INSECURE_PORT);
+    }
+
+    private Mono<Void> warmUp(String origin, int connections) {
+        HttpClient httpClient = getHttpClient();
+
+        return Flux.range(0, connections)
+            .flatMap(i -> httpClient.head()
+                .uri(origin)
+                .responseSingle((response, body) -> body.then())
+                .onErrorResume(t -> {
+                    this.logger.debug("Unable to open connection to {}", origin, t);
+                    return Mono.empty();
+                }), connections)
+            .then();
     }
 
 }
@@ -17,13 +17,17 @@
 package org.cloudfoundry.reactor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
 import org.immutables.value.Value;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 
 /**
- * A {@link RootProvider} that returns endpoints by delegating to an {@link RootPayloadRootProvider} and then an {@link InfoPayloadRootProvider}.
+ * A {@link RootProvider} that returns endpoints by delegating to an {@link RootPayloadRootProvider} and then an {@link InfoPayloadRootProvider}. If parallel discovery is enabled, both payloads
+ * are requested at the same time so that endpoints only available from the info payload do not require a second round trip.
  */
 @Value.Immutable
 abstract class _DelegatingRootProvider extends AbstractRootProvider {
@@ -36,30 +40,32 @@ abstract class _DelegatingRootProvider extends AbstractRootProvider {
 
     @Override
     protected Mono<UriComponents> doGetRoot(String key, ConnectionContext connectionContext) {
-        return getRootPayloadRootProvider().doGetRoot(key, connectionContext)
-            .onErrorResume(t -> {
-                if ("cloud_controller_v2".equals(key)) {
-                    return getInfoPayloadRootProvider().doGetRoot(connectionContext)
-                        .map(uri -> UriComponentsBuilder.newInstance().uriComponents(uri).pathSegment("v2").build());
-                } else if ("cloud_controller_v3".equals(key)) {
-                    return getInfoPayloadRootProvider().doGetRoot(connectionContext)
-                        .map(uri -> UriComponentsBuilder.newInstance().uriComponents(uri).pathSegment("v3").build());
-                } else if ("logging".equals(key)) {
-                    return getInfoPayloadRootProvider().doGetRoot("doppler_logging_endpoint", connectionContext);
-                } else if ("routing".equals(key)) {
-                    return getInfoPayloadRootProvider().doGetRoot("routing_endpoint", connectionContext);
-                } else if ("uaa".equals(key)) {
-                    return getInfoPayloadRootProvider().doGetRoot("token_endpoint", connectionContext);
-                } else {
-                    return getInfoPayloadRootProvider().doGetRoot(key, connectionContext);
-                }
-            });
+        if (getParallelDiscovery().orElse(false)) {
+            return Mono.when(
+                    getRootPayloadRootProvider().getPayload(connectionContext).onErrorResume(t -> Mono.empty()),
+                    getInfoPayloadRootProvider().getPayload(connectionContext).onErrorResume(t -> Mono.empty()))
+                .then(doGetDelegatedRoot(key, connectionContext));
+        }
+
+        return doGetDelegatedRoot(key, connectionContext);
     }
 
+    /**
+     * The directory to persist discovered payloads in. If not set, payloads are only cached in memory.
+     */
+    abstract Optional<Path> getDiscoveryCacheDirectory();
+
+    /**
+     * The age after which a persisted payload is no longer used. Defaults to one day.
+     */
+    abstract Optional<Duration> getDiscoveryCacheTtl();
+
     @Value.Derived
     InfoPayloadRootProvider getInfoPayloadRootProvider() {
         return InfoPayloadRootProvider.builder()
             .apiHost(getApiHost())
+            .discoveryCacheDirectory(getDiscoveryCacheDirectory())
+            .discoveryCacheTtl(getDiscoveryCacheTtl())
             .objectMapper(getObjectMapper())
             .port(getPort())
             .secure(getSecure())
@@ -68,14 +74,42 @@ abstract class _DelegatingRootProvider extends AbstractRootProvider {
 
     abstract ObjectMapper getObjectMapper();
 
+    /**
+     * Whether to request the root and info payloads at the same time. Defaults to {@code false}.
+     */
+    abstract Optional<Boolean> getParallelDiscovery();
+
     @Value.Derived
     RootPayloadRootProvider getRootPayloadRootProvider() {
         return RootPayloadRootProvider.builder()
             .apiHost(getApiHost())
+            .discoveryCacheDirectory(getDiscoveryCacheDirectory())
+            .discoveryCacheTtl(getDiscoveryCacheTtl())
             .objectMapper(getObjectMapper())
             .port(getPort())
             .secure(getSecure())
             .build();
     }
 
+    private Mono<UriComponents> doGetDelegatedRoot(String key, ConnectionContext connectionContext) {
+        return getRootPayloadRootProvider().doGetRoot(key, connectionContext)
+            .onErrorResume(t -> {
+                if ("cloud_controller_v2".equals(key)) {
+                    return getInfoPayloadRootProvider().doGetRoot(connectionContext)
+                        .map(uri -> UriComponentsBuilder.newInstance().uriComponents(uri).pathSegment("v2").build());
+                } else if ("cloud_controller_v3".equals(key)) {
+                    return getInfoPayloadRootProvider().doGetRoot(connectionContext)
+                        .map(uri -> UriComponentsBuilder.newInstance().uriComponents(uri).pathSegment("v3").build());
+                } else if ("logging".equals(key)) {
+                    return getInfoPayloadRootProvider().doGetRoot("doppler_logging_endpoint", connectionContext);
+                } else if ("routing".equals(key)) {
+                    return getInfoPayloadRootProvider().doGetRoot("routing_endpoint", connectionContext);
+                } else if ("uaa".equals(key)) {
+                    return getInfoPayloadRootProvider().doGetRoot("token_endpoint", connectionContext);
+                } else {
+                    return getInfoPayloadRootProvider().doGetRoot(key, connectionContext);
+                }
+            });
+    }
+
 }
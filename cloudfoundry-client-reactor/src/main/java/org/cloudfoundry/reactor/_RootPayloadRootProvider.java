@@ -19,7 +19,6 @@ package org.cloudfoundry.reactor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.immutables.value.Value;
 import org.springframework.web.util.UriComponents;
-import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
@@ -30,7 +29,7 @@ import java.util.stream.Collectors;
  * A {@link RootProvider} that returns endpoints extracted from the `/` API for the configured endpoint.
  */
 @Value.Immutable
-abstract class _RootPayloadRootProvider extends AbstractRootProvider {
+abstract class _RootPayloadRootProvider extends AbstractPayloadCachingRootProvider {
 
     @Override
     protected Mono<UriComponents> doGetRoot(ConnectionContext connectionContext) {
@@ -38,22 +37,8 @@ abstract class _RootPayloadRootProvider extends AbstractRootProvider {
     }
 
     @Override
-    protected Mono<UriComponents> doGetRoot(String key, ConnectionContext connectionContext) {
-        return getPayload(connectionContext)
-            .map(payload -> {
-                if (!payload.containsKey(key)) {
-                    throw new IllegalArgumentException(String.format("Root payload does not contain key '%s'", key));
-                }
-
-                return normalize(UriComponentsBuilder.fromUriString(payload.get(key)));
-            });
-    }
-
-    abstract ObjectMapper getObjectMapper();
-
     @SuppressWarnings("unchecked")
-    @Value.Derived
-    private Mono<Map<String, String>> getPayload(ConnectionContext connectionContext) {
+    protected Mono<Map<String, String>> doGetPayload(ConnectionContext connectionContext) {
         return createOperator(connectionContext)
             .flatMap(operator -> operator.get()
                 .uri(Function.identity())
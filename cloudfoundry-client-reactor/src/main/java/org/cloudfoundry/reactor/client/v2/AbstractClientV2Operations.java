@@ -26,6 +26,7 @@ import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.client.QueryBuilder;
 import org.cloudfoundry.reactor.util.AbstractReactorOperations;
 import org.cloudfoundry.reactor.util.DelegatingUriQueryParameterBuilder;
+import org.cloudfoundry.reactor.util.ErrorPayloadMapper;
 import org.cloudfoundry.reactor.util.ErrorPayloadMappers;
 import org.cloudfoundry.reactor.util.MultipartHttpClientRequest;
 import org.cloudfoundry.reactor.util.Operator;
@@ -41,12 +42,15 @@ import reactor.netty.http.client.HttpClientRequest;
 
 public abstract class AbstractClientV2Operations extends AbstractReactorOperations {
 
+    private final ErrorPayloadMapper errorPayloadMapper;
+
     protected AbstractClientV2Operations(
             ConnectionContext connectionContext,
             Mono<String> root,
             TokenProvider tokenProvider,
             Map<String, String> requestTags) {
         super(connectionContext, root, tokenProvider, requestTags);
+        this.errorPayloadMapper = ErrorPayloadMappers.clientV2(connectionContext.getObjectMapper());
     }
 
     @Override
@@ -156,8 +160,7 @@ public abstract class AbstractClientV2Operations extends AbstractReactorOperatio
     }
 
     private Operator attachErrorPayloadMapper(Operator operator) {
-        return operator.withErrorPayloadMapper(
-                ErrorPayloadMappers.clientV2(this.connectionContext.getObjectMapper()));
+        return operator.withErrorPayloadMapper(this.errorPayloadMapper);
     }
 
     private MultipartHttpClientRequest createMultipartRequest(
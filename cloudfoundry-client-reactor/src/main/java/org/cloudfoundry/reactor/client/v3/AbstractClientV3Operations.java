@@ -29,6 +29,7 @@ import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.client.QueryBuilder;
 import org.cloudfoundry.reactor.util.AbstractReactorOperations;
 import org.cloudfoundry.reactor.util.DelegatingUriQueryParameterBuilder;
+import org.cloudfoundry.reactor.util.ErrorPayloadMapper;
 import org.cloudfoundry.reactor.util.ErrorPayloadMappers;
 import org.cloudfoundry.reactor.util.MultipartHttpClientRequest;
 import org.cloudfoundry.reactor.util.Operator;
@@ -45,12 +46,15 @@ import reactor.netty.http.client.HttpClientResponse;
 
 public abstract class AbstractClientV3Operations extends AbstractReactorOperations {
 
+    private final ErrorPayloadMapper errorPayloadMapper;
+
     protected AbstractClientV3Operations(
             ConnectionContext connectionContext,
             Mono<String> root,
             TokenProvider tokenProvider,
             Map<String, String> requestTags) {
         super(connectionContext, root, tokenProvider, requestTags);
+        this.errorPayloadMapper = ErrorPayloadMappers.clientV3(connectionContext.getObjectMapper());
     }
 
     protected static String extractJobId(HttpClientResponse response) {
@@ -297,8 +301,7 @@ public abstract class AbstractClientV3Operations extends AbstractReactorOperatio
     }
 
     private Operator attachErrorPayloadMapper(Operator operator) {
-        return operator.withErrorPayloadMapper(
-                ErrorPayloadMappers.clientV3(this.connectionContext.getObjectMapper()));
+        return operator.withErrorPayloadMapper(this.errorPayloadMapper);
     }
 
     private MultipartHttpClientRequest createMultipartRequest(
@@ -17,9 +17,11 @@
 package org.cloudfoundry.reactor.doppler;
 
 import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshakeException;
 import java.io.InputStream;
 import java.util.Map;
 import java.util.function.Function;
+import org.cloudfoundry.UnknownCloudFoundryException;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.util.AbstractReactorOperations;
@@ -58,7 +60,18 @@ abstract class AbstractDopplerOperations extends AbstractReactorOperations {
 
     final Flux<InputStream> ws(
             Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer) {
-        return createOperator()
-                .flatMapMany(operator -> operator.websocket().uri(uriTransformer).get());
+        return createWebSocketOperator()
+                .flatMapMany(operator -> operator.websocket().uri(uriTransformer).get())
+                .onErrorMap(
+                        WebSocketClientHandshakeException.class,
+                        AbstractDopplerOperations::toCloudFoundryException);
+    }
+
+    private static Throwable toCloudFoundryException(WebSocketClientHandshakeException e) {
+        if (e.response() == null) {
+            return e;
+        }
+
+        return new UnknownCloudFoundryException(e.response().status().code(), e.getMessage());
     }
 }
@@ -16,6 +16,7 @@
 
 package org.cloudfoundry.reactor.logcache.v1;
 
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -23,9 +24,11 @@ import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.client.QueryBuilder;
 import org.cloudfoundry.reactor.util.AbstractReactorOperations;
+import org.cloudfoundry.reactor.util.JsonCodec;
 import org.cloudfoundry.reactor.util.UriQueryParameter;
 import org.cloudfoundry.reactor.util.UriQueryParameters;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class AbstractLogCacheOperations extends AbstractReactorOperations {
@@ -51,6 +54,30 @@ public class AbstractLogCacheOperations extends AbstractReactorOperations {
                                         .parseBody(responseType));
     }
 
+    protected final <T> Flux<T> getElements(
+            Object requestPayload,
+            Class<T> elementType,
+            List<String> elementsPath,
+            String... pathSegments) {
+        return createOperator()
+                .flatMapMany(
+                        operator ->
+                                operator.get()
+                                        .uri(
+                                                buildPathSegments(pathSegments)
+                                                        .andThen(queryTransformer(requestPayload)))
+                                        .response()
+                                        .parseBodyToFlux(
+                                                responseWithBody ->
+                                                        JsonCodec.decodeElements(
+                                                                this.connectionContext
+                                                                        .getObjectMapper(),
+                                                                responseWithBody.getBody(),
+                                                                elementType,
+                                                                elementsPath.toArray(
+                                                                        new String[0]))));
+    }
+
     private Function<UriComponentsBuilder, UriComponentsBuilder> buildPathSegments(
             String[] pathSegments) {
         return builder -> builder.pathSegment("api", "v1").pathSegment(pathSegments);
@@ -16,15 +16,21 @@
 
 package org.cloudfoundry.reactor.logcache.v1;
 
+import java.util.Arrays;
 import java.util.Map;
 import org.cloudfoundry.logcache.v1.InfoRequest;
 import org.cloudfoundry.logcache.v1.InfoResponse;
 import org.cloudfoundry.logcache.v1.MetaRequest;
 import org.cloudfoundry.logcache.v1.MetaResponse;
+import org.cloudfoundry.logcache.v1.QueryRangeRequest;
+import org.cloudfoundry.logcache.v1.QueryRequest;
+import org.cloudfoundry.logcache.v1.QueryResponse;
 import org.cloudfoundry.logcache.v1.ReadRequest;
 import org.cloudfoundry.logcache.v1.ReadResponse;
+import org.cloudfoundry.logcache.v1.Series;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 final class ReactorLogCacheEndpoints extends AbstractLogCacheOperations {
@@ -45,6 +51,15 @@ final class ReactorLogCacheEndpoints extends AbstractLogCacheOperations {
         return get(request, MetaResponse.class, "meta").checkpoint();
     }
 
+    Mono<QueryResponse> query(QueryRequest request) {
+        return get(request, QueryResponse.class, "query").checkpoint();
+    }
+
+    Flux<Series> queryRange(QueryRangeRequest request) {
+        return getElements(request, Series.class, Arrays.asList("data", "result"), "query_range")
+                .checkpoint();
+    }
+
     Mono<ReadResponse> read(ReadRequest request) {
         return get(request, ReadResponse.class, "read", request.getSourceId()).checkpoint();
     }
@@ -21,11 +21,16 @@ import org.cloudfoundry.logcache.v1.InfoResponse;
 import org.cloudfoundry.logcache.v1.LogCacheClient;
 import org.cloudfoundry.logcache.v1.MetaRequest;
 import org.cloudfoundry.logcache.v1.MetaResponse;
+import org.cloudfoundry.logcache.v1.QueryRangeRequest;
+import org.cloudfoundry.logcache.v1.QueryRequest;
+import org.cloudfoundry.logcache.v1.QueryResponse;
 import org.cloudfoundry.logcache.v1.ReadRequest;
 import org.cloudfoundry.logcache.v1.ReadResponse;
+import org.cloudfoundry.logcache.v1.Series;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.immutables.value.Value;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
@@ -48,6 +53,16 @@ abstract class _ReactorLogCacheClient implements LogCacheClient {
         return getReactorLogCacheEndpoints().meta(request);
     }
 
+    @Override
+    public Mono<QueryResponse> query(QueryRequest request) {
+        return getReactorLogCacheEndpoints().query(request);
+    }
+
+    @Override
+    public Flux<Series> queryRange(QueryRangeRequest request) {
+        return getReactorLogCacheEndpoints().queryRange(request);
+    }
+
     @Override
     public Mono<ReadResponse> read(ReadRequest request) {
         return getReactorLogCacheEndpoints().read(request);
@@ -27,14 +27,20 @@ import io.jsonwebtoken.Jwts;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.util.AsciiString;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -51,6 +57,8 @@ import org.immutables.value.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
@@ -76,7 +84,10 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
 
     private static final ZoneId UTC = ZoneId.of("UTC");
 
-    private final ConcurrentMap<ConnectionContext, Mono<String>> accessTokens =
+    private final ConcurrentMap<ConnectionContext, AccessToken> accessTokens =
+            new ConcurrentHashMap<>(1);
+
+    private final ConcurrentMap<ConnectionContext, Disposable> proactivelyRefreshedTokens =
             new ConcurrentHashMap<>(1);
 
     private final ConcurrentMap<ConnectionContext, RefreshToken> refreshTokenStreams =
@@ -85,6 +96,8 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
     private final ConcurrentMap<ConnectionContext, Mono<String>> refreshTokens =
             new ConcurrentHashMap<>(1);
 
+    private final Set<ConnectionContext> restoredTokens = ConcurrentHashMap.newKeySet(1);
+
     /**
      * The client id. Defaults to {@code cf}.
      */
@@ -113,20 +126,56 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
 
     @Override
     public final Mono<String> getToken(ConnectionContext connectionContext) {
-        return this.accessTokens.computeIfAbsent(connectionContext, this::token);
+        return this.accessTokens.computeIfAbsent(connectionContext, this::token).get();
+    }
+
+    /**
+     * How long before an access token expires to negotiate a new one in the background, with a random jitter of up to the same duration. Requests continue to use the current token until then. Set
+     * to {@link Duration#ZERO} to only negotiate a new token after the current one has been rejected. Defaults to {@code 1 minute}.
+     */
+    @Value.Default
+    public Duration getTokenRefreshMargin() {
+        return Duration.ofMinutes(1);
     }
 
     @Override
     public void invalidate(ConnectionContext connectionContext) {
+        cancelProactiveRefresh(connectionContext);
         this.accessTokens.put(connectionContext, token(connectionContext));
     }
 
+    @Override
+    public void invalidate(ConnectionContext connectionContext, String token) {
+        this.accessTokens.compute(
+                connectionContext,
+                (c, accessToken) -> {
+                    if (accessToken != null && !accessToken.isRejected(token)) {
+                        return accessToken;
+                    }
+
+                    cancelProactiveRefresh(c);
+                    return token(c);
+                });
+    }
+
     /**
      * The identity zone subdomain
      */
     @Nullable
     abstract String getIdentityZoneSubdomain();
 
+    /**
+     * The identity that tokens are negotiated for, used with the API and identity zone to identify stored tokens
+     */
+    String getIdentity() {
+        return getClientId();
+    }
+
+    /**
+     * The (optional) store that negotiated tokens are persisted to, so that they can be reused by later processes
+     */
+    abstract Optional<TokenStore> getTokenStore();
+
     /**
      * Transforms an {@code HttpClientRequest} and an {@code HttpClientForm} in order to make a request that negotiates an access token.
      *
@@ -156,6 +205,29 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
         return String.format("%s %s", payload.get(TOKEN_TYPE), accessToken);
     }
 
+    private static Duration getRefreshDelay(Date expiration, Duration margin) {
+        long validity = expiration.getTime() - System.currentTimeMillis();
+        long jitter = ThreadLocalRandom.current().nextLong(margin.toMillis() + 1);
+
+        return Duration.ofMillis(Math.max(validity - margin.toMillis() - jitter, validity / 2));
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest =
+                    MessageDigest.getInstance("SHA-256")
+                            .digest(value.getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private static Optional<Claims> parseToken(String token) {
         if (!token.contains(".")) {
             return Optional.empty();
@@ -171,6 +243,13 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
         }
     }
 
+    private static void recordTokenRefresh(
+            ConnectionContext connectionContext, boolean refreshToken) {
+        connectionContext
+                .getMetricsRecorder()
+                .ifPresent(recorder -> recorder.recordTokenRefresh(refreshToken));
+    }
+
     private static void setContentType(HttpHeaders httpHeaders) {
         httpHeaders.set(CONTENT_TYPE, APPLICATION_X_WWW_FORM_URLENCODED);
     }
@@ -197,6 +276,11 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
         JsonCodec.setDecodeHeaders(httpHeaders);
     }
 
+    private void cancelProactiveRefresh(ConnectionContext connectionContext) {
+        Optional.ofNullable(this.proactivelyRefreshedTokens.remove(connectionContext))
+                .ifPresent(Disposable::dispose);
+    }
+
     private Operator createOperator(ConnectionContext connectionContext, String root) {
         OperatorContext context = OperatorContext.of(connectionContext, root);
         return new Operator(context, connectionContext.getHttpClient())
@@ -229,11 +313,7 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
                                                         });
                                     }
 
-                                    this.refreshTokens.put(
-                                            connectionContext, Mono.just(refreshToken));
-                                    getRefreshTokenStream(connectionContext)
-                                            .sink
-                                            .emitNext(refreshToken, FAIL_FAST);
+                                    setRefreshToken(connectionContext, refreshToken);
                                 });
     }
 
@@ -241,6 +321,31 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
         return this.refreshTokenStreams.computeIfAbsent(connectionContext, c -> new RefreshToken());
     }
 
+    private Mono<String> getStoredTokenIdentity(ConnectionContext connectionContext) {
+        return connectionContext
+                .getRootProvider()
+                .getRoot(AUTHORIZATION_ENDPOINT, connectionContext)
+                .map(
+                        root ->
+                                hash(
+                                        String.join(
+                                                "\n",
+                                                root,
+                                                String.valueOf(getIdentityZoneSubdomain()),
+                                                getClass().getName(),
+                                                getIdentity())));
+    }
+
+    private boolean isUnexpired(String accessToken) {
+        return parseToken(accessToken.substring(accessToken.indexOf(' ') + 1))
+                .map(Claims::getExpiration)
+                .filter(
+                        expiration ->
+                                expiration.getTime() - System.currentTimeMillis()
+                                        > getTokenRefreshMargin().toMillis())
+                .isPresent();
+    }
+
     private Mono<String> primaryToken(ConnectionContext connectionContext) {
         return requestToken(
                 connectionContext,
@@ -248,6 +353,49 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
                 tokensExtractor(connectionContext));
     }
 
+    private void proactivelyRefresh(ConnectionContext connectionContext, String accessToken) {
+        Duration margin = getTokenRefreshMargin();
+
+        if (margin.isNegative() || margin.isZero()) {
+            return;
+        }
+
+        parseToken(accessToken.substring(accessToken.indexOf(' ') + 1))
+                .map(Claims::getExpiration)
+                .filter(expiration -> expiration.getTime() > System.currentTimeMillis())
+                .map(expiration -> getRefreshDelay(expiration, margin))
+                .ifPresent(
+                        delay -> {
+                            Disposable.Swap refresh = Disposables.swap();
+                            Optional.ofNullable(
+                                            this.proactivelyRefreshedTokens.put(
+                                                    connectionContext, refresh))
+                                    .ifPresent(Disposable::dispose);
+
+                            refresh.update(
+                                    Mono.delay(delay)
+                                            .doOnNext(
+                                                    tick ->
+                                                            this.proactivelyRefreshedTokens.remove(
+                                                                    connectionContext, refresh))
+                                            .flatMap(tick -> refreshProactively(connectionContext))
+                                            .subscribe(
+                                                    t -> {},
+                                                    t ->
+                                                            LOGGER.warn(
+                                                                    "Unable to refresh token"
+                                                                            + " before expiration",
+                                                                    t)));
+                        });
+    }
+
+    private Mono<String> refreshProactively(ConnectionContext connectionContext) {
+        LOGGER.debug("Refreshing token before expiration");
+        AccessToken token = token(connectionContext);
+
+        return token.get().doOnNext(t -> this.accessTokens.put(connectionContext, token));
+    }
+
     private Mono<String> refreshToken(ConnectionContext connectionContext, String refreshToken) {
         return requestToken(
                         connectionContext,
@@ -292,6 +440,30 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
                                                                 responseWithBody.getBody())));
     }
 
+    private Mono<String> restoreToken(ConnectionContext connectionContext) {
+        return Mono.justOrEmpty(getTokenStore())
+                .filter(tokenStore -> this.restoredTokens.add(connectionContext))
+                .flatMap(
+                        tokenStore ->
+                                getStoredTokenIdentity(connectionContext).flatMap(tokenStore::get))
+                .doOnNext(
+                        storedToken ->
+                                storedToken
+                                        .getRefreshToken()
+                                        .ifPresent(
+                                                refreshToken ->
+                                                        setRefreshToken(
+                                                                connectionContext, refreshToken)))
+                .flatMap(storedToken -> Mono.justOrEmpty(storedToken.getAccessToken()))
+                .filter(this::isUnexpired)
+                .doOnNext(accessToken -> LOGGER.debug("Using stored access token"))
+                .onErrorResume(
+                        t -> {
+                            LOGGER.warn("Unable to read stored token", t);
+                            return Mono.empty();
+                        });
+    }
+
     private void setAuthorization(HttpHeaders headers) {
         String encoded =
                 Base64.getEncoder()
@@ -303,31 +475,79 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
         headers.set(AUTHORIZATION, String.format("Basic %s", encoded));
     }
 
-    private Mono<String> token(ConnectionContext connectionContext) {
-        Mono<String> cached =
-                this.refreshTokens
-                        .getOrDefault(connectionContext, Mono.empty())
+    private void setRefreshToken(ConnectionContext connectionContext, String refreshToken) {
+        this.refreshTokens.put(connectionContext, Mono.just(refreshToken));
+        getRefreshTokenStream(connectionContext).sink.emitNext(refreshToken, FAIL_FAST);
+    }
+
+    private void storeToken(ConnectionContext connectionContext, String accessToken) {
+        getTokenStore()
+                .ifPresent(
+                        tokenStore ->
+                                getStoredTokenIdentity(connectionContext)
+                                        .zipWith(
+                                                this.refreshTokens
+                                                        .getOrDefault(
+                                                                connectionContext, Mono.empty())
+                                                        .map(Optional::of)
+                                                        .defaultIfEmpty(Optional.empty()))
+                                        .flatMap(
+                                                tuple ->
+                                                        tokenStore.put(
+                                                                tuple.getT1(),
+                                                                StoredToken.builder()
+                                                                        .accessToken(accessToken)
+                                                                        .refreshToken(tuple.getT2())
+                                                                        .build()))
+                                        .subscribe(
+                                                null,
+                                                t -> LOGGER.warn("Unable to store token", t)));
+    }
+
+    private AccessToken token(ConnectionContext connectionContext) {
+        AccessToken accessToken = new AccessToken();
+
+        Mono<String> negotiated =
+                Mono.defer(() -> this.refreshTokens.getOrDefault(connectionContext, Mono.empty()))
                         .flatMap(
                                 refreshToken ->
                                         refreshToken(connectionContext, refreshToken)
                                                 .doOnSubscribe(
-                                                        s ->
-                                                                LOGGER.debug(
-                                                                        "Negotiating using refresh"
-                                                                                + " token")))
+                                                        s -> {
+                                                            LOGGER.debug(
+                                                                    "Negotiating using refresh"
+                                                                            + " token");
+                                                            recordTokenRefresh(
+                                                                    connectionContext, true);
+                                                        }))
                         .switchIfEmpty(
                                 primaryToken(connectionContext)
                                         .doOnSubscribe(
-                                                s ->
-                                                        LOGGER.debug(
-                                                                "Negotiating using token"
-                                                                        + " provider")));
+                                                s -> {
+                                                    LOGGER.debug(
+                                                            "Negotiating using token provider");
+                                                    recordTokenRefresh(connectionContext, false);
+                                                }))
+                        .doOnNext(token -> storeToken(connectionContext, token));
 
-        return connectionContext
-                .getCacheDuration()
-                .map(cached::cache)
-                .orElseGet(cached::cache)
-                .checkpoint();
+        Mono<String> cached =
+                restoreToken(connectionContext)
+                        .switchIfEmpty(negotiated)
+                        .doOnNext(
+                                token -> {
+                                    accessToken.negotiated = token;
+                                    proactivelyRefresh(connectionContext, token);
+                                })
+                        .doOnError(t -> accessToken.failed = true);
+
+        accessToken.token =
+                connectionContext
+                        .getCacheDuration()
+                        .map(cached::cache)
+                        .orElseGet(cached::cache)
+                        .checkpoint();
+
+        return accessToken;
     }
 
     @SuppressWarnings("unchecked")
@@ -340,6 +560,27 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
                         .map(AbstractUaaTokenProvider::extractAccessToken);
     }
 
+    /**
+     * A cached access token, along with the outcome of its negotiation. A rejected token is only replaced if it is the one
+     * negotiated here, so that requests rejected while a replacement is being negotiated share that negotiation.
+     */
+    private static final class AccessToken {
+
+        private volatile boolean failed;
+
+        private volatile String negotiated;
+
+        private Mono<String> token;
+
+        private Mono<String> get() {
+            return this.token;
+        }
+
+        private boolean isRejected(String token) {
+            return this.failed || token.equals(this.negotiated);
+        }
+    }
+
     private static final class RefreshToken {
 
         private Sinks.Many<String> sink = Sinks.many().replay().latest();
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor.tokenprovider;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A store that persists tokens negotiated by an {@link AbstractUaaTokenProvider} beyond the lifetime of a process, so that a new process can reuse a valid access token or refresh token instead
+ * of negotiating with its credentials.
+ */
+public interface TokenStore {
+
+    /**
+     * Retrieves the tokens stored for an identity
+     *
+     * @param identity an opaque identifier of the UAA, client and user the tokens were negotiated for
+     * @return the stored tokens or empty if no tokens are stored
+     */
+    Mono<StoredToken> get(String identity);
+
+    /**
+     * Stores the tokens for an identity, replacing any that are already stored
+     *
+     * @param identity an opaque identifier of the UAA, client and user the tokens were negotiated for
+     * @param token    the tokens to store
+     * @return completes when the tokens have been stored
+     */
+    Mono<Void> put(String identity, StoredToken token);
+}
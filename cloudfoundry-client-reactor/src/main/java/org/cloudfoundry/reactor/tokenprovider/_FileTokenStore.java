@@ -0,0 +1,306 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor.tokenprovider;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.immutables.value.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A {@link TokenStore} that persists tokens in a directory, one file per identity. Files are encrypted with AES-GCM using a key derived from a passphrase, and are only readable by their owner
+ * where the file system supports it. A file that cannot be read or decrypted, for example because the passphrase has changed, is treated as if no tokens were stored. Derived keys are shared
+ * by all stores with the same passphrase and salt, so that the key derivation is only paid once per process.
+ */
+@Value.Immutable
+abstract class _FileTokenStore implements TokenStore {
+
+    private static final String ACCESS_TOKEN = "access_token";
+
+    private static final int IV_LENGTH = 12;
+
+    private static final int KEY_DERIVATION_ITERATIONS = 210_000;
+
+    private static final int KEY_LENGTH = 256;
+
+    private static final Map<String, SecretKey> KEYS = new ConcurrentHashMap<>();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.token");
+
+    private static final String REFRESH_TOKEN = "refresh_token";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final int SALT_LENGTH = 16;
+
+    private static final int TAG_LENGTH = 128;
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    @Override
+    public Mono<StoredToken> get(String identity) {
+        return Mono.fromCallable(() -> read(identity))
+                .flatMap(Mono::justOrEmpty)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> put(String identity, StoredToken token) {
+        return Mono.<Void>fromRunnable(() -> write(identity, token))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * The directory to store tokens in. It is created if it does not exist.
+     */
+    abstract Path getDirectory();
+
+    @Value.Lazy
+    SecretKey getKey() {
+        byte[] salt = getSalt();
+        return KEYS.computeIfAbsent(
+                getKeyId(getPassphrase(), salt), id -> deriveKey(getPassphrase(), salt));
+    }
+
+    /**
+     * The passphrase the encryption key is derived from
+     */
+    @Value.Redacted
+    abstract String getPassphrase();
+
+    private static SecretKey deriveKey(String passphrase, byte[] salt) {
+        try {
+            PBEKeySpec keySpec =
+                    new PBEKeySpec(
+                            passphrase.toCharArray(), salt, KEY_DERIVATION_ITERATIONS, KEY_LENGTH);
+            byte[] key =
+                    SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256")
+                            .generateSecret(keySpec)
+                            .getEncoded();
+
+            return new SecretKeySpec(key, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to derive token store key", e);
+        }
+    }
+
+    private static StoredToken deserialize(byte[] bytes) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(bytes));
+
+        return StoredToken.builder()
+                .accessToken(Optional.ofNullable(properties.getProperty(ACCESS_TOKEN)))
+                .refreshToken(Optional.ofNullable(properties.getProperty(REFRESH_TOKEN)))
+                .build();
+    }
+
+    private static String getKeyId(String passphrase, byte[] salt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            digest.update(passphrase.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest.digest());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to derive token store key", e);
+        }
+    }
+
+    private static void restrictToOwner(Path path) {
+        try {
+            Files.setPosixFilePermissions(
+                    path,
+                    PosixFilePermissions.fromString(
+                            Files.isDirectory(path) ? "rwx------" : "rw-------"));
+        } catch (UnsupportedOperationException | IOException e) {
+            LOGGER.debug("Unable to restrict permissions of {}", path, e);
+        }
+    }
+
+    private static byte[] readSalt(Path path) throws IOException {
+        byte[] salt = Files.readAllBytes(path);
+
+        if (salt.length != SALT_LENGTH) {
+            throw new IllegalStateException(
+                    String.format(
+                            "Token store salt %s is %d bytes long, expected %d",
+                            path, salt.length, SALT_LENGTH));
+        }
+
+        return salt;
+    }
+
+    private static byte[] serialize(StoredToken token) throws IOException {
+        Properties properties = new Properties();
+        token.getAccessToken()
+                .ifPresent(accessToken -> properties.setProperty(ACCESS_TOKEN, accessToken));
+        token.getRefreshToken()
+                .ifPresent(refreshToken -> properties.setProperty(REFRESH_TOKEN, refreshToken));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        properties.store(out, null);
+        return out.toByteArray();
+    }
+
+    private static void writeAtomically(Path path, byte[] contents) throws IOException {
+        Path temporary =
+                Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+
+        try {
+            restrictToOwner(temporary);
+            Files.write(temporary, contents);
+            Files.move(
+                    temporary,
+                    path,
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeExclusively(Path path, byte[] contents) throws IOException {
+        Path temporary =
+                Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+
+        try {
+            restrictToOwner(temporary);
+            Files.write(temporary, contents);
+
+            // linking fails if the file exists, so the file only ever appears with all of its
+            // contents, and only once. Moving without replacing is the fallback for file systems
+            // without hard links.
+            try {
+                Files.createLink(path, temporary);
+            } catch (FileAlreadyExistsException e) {
+                throw e;
+            } catch (UnsupportedOperationException | IOException e) {
+                LOGGER.debug("Unable to link {}, moving instead", path, e);
+                Files.move(temporary, path);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private Cipher getCipher(int mode, String identity, byte[] iv) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(mode, getKey(), new GCMParameterSpec(TAG_LENGTH, iv));
+        cipher.updateAAD(identity.getBytes(StandardCharsets.UTF_8));
+        return cipher;
+    }
+
+    private Path getDirectoryCreatingIfNecessary() throws IOException {
+        Path directory = getDirectory();
+
+        if (!Files.isDirectory(directory)) {
+            Files.createDirectories(directory);
+            restrictToOwner(directory);
+        }
+
+        return directory;
+    }
+
+    private Path getPath(String identity) throws IOException {
+        return getDirectoryCreatingIfNecessary().resolve(identity);
+    }
+
+    private byte[] getSalt() {
+        try {
+            Path path = getDirectoryCreatingIfNecessary().resolve("salt");
+
+            if (Files.exists(path)) {
+                return readSalt(path);
+            }
+
+            byte[] salt = new byte[SALT_LENGTH];
+            RANDOM.nextBytes(salt);
+
+            try {
+                writeExclusively(path, salt);
+            } catch (FileAlreadyExistsException e) {
+                // another store created the salt first, and tokens must be encrypted with its key
+                return readSalt(path);
+            }
+
+            return salt;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read token store salt", e);
+        }
+    }
+
+    private Optional<StoredToken> read(String identity) throws IOException {
+        Path path = getPath(identity);
+
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+
+        byte[] contents = Files.readAllBytes(path);
+
+        try {
+            byte[] iv = Arrays.copyOf(contents, IV_LENGTH);
+            byte[] plaintext =
+                    getCipher(Cipher.DECRYPT_MODE, identity, iv)
+                            .doFinal(contents, IV_LENGTH, contents.length - IV_LENGTH);
+
+            return Optional.of(deserialize(plaintext));
+        } catch (GeneralSecurityException | RuntimeException e) {
+            LOGGER.debug("Unable to decrypt stored token {}", path, e);
+            return Optional.empty();
+        }
+    }
+
+    private void write(String identity, StoredToken token) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            RANDOM.nextBytes(iv);
+            byte[] ciphertext =
+                    getCipher(Cipher.ENCRYPT_MODE, identity, iv).doFinal(serialize(token));
+
+            byte[] contents = Arrays.copyOf(iv, IV_LENGTH + ciphertext.length);
+            System.arraycopy(ciphertext, 0, contents, IV_LENGTH, ciphertext.length);
+
+            writeAtomically(getPath(identity), contents);
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Unable to store token", e);
+        }
+    }
+}
@@ -32,6 +32,11 @@ abstract class _OneTimePasscodeTokenProvider extends AbstractUaaTokenProvider {
      */
     abstract String getPasscode();
 
+    @Override
+    String getIdentity() {
+        return String.format("%s:%s", getClientId(), getPasscode());
+    }
+
     @Override
     void tokenRequestTransformer(HttpClientRequest request, HttpClientForm form) {
         form.multipart(false)
@@ -44,6 +44,11 @@ abstract class _PasswordGrantTokenProvider extends AbstractUaaTokenProvider {
      */
     abstract String getUsername();
 
+    @Override
+    String getIdentity() {
+        return String.format("%s:%s", getClientId(), getUsername());
+    }
+
     @Override
     void tokenRequestTransformer(HttpClientRequest request, HttpClientForm form) {
         form.multipart(false)
@@ -32,6 +32,11 @@ abstract class _RefreshTokenGrantTokenProvider extends AbstractUaaTokenProvider
      */
     abstract String getToken();
 
+    @Override
+    String getIdentity() {
+        return String.format("%s:%s", getClientId(), getToken());
+    }
+
     @Override
     void tokenRequestTransformer(HttpClientRequest request, HttpClientForm form) {
         form.multipart(false)
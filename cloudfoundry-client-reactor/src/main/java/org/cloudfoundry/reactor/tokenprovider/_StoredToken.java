@@ -0,0 +1,36 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor.tokenprovider;
+
+import java.util.Optional;
+import org.immutables.value.Value;
+
+/**
+ * The tokens persisted by a {@link TokenStore}
+ */
+@Value.Immutable
+abstract class _StoredToken {
+
+    /**
+     * The access token, including its type (e.g. {@code bearer ...})
+     */
+    abstract Optional<String> getAccessToken();
+
+    /**
+     * The refresh token
+     */
+    abstract Optional<String> getRefreshToken();
+}
@@ -25,6 +25,7 @@ import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.client.QueryBuilder;
 import org.cloudfoundry.reactor.util.AbstractReactorOperations;
+import org.cloudfoundry.reactor.util.ErrorPayloadMapper;
 import org.cloudfoundry.reactor.util.ErrorPayloadMappers;
 import org.cloudfoundry.reactor.util.Operator;
 import org.cloudfoundry.reactor.util.UriQueryParameter;
@@ -35,12 +36,15 @@ import reactor.netty.http.client.HttpClientResponse;
 
 public abstract class AbstractUaaOperations extends AbstractReactorOperations {
 
+    private final ErrorPayloadMapper errorPayloadMapper;
+
     protected AbstractUaaOperations(
             ConnectionContext connectionContext,
             Mono<String> root,
             TokenProvider tokenProvider,
             Map<String, String> requestTags) {
         super(connectionContext, root, tokenProvider, requestTags);
+        this.errorPayloadMapper = ErrorPayloadMappers.uaa(connectionContext.getObjectMapper());
     }
 
     @Override
@@ -275,8 +279,7 @@ public abstract class AbstractUaaOperations extends AbstractReactorOperations {
     }
 
     private Operator attachErrorPayloadMapper(Operator operator) {
-        return operator.withErrorPayloadMapper(
-                ErrorPayloadMappers.uaa(this.connectionContext.getObjectMapper()));
+        return operator.withErrorPayloadMapper(this.errorPayloadMapper);
     }
 
     private Function<UriComponentsBuilder, UriComponentsBuilder> queryTransformer(
@@ -49,13 +49,11 @@ public abstract class AbstractReactorOperations {
     }
 
     protected Mono<Operator> createOperator() {
-        HttpClient httpClient = this.connectionContext.getHttpClient();
+        return createOperator(this.connectionContext.getHttpClient());
+    }
 
-        return this.root
-                .map(this::buildOperatorContext)
-                .map(context -> new Operator(context, httpClient))
-                .map(operator -> operator.headers(this::addHeaders))
-                .map(operator -> operator.headersWhen(this::addHeadersWhen));
+    protected Mono<Operator> createWebSocketOperator() {
+        return createOperator(this.connectionContext.getWebSocketHttpClient());
     }
 
     private void addHeaders(HttpHeaders httpHeaders) {
@@ -77,4 +75,12 @@ public abstract class AbstractReactorOperations {
                 .tokenProvider(this.tokenProvider)
                 .build();
     }
+
+    private Mono<Operator> createOperator(HttpClient httpClient) {
+        return this.root
+                .map(this::buildOperatorContext)
+                .map(context -> new Operator(context, httpClient))
+                .map(operator -> operator.headers(this::addHeaders))
+                .map(operator -> operator.headersWhen(this::addHeadersWhen));
+    }
 }
@@ -17,18 +17,39 @@
 package org.cloudfoundry.reactor.util;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.cloudfoundry.reactor.client.MethodNameComparator;
 import reactor.core.Exceptions;
 
+/**
+ * Utilities for reading annotations and annotated values.  The reflective lookups for a given class are performed once, and the results (including {@link MethodHandle}s for annotated
+ * accessors) cached for the lifetime of that class.
+ */
 public final class AnnotationUtils {
 
+    private static final MethodType ACCESSOR_TYPE =
+            MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<ClassMetadata> METADATA =
+            new ClassValue<ClassMetadata>() {
+
+                @Override
+                protected ClassMetadata computeValue(Class<?> type) {
+                    return new ClassMetadata(type);
+                }
+            };
+
     private AnnotationUtils() {}
 
     public static class AnnotatedValue<T extends Annotation> {
@@ -53,6 +74,25 @@ public final class AnnotationUtils {
 
     public static <T extends Annotation> Optional<T> findAnnotation(
             Class<?> type, Class<T> annotationType) {
+        return METADATA.get(type).getAnnotation(annotationType);
+    }
+
+    public static <T extends Annotation> Stream<AnnotatedValue<T>> streamAnnotatedValues(
+            Object instance, Class<T> annotationClass) {
+        return METADATA.get(instance.getClass()).getAccessors(annotationClass).stream()
+                .map(accessor -> accessor.getValue(instance))
+                .filter(Objects::nonNull);
+    }
+
+    private static <T extends Annotation> AnnotatedAccessor<T> createAccessor(
+            Method method, Class<T> annotationType) {
+        return resolveAnnotation(method, annotationType)
+                .map(annotation -> new AnnotatedAccessor<>(annotation, unreflect(method)))
+                .orElse(null);
+    }
+
+    private static <T extends Annotation> Optional<T> resolveAnnotation(
+            Class<?> type, Class<T> annotationType) {
         Class<?> clazz = type;
         T annotation = clazz.getAnnotation(annotationType);
 
@@ -69,16 +109,7 @@ public final class AnnotationUtils {
         return Optional.ofNullable(annotation);
     }
 
-    public static <T extends Annotation> Stream<AnnotatedValue<T>> streamAnnotatedValues(
-            Object instance, Class<T> annotationClass) {
-        Class<?> instanceClass = instance.getClass();
-        return Arrays.stream(instanceClass.getMethods())
-                .sorted(MethodNameComparator.INSTANCE)
-                .map(processMethod(instance, annotationClass))
-                .filter(Objects::nonNull);
-    }
-
-    private static <T extends Annotation> Optional<T> findAnnotation(
+    private static <T extends Annotation> Optional<T> resolveAnnotation(
             Method method, Class<T> annotationType) {
         Class<?> clazz = method.getDeclaringClass();
         T annotation = method.getAnnotation(annotationType);
@@ -102,26 +133,71 @@ public final class AnnotationUtils {
         return Optional.ofNullable(annotation);
     }
 
-    private static Optional<Object> getValue(Method method, Object instance) {
+    private static MethodHandle unreflect(Method method) {
         try {
-            return Optional.ofNullable(method.invoke(instance));
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return MethodHandles.lookup().unreflect(method).asType(ACCESSOR_TYPE);
+        } catch (IllegalAccessException e) {
             throw Exceptions.propagate(e);
         }
     }
 
-    private static <T extends Annotation>
-            Function<T, Optional<AnnotatedValue<T>>> processAnnotation(
-                    Method method, Object instance) {
-        return annotation ->
-                getValue(method, instance).map(value -> new AnnotatedValue<T>(annotation, value));
+    private static final class AnnotatedAccessor<T extends Annotation> {
+
+        private final T annotation;
+
+        private final MethodHandle handle;
+
+        private AnnotatedAccessor(T annotation, MethodHandle handle) {
+            this.annotation = annotation;
+            this.handle = handle;
+        }
+
+        private AnnotatedValue<T> getValue(Object instance) {
+            Object value;
+
+            try {
+                value = this.handle.invokeExact(instance);
+            } catch (Throwable t) {
+                throw Exceptions.propagate(t);
+            }
+
+            return value == null ? null : new AnnotatedValue<>(this.annotation, value);
+        }
     }
 
-    private static <T extends Annotation> Function<Method, AnnotatedValue<T>> processMethod(
-            Object instance, Class<T> annotationClass) {
-        return method ->
-                findAnnotation(method, annotationClass)
-                        .flatMap(processAnnotation(method, instance))
-                        .orElse(null);
+    private static final class ClassMetadata {
+
+        private final Map<Class<? extends Annotation>, List<AnnotatedAccessor<?>>> accessors =
+                new ConcurrentHashMap<>();
+
+        private final Map<Class<? extends Annotation>, Optional<?>> annotations =
+                new ConcurrentHashMap<>();
+
+        private final Class<?> type;
+
+        private ClassMetadata(Class<?> type) {
+            this.type = type;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private <T extends Annotation> List<AnnotatedAccessor<T>> getAccessors(
+                Class<T> annotationType) {
+            return (List)
+                    this.accessors.computeIfAbsent(
+                            annotationType,
+                            key ->
+                                    Arrays.stream(this.type.getMethods())
+                                            .sorted(MethodNameComparator.INSTANCE)
+                                            .map(method -> createAccessor(method, annotationType))
+                                            .filter(Objects::nonNull)
+                                            .collect(Collectors.toList()));
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T extends Annotation> Optional<T> getAnnotation(Class<T> annotationType) {
+            return (Optional<T>)
+                    this.annotations.computeIfAbsent(
+                            annotationType, key -> resolveAnnotation(this.type, annotationType));
+        }
     }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor.util;
+
+public interface ConnectionPoolMetricsMXBean {
+
+    /**
+     * Returns the number of connections that have been acquired and are in use
+     */
+    int getAcquiredSize();
+
+    /**
+     * Returns the number of connections that have been opened, both in use and idle
+     */
+    int getAllocatedSize();
+
+    /**
+     * Returns the number of idle connections
+     */
+    int getIdleSize();
+
+    /**
+     * Returns the maximum number of connections that can be opened
+     */
+    int getMaxAllocatedSize();
+
+    /**
+     * Returns the maximum number of requests that can wait for a connection or {@code -1} if unbounded
+     */
+    int getMaxPendingAcquireSize();
+
+    /**
+     * Returns the number of requests waiting for a connection
+     */
+    int getPendingAcquireSize();
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor.util;
+
+import reactor.netty.resources.ConnectionPoolMetrics;
+
+public final class ConnectionPoolMetricsWrapper implements ConnectionPoolMetricsMXBean {
+
+    private final ConnectionPoolMetrics delegate;
+
+    public ConnectionPoolMetricsWrapper(ConnectionPoolMetrics delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int getAcquiredSize() {
+        return this.delegate.acquiredSize();
+    }
+
+    @Override
+    public int getAllocatedSize() {
+        return this.delegate.allocatedSize();
+    }
+
+    @Override
+    public int getIdleSize() {
+        return this.delegate.idleSize();
+    }
+
+    @Override
+    public int getMaxAllocatedSize() {
+        return this.delegate.maxAllocatedSize();
+    }
+
+    @Override
+    public int getMaxPendingAcquireSize() {
+        return this.delegate.maxPendingAcquireSize();
+    }
+
+    @Override
+    public int getPendingAcquireSize() {
+        return this.delegate.pendingAcquireSize();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import java.util.concurrent.atomic.AtomicBoolean;
+import reactor.core.publisher.Flux;
+import reactor.netty.Connection;
+
+final class ConnectionUtils {
+
+    private ConnectionUtils() {}
+
+    /**
+     * Receives the body of a response. Once the body has been read completely, Reactor Netty returns the connection to the
+     * pool so that it can be reused. If reading is cancelled or fails, the state of the connection is unknown and it is
+     * closed instead.
+     *
+     * @param connection the connection to receive the body from
+     * @return the body of the response
+     */
+    static Flux<ByteBuf> receive(Connection connection) {
+        return Flux.defer(
+                () -> {
+                    AtomicBoolean received = new AtomicBoolean();
+
+                    // A consumer that cancels in response to the completion would otherwise be
+                    // seen as having cancelled before the body was read
+                    return connection
+                            .inbound()
+                            .receive()
+                            .doOnComplete(() -> received.set(true))
+                            .doFinally(
+                                    signalType -> {
+                                        if (!received.get()) {
+                                            connection.dispose();
+                                        }
+                                    });
+                });
+    }
+}
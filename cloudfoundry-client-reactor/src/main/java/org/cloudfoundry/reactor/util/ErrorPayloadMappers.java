@@ -19,9 +19,11 @@ package org.cloudfoundry.reactor.util;
 import static io.netty.handler.codec.http.HttpStatusClass.CLIENT_ERROR;
 import static io.netty.handler.codec.http.HttpStatusClass.SERVER_ERROR;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.netty.handler.codec.http.HttpStatusClass;
-import java.util.Map;
 import java.util.function.Function;
 import org.cloudfoundry.UnknownCloudFoundryException;
 import org.cloudfoundry.client.v2.ClientV2Exception;
@@ -31,34 +33,35 @@ import org.cloudfoundry.reactor.HttpClientResponseWithConnection;
 import org.cloudfoundry.uaa.UaaException;
 import reactor.core.publisher.Mono;
 import reactor.netty.ByteBufFlux;
-import reactor.netty.Connection;
 import reactor.netty.http.client.HttpClientResponse;
 
 public final class ErrorPayloadMappers {
 
-    @SuppressWarnings("unchecked")
     public static ErrorPayloadMapper clientV2(ObjectMapper objectMapper) {
+        ObjectReader reader = objectMapper.readerFor(ClientV2Error.class);
+
         return inbound ->
                 inbound.flatMap(
                         mapToError(
                                 (statusCode, payload) -> {
-                                    Map<String, Object> map =
-                                            objectMapper.readValue(payload, Map.class);
-                                    Integer code = (Integer) map.get("code");
-                                    String description = (String) map.get("description");
-                                    String errorCode = (String) map.get("error_code");
+                                    ClientV2Error error = reader.readValue(payload);
 
                                     return new ClientV2Exception(
-                                            statusCode, code, description, errorCode);
+                                            statusCode,
+                                            error.code,
+                                            error.description,
+                                            error.errorCode);
                                 }));
     }
 
     public static ErrorPayloadMapper clientV3(ObjectMapper objectMapper) {
+        ObjectReader reader = objectMapper.readerFor(Errors.class);
+
         return inbound ->
                 inbound.flatMap(
                         mapToError(
                                 (statusCode, payload) -> {
-                                    Errors errors = objectMapper.readValue(payload, Errors.class);
+                                    Errors errors = reader.readValue(payload);
                                     return new ClientV3Exception(statusCode, errors.getErrors());
                                 }));
     }
@@ -70,13 +73,13 @@ public final class ErrorPayloadMappers {
                             HttpClientResponse response = responseWithConnection.getResponse();
 
                             if (isError(response)) {
-                                Connection connection = responseWithConnection.getConnection();
                                 ByteBufFlux body =
-                                        ByteBufFlux.fromInbound(connection.inbound().receive());
+                                        ByteBufFlux.fromInbound(
+                                                ConnectionUtils.receive(
+                                                        responseWithConnection.getConnection()));
 
                                 return body.aggregate()
                                         .asString()
-                                        .doFinally(signalType -> connection.channel().close())
                                         .flatMap(
                                                 payload -> {
                                                     return Mono.error(
@@ -90,18 +93,17 @@ public final class ErrorPayloadMappers {
                         });
     }
 
-    @SuppressWarnings("unchecked")
     public static ErrorPayloadMapper uaa(ObjectMapper objectMapper) {
+        ObjectReader reader = objectMapper.readerFor(UaaError.class);
+
         return inbound ->
                 inbound.flatMap(
                         mapToError(
                                 (statusCode, payload) -> {
-                                    Map<String, Object> map =
-                                            objectMapper.readValue(payload, Map.class);
-                                    String error = (String) map.get("error");
-                                    String errorDescription = (String) map.get("error_description");
+                                    UaaError error = reader.readValue(payload);
 
-                                    return new UaaException(statusCode, error, errorDescription);
+                                    return new UaaException(
+                                            statusCode, error.error, error.errorDescription);
                                 }));
     }
 
@@ -118,13 +120,8 @@ public final class ErrorPayloadMappers {
                 return Mono.just(response);
             }
 
-            Connection connection = response.getConnection();
             ByteBufFlux body =
-                    ByteBufFlux.fromInbound(
-                            connection
-                                    .inbound()
-                                    .receive()
-                                    .doFinally(signalType -> connection.dispose()));
+                    ByteBufFlux.fromInbound(ConnectionUtils.receive(response.getConnection()));
 
             return body.aggregate()
                     .asString()
@@ -154,4 +151,27 @@ public final class ErrorPayloadMappers {
 
         RuntimeException apply(Integer statusCode, String payload) throws Exception;
     }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static final class ClientV2Error {
+
+        @JsonProperty("code")
+        private Integer code;
+
+        @JsonProperty("description")
+        private String description;
+
+        @JsonProperty("error_code")
+        private String errorCode;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static final class UaaError {
+
+        @JsonProperty("error")
+        private String error;
+
+        @JsonProperty("error_description")
+        private String errorDescription;
+    }
 }
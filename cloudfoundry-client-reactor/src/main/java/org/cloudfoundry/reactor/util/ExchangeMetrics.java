@@ -0,0 +1,135 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import org.cloudfoundry.Nullable;
+import org.cloudfoundry.reactor.MetricsRecorder;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.http.client.HttpClientResponse;
+import reactor.util.context.ContextView;
+
+/**
+ * The state of a single exchange whose metrics are reported to a {@link MetricsRecorder}. An instance is created for each
+ * subscription to a response and carried in the subscriber {@link ContextView} so that it is never shared between
+ * concurrent exchanges. Retries of an exchange, such as after an invalid token, share an instance.
+ */
+final class ExchangeMetrics {
+
+    private static final Pattern GUID =
+            Pattern.compile(
+                    "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    private final MetricsRecorder recorder;
+
+    private final long subscribed = System.nanoTime();
+
+    private volatile long acquireStarted;
+
+    private volatile String method = UNKNOWN;
+
+    private volatile Integer status;
+
+    private volatile String uriTemplate = UNKNOWN;
+
+    ExchangeMetrics(MetricsRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    static Optional<ExchangeMetrics> from(ContextView context) {
+        return context.getOrEmpty(ExchangeMetrics.class);
+    }
+
+    static String toUriTemplate(String path) {
+        return GUID.matcher(path).replaceAll("{guid}");
+    }
+
+    void acquireStarted() {
+        this.acquireStarted = System.nanoTime();
+        this.status = null;
+    }
+
+    void acquired(HttpClientRequest request) {
+        identify(request);
+        this.recorder.recordConnectionAcquireTime(
+                this.method, this.uriTemplate, since(this.acquireStarted));
+    }
+
+    void cancelled() {
+        completed(new CancellationException("Exchange cancelled"));
+    }
+
+    void completed(@Nullable Throwable error) {
+        if (!this.completed.compareAndSet(false, true)) {
+            return;
+        }
+
+        long bytes = this.bytesReceived.get();
+        if (bytes > 0) {
+            this.recorder.recordDataReceived(this.method, this.uriTemplate, bytes);
+        }
+
+        this.recorder.recordExchange(
+                this.method, this.uriTemplate, this.status, error, since(this.acquireStarted));
+    }
+
+    void dataReceived(int bytes) {
+        this.bytesReceived.addAndGet(bytes);
+    }
+
+    void invalidTokenRetry() {
+        this.recorder.recordInvalidTokenRetry(this.method, this.uriTemplate);
+    }
+
+    void requestFailed(HttpClientRequest request) {
+        identify(request);
+    }
+
+    void requestSent(HttpClientRequest request) {
+        String contentLength = request.requestHeaders().get(HttpHeaderNames.CONTENT_LENGTH);
+
+        if (contentLength != null) {
+            this.recorder.recordDataSent(
+                    this.method, this.uriTemplate, Long.parseLong(contentLength));
+        }
+    }
+
+    void responseReceived(HttpClientResponse response) {
+        this.status = response.status().code();
+    }
+
+    private void identify(HttpClientRequest request) {
+        this.method = request.method().name();
+        this.uriTemplate = toUriTemplate(request.fullPath());
+    }
+
+    private Duration since(long start) {
+        return Duration.ofNanos(System.nanoTime() - (start == 0 ? this.subscribed : start));
+    }
+}
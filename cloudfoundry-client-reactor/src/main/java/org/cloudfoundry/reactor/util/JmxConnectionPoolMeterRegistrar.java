@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor.util;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Publishes the metrics of each connection pool as a {@link ConnectionPoolMetricsMXBean}. Reactor Netty keeps a pool per
+ * remote host, so an MBean is registered for each host as its pool is created and unregistered when the pool is disposed.
+ */
+public final class JmxConnectionPoolMeterRegistrar implements ConnectionProvider.MeterRegistrar {
+
+    private final Logger logger = LoggerFactory.getLogger("cloudfoundry-client");
+
+    private final String endpoint;
+
+    public JmxConnectionPoolMeterRegistrar(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        try {
+            ObjectName name = getObjectName(poolName, id, remoteAddress);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            this.logger.error("Unable to unregister ConnectionPool MBean", e);
+        }
+    }
+
+    @Override
+    public void registerMetrics(
+            String poolName,
+            String id,
+            SocketAddress remoteAddress,
+            ConnectionPoolMetrics metrics) {
+        try {
+            ObjectName name = getObjectName(poolName, id, remoteAddress);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+
+            server.registerMBean(new ConnectionPoolMetricsWrapper(metrics), name);
+        } catch (JMException e) {
+            this.logger.error("Unable to register ConnectionPool MBean", e);
+        }
+    }
+
+    private static String getRemoteHost(SocketAddress remoteAddress) {
+        if (remoteAddress instanceof InetSocketAddress) {
+            InetSocketAddress address = (InetSocketAddress) remoteAddress;
+            return String.format("%s:%d", address.getHostString(), address.getPort());
+        }
+
+        return remoteAddress.toString();
+    }
+
+    private ObjectName getObjectName(String poolName, String id, SocketAddress remoteAddress)
+            throws JMException {
+        return ObjectName.getInstance(
+                String.format(
+                        "org.cloudfoundry.reactor:type=ConnectionPool,endpoint=%s,name=%s,id=%s,remoteHost=%s",
+                        this.endpoint,
+                        ObjectName.quote(poolName),
+                        ObjectName.quote(id),
+                        ObjectName.quote(getRemoteHost(remoteAddress))));
+    }
+}
@@ -16,17 +16,22 @@
 
 package org.cloudfoundry.reactor.util;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpHeaders;
-import io.netty.handler.codec.json.JsonObjectDecoder;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
 import org.reactivestreams.Publisher;
 import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.netty.ByteBufFlux;
 import reactor.netty.NettyOutbound;
@@ -38,28 +43,35 @@ public final class JsonCodec {
 
     public static <T> Mono<T> decode(
             ObjectMapper objectMapper, ByteBufFlux responseBody, Class<T> responseType) {
-        return responseBody
-                .aggregate()
-                .asByteArray()
-                .map(
-                        payload -> {
-                            try {
-                                return objectMapper.readValue(payload, responseType);
-                            } catch (Throwable t) {
-                                throw new JsonParsingException(
-                                        t.getMessage(),
-                                        t,
-                                        new String(payload, Charset.defaultCharset()));
-                            }
-                        });
+        return tokenize(responseBody, () -> JsonTokenizer.document(objectMapper, MAX_PAYLOAD_SIZE))
+                .singleOrEmpty()
+                .map(tokens -> read(objectMapper, tokens, responseType));
     }
 
-    public static void setDecodeHeaders(HttpHeaders httpHeaders) {
-        httpHeaders.set(HttpHeaderNames.ACCEPT, HttpHeaderValues.APPLICATION_JSON);
+    /**
+     * Decodes the elements of an array field of a response, emitting each element as soon as it has been received rather than once the whole response has arrived.  The remainder of the response
+     * is ignored.
+     *
+     * @param objectMapper the {@link ObjectMapper} to bind elements with
+     * @param responseBody the response body
+     * @param elementType  the type of the elements
+     * @param elementsPath the names of the fields that lead from the top-level object to the array field
+     * @param <T>          the type of the elements
+     * @return the elements of the array
+     */
+    public static <T> Flux<T> decodeElements(
+            ObjectMapper objectMapper,
+            ByteBufFlux responseBody,
+            Class<T> elementType,
+            String... elementsPath) {
+        return tokenize(
+                        responseBody,
+                        () -> JsonTokenizer.elements(objectMapper, MAX_PAYLOAD_SIZE, elementsPath))
+                .map(tokens -> read(objectMapper, tokens, elementType));
     }
 
-    static JsonObjectDecoder createDecoder() {
-        return new JsonObjectDecoder(MAX_PAYLOAD_SIZE);
+    public static void setDecodeHeaders(HttpHeaders httpHeaders) {
+        httpHeaders.set(HttpHeaderNames.ACCEPT, HttpHeaderValues.APPLICATION_JSON);
     }
 
     static BiFunction<HttpClientRequest, NettyOutbound, Publisher<Void>> encode(
@@ -70,17 +82,70 @@ public final class JsonCodec {
         }
 
         return (request, outbound) -> {
-            try {
-                byte[] bytes = objectMapper.writeValueAsBytes(requestPayload);
-                String contentLength = String.valueOf(bytes.length);
-                Mono<byte[]> body = Mono.just(bytes);
+            ByteBuf body = outbound.alloc().buffer();
 
-                request.header(HttpHeaderNames.CONTENT_LENGTH, contentLength);
-                request.header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON);
-                return outbound.sendByteArray(body);
-            } catch (JsonProcessingException e) {
-                throw Exceptions.propagate(e);
+            try (OutputStream out = new ByteBufOutputStream(body)) {
+                objectMapper.writeValue(out, requestPayload);
+            } catch (Throwable t) {
+                body.release();
+                throw Exceptions.propagate(t);
             }
+
+            request.header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(body.writerIndex()));
+            request.header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON);
+            return outbound.send(Mono.just(body));
         };
     }
+
+    private static <T> T read(ObjectMapper objectMapper, TokenBuffer tokens, Class<T> type) {
+        try {
+            return objectMapper.readValue(tokens.asParser(objectMapper), type);
+        } catch (Throwable t) {
+            throw new JsonParsingException(t.getMessage(), t, toString(objectMapper, tokens));
+        }
+    }
+
+    private static Flux<TokenBuffer> tokenize(
+            ByteBufFlux responseBody, Supplier<JsonTokenizer> tokenizerSupplier) {
+        return Flux.defer(
+                () -> {
+                    JsonTokenizer tokenizer = tokenizerSupplier.get();
+
+                    return responseBody
+                            .map(
+                                    chunk -> {
+                                        try {
+                                            return tokenizer.tokenize(chunk);
+                                        } catch (IOException e) {
+                                            throw new JsonParsingException(
+                                                    e.getMessage(),
+                                                    e,
+                                                    tokenizer.current(Charset.defaultCharset()));
+                                        }
+                                    })
+                            .concatWith(
+                                    Mono.fromCallable(
+                                            () -> {
+                                                try {
+                                                    return tokenizer.endOfInput();
+                                                } catch (IOException e) {
+                                                    throw new JsonParsingException(
+                                                            e.getMessage(),
+                                                            e,
+                                                            tokenizer.current(
+                                                                    Charset.defaultCharset()));
+                                                }
+                                            }))
+                            .concatMapIterable(d -> d);
+                });
+    }
+
+    private static String toString(ObjectMapper objectMapper, TokenBuffer tokens) {
+        try {
+            return objectMapper.writeValueAsString(
+                    objectMapper.readTree(tokens.asParser(objectMapper)));
+        } catch (IOException e) {
+            return tokens.toString();
+        }
+    }
 }
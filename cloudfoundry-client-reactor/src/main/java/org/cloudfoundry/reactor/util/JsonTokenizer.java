@@ -0,0 +1,262 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.TooLongFrameException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tokenizes a JSON document as it arrives, one {@link ByteBuf} at a time, using Jackson's non-blocking parser.  Completed values are returned as {@link TokenBuffer}s that can be bound without
+ * re-parsing.  Either the first value in the document is returned as a single value, or each element of an array field, found by following a path of field names from the top-level object, is
+ * returned as soon as it is complete.
+ * <p>
+ * Instances are not thread-safe, and must be fed the chunks of a single document in order.
+ */
+final class JsonTokenizer {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final List<String> elementsPath;
+
+    private final ByteArrayFeeder feeder;
+
+    private final int maxPayloadSize;
+
+    private final JsonParser parser;
+
+    private final byte[] scratch = new byte[CHUNK_SIZE];
+
+    private int depth;
+
+    private boolean documentComplete;
+
+    private int elementsDepth;
+
+    private boolean elementsFieldSeen;
+
+    private boolean inElements;
+
+    private int matched;
+
+    private int scratchLength;
+
+    private long size;
+
+    private TokenBuffer tokenBuffer;
+
+    private JsonTokenizer(
+            ObjectMapper objectMapper, List<String> elementsPath, int maxPayloadSize) {
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to create non-blocking JSON parser", e);
+        }
+
+        this.elementsPath = elementsPath;
+        this.feeder = (ByteArrayFeeder) this.parser.getNonBlockingInputFeeder();
+        this.maxPayloadSize = maxPayloadSize;
+    }
+
+    /**
+     * Creates a tokenizer that returns the first value in the document as a single value, ignoring anything that follows it
+     *
+     * @param objectMapper   the {@link ObjectMapper} to create the parser with
+     * @param maxPayloadSize the maximum size of the document in bytes
+     * @return the tokenizer
+     */
+    static JsonTokenizer document(ObjectMapper objectMapper, int maxPayloadSize) {
+        return new JsonTokenizer(objectMapper, null, maxPayloadSize);
+    }
+
+    /**
+     * Creates a tokenizer that returns each element of an array field as a separate value, ignoring the rest of the document
+     *
+     * @param objectMapper   the {@link ObjectMapper} to create the parser with
+     * @param maxPayloadSize the maximum size of the document in bytes
+     * @param elementsPath   the names of the fields that lead from the top-level object to the array field, such as {@code "data", "result"}
+     * @return the tokenizer
+     */
+    static JsonTokenizer elements(
+            ObjectMapper objectMapper, int maxPayloadSize, String... elementsPath) {
+        return new JsonTokenizer(objectMapper, Arrays.asList(elementsPath), maxPayloadSize);
+    }
+
+    /**
+     * Signals the end of the document
+     *
+     * @return any values completed by the end of the document
+     * @throws IOException if the document is not well-formed
+     */
+    List<TokenBuffer> endOfInput() throws IOException {
+        this.feeder.endOfInput();
+        return drain();
+    }
+
+    /**
+     * Returns the part of the document that was being parsed when the last chunk was fed or the end of the document was signalled, so that it can be reported if the document turns out not to be
+     * well-formed.  Nothing is copied until this method is called.
+     *
+     * @param charset the charset to decode the document with
+     * @return the part of the document being parsed, at most 8 KiB
+     */
+    String current(Charset charset) {
+        return new String(this.scratch, 0, this.scratchLength, charset);
+    }
+
+    /**
+     * Feeds a chunk of the document.  The contents of the chunk are consumed before this method returns, so the chunk may be released afterwards.
+     *
+     * @param chunk the chunk
+     * @return any values completed by the chunk
+     * @throws IOException if the document is not well-formed
+     */
+    List<TokenBuffer> tokenize(ByteBuf chunk) throws IOException {
+        this.size += chunk.readableBytes();
+        if (this.size > this.maxPayloadSize) {
+            throw new TooLongFrameException(
+                    String.format("JSON payload exceeds %d bytes", this.maxPayloadSize));
+        }
+
+        List<TokenBuffer> values = Collections.emptyList();
+
+        for (int index = chunk.readerIndex(); index < chunk.writerIndex(); ) {
+            int length = Math.min(CHUNK_SIZE, chunk.writerIndex() - index);
+            chunk.getBytes(index, this.scratch, 0, length);
+            index += length;
+            this.scratchLength = length;
+
+            this.feeder.feedInput(this.scratch, 0, length);
+            values = append(values, drain());
+        }
+
+        return values;
+    }
+
+    private static List<TokenBuffer> append(List<TokenBuffer> values, List<TokenBuffer> more) {
+        if (more.isEmpty()) {
+            return values;
+        }
+
+        if (values.isEmpty()) {
+            return more;
+        }
+
+        values.addAll(more);
+        return values;
+    }
+
+    private void copyCurrentEvent(JsonToken token) throws IOException {
+        if (this.tokenBuffer == null) {
+            this.tokenBuffer = new TokenBuffer(this.parser);
+        }
+
+        this.tokenBuffer.copyCurrentEvent(this.parser);
+        updateDepth(token);
+    }
+
+    private List<TokenBuffer> drain() throws IOException {
+        List<TokenBuffer> values = Collections.emptyList();
+
+        JsonToken token;
+        while ((token = this.parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            TokenBuffer value =
+                    this.elementsPath == null ? processDocument(token) : processElements(token);
+
+            if (value != null) {
+                if (values.isEmpty()) {
+                    values = new ArrayList<>();
+                }
+                values.add(value);
+            }
+        }
+
+        return values;
+    }
+
+    private TokenBuffer processDocument(JsonToken token) throws IOException {
+        if (this.documentComplete) {
+            return null;
+        }
+
+        copyCurrentEvent(token);
+
+        if (this.depth != 0) {
+            return null;
+        }
+
+        this.documentComplete = true;
+        return release();
+    }
+
+    private TokenBuffer processElements(JsonToken token) throws IOException {
+        if (this.inElements) {
+            if (this.depth == this.elementsDepth && token == JsonToken.END_ARRAY) {
+                this.inElements = false;
+                updateDepth(token);
+                return null;
+            }
+
+            copyCurrentEvent(token);
+            return this.depth == this.elementsDepth ? release() : null;
+        }
+
+        updateDepth(token);
+
+        if (token == JsonToken.FIELD_NAME && this.depth == this.matched + 1) {
+            this.elementsFieldSeen =
+                    this.elementsPath.get(this.matched).equals(this.parser.currentName());
+            return null;
+        }
+
+        if (this.elementsFieldSeen && this.matched + 1 == this.elementsPath.size()) {
+            this.inElements = token == JsonToken.START_ARRAY;
+            this.elementsDepth = this.depth;
+        } else if (this.elementsFieldSeen && token == JsonToken.START_OBJECT) {
+            this.matched++;
+        } else if (token.isStructEnd() && this.depth == this.matched && this.matched > 0) {
+            this.matched--;
+        }
+
+        this.elementsFieldSeen = false;
+        return null;
+    }
+
+    private TokenBuffer release() {
+        TokenBuffer value = this.tokenBuffer;
+        this.tokenBuffer = null;
+        return value;
+    }
+
+    private void updateDepth(JsonToken token) {
+        if (token.isStructStart()) {
+            this.depth++;
+        } else if (token.isStructEnd()) {
+            this.depth--;
+        }
+    }
+}
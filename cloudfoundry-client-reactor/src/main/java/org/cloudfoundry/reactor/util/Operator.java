@@ -16,9 +16,9 @@
 
 package org.cloudfoundry.reactor.util;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.handler.codec.http.HttpHeaderNames;
-import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
@@ -26,6 +26,7 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -46,10 +47,13 @@ import reactor.netty.http.client.HttpClientRequest;
 import reactor.netty.http.client.HttpClientResponse;
 import reactor.netty.http.websocket.WebsocketInbound;
 import reactor.netty.http.websocket.WebsocketOutbound;
+import reactor.util.context.Context;
 import reactor.util.retry.Retry;
 
 public class Operator extends OperatorContextAware {
 
+    private static final RequestLogger REQUEST_LOGGER = new RequestLogger();
+
     private final HttpClient httpClient;
 
     public Operator(OperatorContext context, HttpClient httpClient) {
@@ -92,7 +96,11 @@ public class Operator extends OperatorContextAware {
 
     public UriConfiguration request(HttpMethod method) {
         return new UriConfiguration(
-                this.context, attachRequestLogger(this.httpClient).request(method));
+                this.context,
+                method,
+                attachResponseCache(
+                                method, attachExchangeMetrics(attachRequestLogger(this.httpClient)))
+                        .request(method));
     }
 
     public WebsocketUriConfiguration websocket() {
@@ -105,24 +113,87 @@ public class Operator extends OperatorContextAware {
     }
 
     private static HttpClient attachRequestLogger(HttpClient httpClient) {
-        RequestLogger requestLogger = new RequestLogger();
         return httpClient
-                .doAfterRequest((request, connection) -> requestLogger.request(request))
-                .doAfterResponseSuccess((response, connection) -> requestLogger.response(response))
-                .doOnResponseError((response, connection) -> requestLogger.response(response));
+                .doAfterRequest(
+                        (request, connection) -> REQUEST_LOGGER.request(request, connection))
+                .doAfterResponseSuccess(
+                        (response, connection) -> REQUEST_LOGGER.response(response, connection))
+                .doOnResponseError(
+                        (response, error) -> {
+                            if (response instanceof Connection) {
+                                REQUEST_LOGGER.response(response, (Connection) response);
+                            }
+                        });
+    }
+
+    private HttpClient attachResponseCache(HttpMethod method, HttpClient httpClient) {
+        if (!HttpMethod.GET.equals(method)
+                || !this.context.getConnectionContext().getResponseCache().isPresent()) {
+            return httpClient;
+        }
+
+        return httpClient.headersWhen(
+                headers ->
+                        Mono.deferContextual(
+                                context -> {
+                                    ResponseCache.addValidators(context, headers);
+                                    return Mono.just(headers);
+                                }));
+    }
+
+    private HttpClient attachExchangeMetrics(HttpClient httpClient) {
+        if (!this.context.getConnectionContext().getMetricsRecorder().isPresent()) {
+            return httpClient;
+        }
+
+        return httpClient
+                .headersWhen(
+                        headers ->
+                                Mono.deferContextual(
+                                        context -> {
+                                            ExchangeMetrics.from(context)
+                                                    .ifPresent(ExchangeMetrics::acquireStarted);
+                                            return Mono.just(headers);
+                                        }))
+                .doOnRequest(
+                        (request, connection) ->
+                                ExchangeMetrics.from(request.currentContextView())
+                                        .ifPresent(metrics -> metrics.acquired(request)))
+                .doAfterRequest(
+                        (request, connection) ->
+                                ExchangeMetrics.from(request.currentContextView())
+                                        .ifPresent(metrics -> metrics.requestSent(request)))
+                .doOnRequestError(
+                        (request, t) ->
+                                ExchangeMetrics.from(request.currentContextView())
+                                        .ifPresent(metrics -> metrics.requestFailed(request)))
+                .doOnResponse(
+                        (response, connection) ->
+                                ExchangeMetrics.from(response.currentContextView())
+                                        .ifPresent(metrics -> metrics.responseReceived(response)));
     }
 
     public static class PayloadConfiguration extends OperatorContextAware {
 
+        private final HttpMethod method;
+
         private final HttpClient.RequestSender requestSender;
 
-        PayloadConfiguration(OperatorContext context, HttpClient.RequestSender requestSender) {
+        private final String uri;
+
+        PayloadConfiguration(
+                OperatorContext context,
+                HttpClient.RequestSender requestSender,
+                HttpMethod method,
+                String uri) {
             super(context);
+            this.method = method;
             this.requestSender = requestSender;
+            this.uri = uri;
         }
 
         public ResponseReceiver response() {
-            return new ResponseReceiver(this.context, this.requestSender);
+            return new ResponseReceiver(this.context, this.requestSender, this.method, this.uri);
         }
 
         public ResponseReceiverConstructor send(Object payload) {
@@ -133,14 +204,16 @@ public class Operator extends OperatorContextAware {
                 BiFunction<HttpClientRequest, NettyOutbound, Publisher<Void>> requestTransformer) {
             HttpClient.ResponseReceiver<?> responseReceiver =
                     this.requestSender.send(requestTransformer);
-            return new ResponseReceiverConstructor(this.context, responseReceiver);
+            return new ResponseReceiverConstructor(
+                    this.context, responseReceiver, this.method, this.uri);
         }
 
         public ResponseReceiverConstructor sendForm(
                 BiConsumer<HttpClientRequest, HttpClientForm> requestTransformer) {
             HttpClient.ResponseReceiver<?> responseReceiver =
                     this.requestSender.sendForm(requestTransformer);
-            return new ResponseReceiverConstructor(this.context, responseReceiver);
+            return new ResponseReceiverConstructor(
+                    this.context, responseReceiver, this.method, this.uri);
         }
 
         private BiFunction<HttpClientRequest, NettyOutbound, Publisher<Void>> serialized(
@@ -154,11 +227,21 @@ public class Operator extends OperatorContextAware {
         private final List<Function<HttpClientResponse, ChannelHandler>> channelHandlerBuilders =
                 new ArrayList<>();
 
+        private final HttpMethod method;
+
         private final HttpClient.ResponseReceiver<?> responseReceiver;
 
-        ResponseReceiver(OperatorContext context, HttpClient.ResponseReceiver<?> responseReceiver) {
+        private final String uri;
+
+        ResponseReceiver(
+                OperatorContext context,
+                HttpClient.ResponseReceiver<?> responseReceiver,
+                HttpMethod method,
+                String uri) {
             super(context);
+            this.method = method;
             this.responseReceiver = responseReceiver;
+            this.uri = uri;
         }
 
         public ResponseReceiver addChannelHandler(
@@ -168,45 +251,55 @@ public class Operator extends OperatorContextAware {
         }
 
         public Mono<HttpClientResponse> get() {
-            return this.responseReceiver
-                    .responseConnection(
-                            (response, connection) ->
-                                    Mono.just(
-                                            HttpClientResponseWithConnection.of(
-                                                    connection, response)))
+            return exchange()
                     .transform(this::processResponse)
                     .flatMap(
                             httpClientResponseWithConnection -> {
                                 Connection connection =
                                         httpClientResponseWithConnection.getConnection();
                                 return ByteBufFlux.fromInbound(
-                                                connection
-                                                        .inbound()
-                                                        .receive()
-                                                        .doFinally(
-                                                                signalType -> connection.dispose()))
+                                                receive(
+                                                        httpClientResponseWithConnection
+                                                                .getResponse(),
+                                                        connection))
                                         .then()
                                         .thenReturn(httpClientResponseWithConnection);
                             })
                     .map(HttpClientResponseWithConnection::getResponse)
+                    .transform(this::invalidateResponseCache)
+                    .transform(this::recordExchange)
                     .singleOrEmpty();
         }
 
         public <T> Mono<T> parseBody(Class<T> bodyType) {
-            addJsonDecoderToChannelHandlers();
-            return parseBodyToMono(
-                    responseWithBody -> deserialized(responseWithBody.getBody(), bodyType));
+            Optional<ResponseCache> responseCache =
+                    this.context.getConnectionContext().getResponseCache();
+            Flux<HttpClientResponseWithBody> body =
+                    HttpMethod.GET.equals(this.method) && responseCache.isPresent()
+                            ? receiveCachedBody(responseCache.get(), this.uri)
+                            : receiveBody((b, response) -> b);
+            Mono<T> request =
+                    body.flatMap(
+                                    responseWithBody ->
+                                            deserialized(responseWithBody.getBody(), bodyType))
+                            .transform(this::invalidateResponseCache)
+                            .transform(this::recordExchange)
+                            .singleOrEmpty();
+            Optional<RequestCoalescer> requestCoalescer =
+                    this.context.getConnectionContext().getRequestCoalescer();
+
+            if (!HttpMethod.GET.equals(this.method) || !requestCoalescer.isPresent()) {
+                return request;
+            }
+
+            return TokenIdentity.get(this.context)
+                    .map(identity -> RequestCoalescer.getKey(identity, this.uri, bodyType))
+                    .flatMap(key -> requestCoalescer.get().coalesce(key, request));
         }
 
         public <T> Mono<HttpClientResponseWithParsedBody<T>> parseBodyWithResponse(
                 Class<T> bodyType) {
-            addJsonDecoderToChannelHandlers();
-            return this.responseReceiver
-                    .responseConnection(
-                            (response, connection) ->
-                                    Mono.just(
-                                            HttpClientResponseWithConnection.of(
-                                                    connection, response)))
+            return exchange()
                     .transform(this::processResponse)
                     .flatMap(
                             httpClientResponseWithConnection ->
@@ -228,27 +321,17 @@ public class Operator extends OperatorContextAware {
                                                                                     Optional
                                                                                             .empty(),
                                                                                     response))))
+                    .transform(this::invalidateResponseCache)
+                    .transform(this::recordExchange)
                     .singleOrEmpty();
         }
 
         public <T> Flux<T> parseBodyToFlux(
                 Function<HttpClientResponseWithBody, Publisher<T>> responseTransformer) {
-            return this.responseReceiver
-                    .responseConnection(
-                            (response, connection) ->
-                                    Mono.just(
-                                            HttpClientResponseWithConnection.of(
-                                                    connection, response)))
-                    .transform(this::processResponse)
-                    .flatMap(
-                            httpClientResponseWithConnection ->
-                                    transformResponse(
-                                            httpClientResponseWithConnection,
-                                            (body, response) ->
-                                                    Mono.just(
-                                                            HttpClientResponseWithBody.of(
-                                                                    body, response))))
-                    .flatMap(responseTransformer);
+            return receiveBody((body, response) -> body)
+                    .flatMap(responseTransformer)
+                    .transform(this::invalidateResponseCache)
+                    .transform(this::recordExchange);
         }
 
         public <T> Mono<T> parseBodyToMono(
@@ -258,12 +341,7 @@ public class Operator extends OperatorContextAware {
 
         public <T> Mono<T> parseBodyToToken(
                 Function<HttpClientResponseWithBody, Publisher<T>> responseTransformer) {
-            return this.responseReceiver
-                    .responseConnection(
-                            (response, connection) ->
-                                    Mono.just(
-                                            HttpClientResponseWithConnection.of(
-                                                    connection, response)))
+            return exchange()
                     .transform(
                             this.context
                                     .getErrorPayloadMapper()
@@ -277,23 +355,36 @@ public class Operator extends OperatorContextAware {
                                                             HttpClientResponseWithBody.of(
                                                                     body, response))))
                     .flatMap(responseTransformer)
+                    .transform(this::recordExchange)
                     .singleOrEmpty();
         }
 
+        private static void discardBody(HttpClientResponseWithConnection response) {
+            // we don't need the body, but we need to consume the body so
+            // reactor-netty can reuse the connection
+            //   if not, this will result in connections that don't close & the pool
+            // will fill up
+            response.getConnection()
+                    .inbound()
+                    .receive()
+                    .doOnNext(byteBuf -> {})
+                    .subscribe(byteBuf -> {}, ex -> {});
+        }
+
         private static boolean isUnauthorized(HttpClientResponseWithConnection response) {
             return HttpResponseStatus.UNAUTHORIZED.equals(response.getResponse().status());
         }
 
-        private void addJsonDecoderToChannelHandlers() {
-            addChannelHandler(
-                    response -> {
-                        if (HttpHeaderValues.APPLICATION_JSON.contentEquals(
-                                response.responseHeaders().get(HttpHeaderNames.CONTENT_TYPE))) {
-                            return JsonCodec.createDecoder();
-                        }
-
-                        return null;
-                    });
+        private static Flux<ByteBuf> receive(HttpClientResponse response, Connection connection) {
+            return ExchangeMetrics.from(response.currentContextView())
+                    .map(
+                            metrics ->
+                                    ConnectionUtils.receive(connection)
+                                            .doOnNext(
+                                                    byteBuf ->
+                                                            metrics.dataReceived(
+                                                                    byteBuf.readableBytes())))
+                    .orElseGet(() -> ConnectionUtils.receive(connection));
         }
 
         private void attachChannelHandlers(HttpClientResponse response, Connection connection) {
@@ -311,31 +402,114 @@ public class Operator extends OperatorContextAware {
                     this.context.getConnectionContext().getObjectMapper(), body, bodyType);
         }
 
+        private Flux<HttpClientResponseWithConnection> exchange() {
+            Flux<HttpClientResponseWithConnection> exchange =
+                    this.responseReceiver.responseConnection(
+                            (response, connection) ->
+                                    Mono.just(
+                                            HttpClientResponseWithConnection.of(
+                                                    connection, response)));
+
+            return this.context
+                    .getConnectionContext()
+                    .getRequestGovernor()
+                    .map(requestGovernor -> govern(requestGovernor, exchange))
+                    .orElse(exchange);
+        }
+
+        private Flux<HttpClientResponseWithConnection> govern(
+                RequestGovernor requestGovernor, Flux<HttpClientResponseWithConnection> exchange) {
+            return TokenIdentity.get(this.context)
+                    .map(identity -> RequestGovernor.getKey(identity, this.uri))
+                    .flatMapMany(
+                            key -> {
+                                AtomicInteger retries = new AtomicInteger();
+
+                                return Flux.usingWhen(
+                                                requestGovernor.acquire(key),
+                                                permit ->
+                                                        exchange.doOnNext(
+                                                                response ->
+                                                                        governResponse(
+                                                                                requestGovernor,
+                                                                                permit,
+                                                                                retries,
+                                                                                response)),
+                                                permit -> Mono.empty(),
+                                                (permit, error) ->
+                                                        Mono.fromRunnable(permit::release),
+                                                permit -> Mono.fromRunnable(permit::release))
+                                        .retryWhen(
+                                                Retry.indefinitely()
+                                                        .filter(
+                                                                RateLimitedException.class
+                                                                        ::isInstance));
+                            });
+        }
+
+        private void governResponse(
+                RequestGovernor requestGovernor,
+                RequestGovernor.Permit permit,
+                AtomicInteger retries,
+                HttpClientResponseWithConnection response) {
+            permit.responseReceived(response.getResponse());
+
+            if (RequestGovernor.isRetryable(this.method, response.getResponse())
+                    && retries.getAndIncrement() < requestGovernor.getMaximumRetries()) {
+                discardBody(response);
+                throw new RateLimitedException();
+            }
+
+            // the request remains in flight until its body has been received
+            response.getConnection()
+                    .onTerminate()
+                    .subscribe(null, error -> permit.release(), permit::release);
+        }
+
+        private <T> Flux<T> invalidateResponseCache(Flux<T> exchange) {
+            Optional<ResponseCache> responseCache =
+                    this.context.getConnectionContext().getResponseCache();
+
+            if (HttpMethod.GET.equals(this.method) || !responseCache.isPresent()) {
+                return exchange;
+            }
+
+            return exchange.concatWith(
+                    TokenIdentity.get(this.context)
+                            .doOnNext(responseCache.get()::invalidate)
+                            .then(Mono.empty()));
+        }
+
         private Flux<HttpClientResponseWithConnection> invalidateToken(
                 Flux<HttpClientResponseWithConnection> inbound) {
             return inbound.doOnNext(
                     response -> {
                         if (isUnauthorized(response)) {
-                            this.context
-                                    .getTokenProvider()
-                                    .ifPresent(
-                                            tokenProvider ->
-                                                    tokenProvider.invalidate(
-                                                            this.context.getConnectionContext()));
-                            // we don't need the body, but we need to consume the body so
-                            // reactor-netty can reuse the connection
-                            //   if not, this will result in connections that don't close & the pool
-                            // will fill up
-                            response.getConnection()
-                                    .inbound()
-                                    .receive()
-                                    .doOnNext(byteBuf -> {})
-                                    .subscribe(byteBuf -> {}, ex -> {});
+                            ExchangeMetrics.from(response.getResponse().currentContextView())
+                                    .ifPresent(ExchangeMetrics::invalidTokenRetry);
+                            invalidateToken(response.getResponse());
+                            discardBody(response);
                             throw new InvalidTokenException();
                         }
                     });
         }
 
+        private void invalidateToken(HttpClientResponse response) {
+            String token = response.requestHeaders().get(HttpHeaderNames.AUTHORIZATION);
+
+            this.context
+                    .getTokenProvider()
+                    .ifPresent(
+                            tokenProvider -> {
+                                if (token == null) {
+                                    tokenProvider.invalidate(this.context.getConnectionContext());
+                                } else {
+                                    tokenProvider.invalidate(
+                                            this.context.getConnectionContext(), token);
+                                }
+                            });
+        }
+
         private Flux<HttpClientResponseWithConnection> processResponse(
                 Flux<HttpClientResponseWithConnection> inbound) {
             return inbound.transform(this::invalidateToken)
@@ -348,6 +522,83 @@ public class Operator extends OperatorContextAware {
                                     .orElse(ErrorPayloadMappers.fallback()));
         }
 
+        private Flux<HttpClientResponseWithBody> receiveBody(
+                BiFunction<ByteBufFlux, HttpClientResponse, ByteBufFlux> bodyTransformer) {
+            return exchange()
+                    .transform(this::processResponse)
+                    .flatMap(
+                            httpClientResponseWithConnection ->
+                                    transformResponse(
+                                            httpClientResponseWithConnection,
+                                            (body, response) ->
+                                                    Mono.just(
+                                                            HttpClientResponseWithBody.of(
+                                                                    bodyTransformer.apply(
+                                                                            body, response),
+                                                                    response))));
+        }
+
+        private Flux<HttpClientResponseWithBody> receiveCachedBody(
+                ResponseCache responseCache, String uri) {
+            return TokenIdentity.get(this.context)
+                    .flatMapMany(
+                            identity -> {
+                                String key = ResponseCache.getKey(identity, uri);
+                                long generation = responseCache.getGeneration();
+                                Optional<ResponseCache.Entry> cached = responseCache.get(key);
+
+                                if (cached.filter(ResponseCache.Entry::isFresh).isPresent()) {
+                                    return Mono.just(
+                                            HttpClientResponseWithBody.of(
+                                                    cached.get().getBody(),
+                                                    cached.get().getResponse()));
+                                }
+
+                                return receiveBody(
+                                                (body, response) ->
+                                                        responseCache.receive(
+                                                                key,
+                                                                identity,
+                                                                generation,
+                                                                cached.orElse(null),
+                                                                response,
+                                                                body))
+                                        .contextWrite(
+                                                context ->
+                                                        cached.map(
+                                                                        entry ->
+                                                                                context.put(
+                                                                                        ResponseCache
+                                                                                                .Entry
+                                                                                                .class,
+                                                                                        entry))
+                                                                .orElse(context));
+                            });
+        }
+
+        private <T> Flux<T> recordExchange(Flux<T> exchange) {
+            return this.context
+                    .getConnectionContext()
+                    .getMetricsRecorder()
+                    .map(
+                            recorder ->
+                                    Flux.defer(
+                                            () -> {
+                                                ExchangeMetrics metrics =
+                                                        new ExchangeMetrics(recorder);
+
+                                                return exchange.doOnComplete(
+                                                                () -> metrics.completed(null))
+                                                        .doOnError(metrics::completed)
+                                                        .doOnCancel(metrics::cancelled)
+                                                        .contextWrite(
+                                                                Context.of(
+                                                                        ExchangeMetrics.class,
+                                                                        metrics));
+                                            }))
+                    .orElse(exchange);
+        }
+
         private <E> Mono<E> transformResponse(
                 HttpClientResponseWithConnection httpClientResponseWithConnection,
                 BiFunction<ByteBufFlux, HttpClientResponse, Mono<E>> transformResult) {
@@ -355,12 +606,7 @@ public class Operator extends OperatorContextAware {
             HttpClientResponse response = httpClientResponseWithConnection.getResponse();
 
             attachChannelHandlers(response, connection);
-            ByteBufFlux body =
-                    ByteBufFlux.fromInbound(
-                            connection
-                                    .inbound()
-                                    .receive()
-                                    .doFinally(signalType -> connection.dispose()));
+            ByteBufFlux body = ByteBufFlux.fromInbound(receive(response, connection));
             return transformResult.apply(body, response);
         }
 
@@ -375,36 +621,65 @@ public class Operator extends OperatorContextAware {
                 return null;
             }
         }
+
+        private static final class RateLimitedException extends RuntimeException {
+
+            private static final long serialVersionUID = 6250466014452931357L;
+
+            private RateLimitedException() {}
+
+            @Override
+            public synchronized Throwable fillInStackTrace() {
+                return null;
+            }
+        }
     }
 
     public static class ResponseReceiverConstructor extends OperatorContextAware {
 
+        private final HttpMethod method;
+
         private final HttpClient.ResponseReceiver<?> responseReceiver;
 
+        private final String uri;
+
         ResponseReceiverConstructor(
-                OperatorContext context, HttpClient.ResponseReceiver<?> responseReceiver) {
+                OperatorContext context,
+                HttpClient.ResponseReceiver<?> responseReceiver,
+                HttpMethod method,
+                String uri) {
             super(context);
+            this.method = method;
             this.responseReceiver = responseReceiver;
+            this.uri = uri;
         }
 
         public ResponseReceiver response() {
-            return new ResponseReceiver(this.context, this.responseReceiver);
+            return new ResponseReceiver(this.context, this.responseReceiver, this.method, this.uri);
         }
     }
 
     public static class UriConfiguration extends OperatorContextAware {
 
+        private final HttpMethod method;
+
         private final HttpClient.RequestSender requestSender;
 
-        private UriConfiguration(OperatorContext context, HttpClient.RequestSender requestSender) {
+        private UriConfiguration(
+                OperatorContext context,
+                HttpMethod method,
+                HttpClient.RequestSender requestSender) {
             super(context);
+            this.method = method;
             this.requestSender = requestSender;
         }
 
         public PayloadConfiguration uri(
                 Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer) {
             String uri = transformRoot(uriTransformer);
-            return new PayloadConfiguration(this.context, this.requestSender.uri(uri));
+
+            return new PayloadConfiguration(
+                    this.context, this.requestSender.uri(uri), this.method, uri);
         }
     }
 
@@ -448,7 +723,7 @@ public class Operator extends OperatorContextAware {
         }
 
         private static void logWebsocketRequest(String uri) {
-            new RequestLogger().websocketRequest(uri);
+            REQUEST_LOGGER.websocketRequest(uri);
         }
     }
 }
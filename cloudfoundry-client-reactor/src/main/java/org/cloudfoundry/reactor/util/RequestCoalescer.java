@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalesces identical {@code GET} requests that are in flight at the same time, shared by all operations that use a {@link org.cloudfoundry.reactor.ConnectionContext}. Requests are identical
+ * if they are made for the same URI, by the same user or client, and decode the response to the same type. A request made while an identical one is in flight does not make its own exchange,
+ * and receives the result of the request in flight instead. Nothing is retained once a request has received its result.
+ */
+public final class RequestCoalescer {
+
+    private final ConcurrentMap<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    static String getKey(String identity, String uri, Class<?> type) {
+        return String.format("GET %s %s %s", uri, identity, type.getName());
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Mono<T> coalesce(String key, Mono<T> request) {
+        return Mono.defer(
+                () -> (Mono<T>) this.inFlight.computeIfAbsent(key, k -> share(k, request)));
+    }
+
+    private <T> Mono<T> share(String key, Mono<T> request) {
+        AtomicReference<Mono<T>> shared = new AtomicReference<>();
+
+        shared.set(
+                request.doOnCancel(() -> this.inFlight.remove(key, shared.get()))
+                        .doOnEach(signal -> this.inFlight.remove(key, shared.get()))
+                        .flux()
+                        .replay(1)
+                        .refCount()
+                        .singleOrEmpty());
+
+        return shared.get();
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClientResponse;
+
+/**
+ * Governs the requests made to each host on behalf of each user or client, shared by all operations that use a {@link org.cloudfoundry.reactor.ConnectionContext}. The number of requests in
+ * flight is limited, and requests beyond the limit wait for an earlier request to receive its response rather than failing. The limit adapts to the responses received: it increases
+ * additively while responses arrive promptly, and decreases multiplicatively when a response takes much longer than usual or the server responds with {@code 429 Too Many Requests} or
+ * {@code 503 Service Unavailable}. Those responses also pause all requests for the delay given by their {@code Retry-After} header, or until the {@code X-RateLimit-Reset} time if no
+ * requests remain. Requests that received a {@code 429} are then retried, as are idempotent requests that received a {@code 503}, since any other request may already have been partly applied.
+ * Requests are also paused once {@code X-RateLimit-Remaining} reaches zero, and never exceed the number of requests remaining. A request is in flight until its response body has been received.
+ */
+public final class RequestGovernor {
+
+    static final String X_RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+
+    static final String X_RATE_LIMIT_RESET = "X-RateLimit-Reset";
+
+    private static final double DECREASE_FACTOR = 0.5;
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS =
+            new HashSet<>(
+                    Arrays.asList(
+                            HttpMethod.DELETE, HttpMethod.GET, HttpMethod.HEAD, HttpMethod.PUT));
+
+    private static final Duration DEFAULT_RETRY_DELAY = Duration.ofSeconds(1);
+
+    private static final double LATENCY_DECREASE_FACTOR = 0.9;
+
+    private static final double LATENCY_TOLERANCE = 2.0;
+
+    private static final double LATENCY_WEIGHT = 0.1;
+
+    private final int initialLimit;
+
+    private final ConcurrentMap<String, Limiter> limiters = new ConcurrentHashMap<>();
+
+    private final int maximumLimit;
+
+    private final int maximumRetries;
+
+    /**
+     * Creates a new instance
+     *
+     * @param initialLimit   the number of requests that may be in flight to a host on behalf of a user or client before the limit has adapted
+     * @param maximumLimit   the maximum number of requests that may ever be in flight to a host on behalf of a user or client
+     * @param maximumRetries the maximum number of times that a request is retried after a {@code 429} response, or a {@code 503} response to an idempotent request
+     */
+    public RequestGovernor(int initialLimit, int maximumLimit, int maximumRetries) {
+        this.initialLimit = Math.max(1, Math.min(initialLimit, maximumLimit));
+        this.maximumLimit = Math.max(1, maximumLimit);
+        this.maximumRetries = maximumRetries;
+    }
+
+    static String getKey(String identity, String uri) {
+        String host;
+        try {
+            host = Optional.ofNullable(URI.create(uri).getRawAuthority()).orElse(uri);
+        } catch (IllegalArgumentException e) {
+            host = uri;
+        }
+
+        return String.format("%s %s", host, identity);
+    }
+
+    private static boolean isRateLimited(HttpClientResponse response) {
+        return HttpResponseStatus.TOO_MANY_REQUESTS.equals(response.status())
+                || HttpResponseStatus.SERVICE_UNAVAILABLE.equals(response.status());
+    }
+
+    static boolean isRetryable(HttpMethod method, HttpClientResponse response) {
+        if (HttpResponseStatus.TOO_MANY_REQUESTS.equals(response.status())) {
+            return true;
+        }
+
+        return HttpResponseStatus.SERVICE_UNAVAILABLE.equals(response.status())
+                && IDEMPOTENT_METHODS.contains(method);
+    }
+
+    private static Optional<Long> getLong(HttpHeaders headers, CharSequence name) {
+        try {
+            return Optional.ofNullable(headers.get(name)).map(String::trim).map(Long::parseLong);
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<Long> getResetDelay(HttpHeaders headers) {
+        return getLong(headers, X_RATE_LIMIT_RESET)
+                .map(
+                        reset ->
+                                TimeUnit.MILLISECONDS.toNanos(
+                                        TimeUnit.SECONDS.toMillis(reset)
+                                                - System.currentTimeMillis()));
+    }
+
+    private static long getRetryDelay(HttpHeaders headers) {
+        Optional<Long> retryAfter = getLong(headers, HttpHeaderNames.RETRY_AFTER);
+        if (retryAfter.isPresent()) {
+            return TimeUnit.SECONDS.toNanos(retryAfter.get());
+        }
+
+        String retryAfterDate = headers.get(HttpHeaderNames.RETRY_AFTER);
+        if (retryAfterDate != null) {
+            Date date = DateFormatter.parseHttpDate(retryAfterDate);
+            if (date != null) {
+                return TimeUnit.MILLISECONDS.toNanos(date.getTime() - System.currentTimeMillis());
+            }
+        }
+
+        if (getLong(headers, X_RATE_LIMIT_REMAINING)
+                .filter(remaining -> remaining <= 0)
+                .isPresent()) {
+            Optional<Long> resetDelay = getResetDelay(headers);
+            if (resetDelay.isPresent()) {
+                return resetDelay.get();
+            }
+        }
+
+        return DEFAULT_RETRY_DELAY.toNanos();
+    }
+
+    Mono<Permit> acquire(String key) {
+        return this.limiters
+                .computeIfAbsent(key, k -> new Limiter(this.initialLimit, this.maximumLimit))
+                .acquire();
+    }
+
+    int getMaximumRetries() {
+        return this.maximumRetries;
+    }
+
+    static final class Permit {
+
+        private final long acquired = System.nanoTime();
+
+        private final Limiter limiter;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Limiter limiter) {
+            this.limiter = limiter;
+        }
+
+        void release() {
+            if (this.released.compareAndSet(false, true)) {
+                this.limiter.release();
+            }
+        }
+
+        void responseReceived(HttpClientResponse response) {
+            this.limiter.responseReceived(response, System.nanoTime() - this.acquired);
+        }
+    }
+
+    private static final class Limiter {
+
+        private final int maximumLimit;
+
+        private final Deque<MonoSink<Permit>> waiting = new ArrayDeque<>();
+
+        private double averageLatency;
+
+        private boolean drainScheduled;
+
+        private int inFlight;
+
+        private double limit;
+
+        private long pausedUntil = System.nanoTime();
+
+        private long remaining = Long.MAX_VALUE;
+
+        private Limiter(int initialLimit, int maximumLimit) {
+            this.limit = initialLimit;
+            this.maximumLimit = maximumLimit;
+        }
+
+        private Mono<Permit> acquire() {
+            return Mono.<Permit>create(
+                            sink -> {
+                                synchronized (this) {
+                                    this.waiting.add(sink);
+                                }
+
+                                sink.onCancel(
+                                        () -> {
+                                            synchronized (this) {
+                                                this.waiting.remove(sink);
+                                            }
+                                        });
+                                drain();
+                            })
+                    .doOnDiscard(Permit.class, Permit::release);
+        }
+
+        private void decrease(double factor) {
+            this.limit = Math.max(1, this.limit * factor);
+        }
+
+        private void drain() {
+            List<MonoSink<Permit>> acquired = new ArrayList<>();
+            long delay = 0;
+
+            synchronized (this) {
+                long now = System.nanoTime();
+
+                if (now - this.pausedUntil < 0) {
+                    if (!this.drainScheduled && !this.waiting.isEmpty()) {
+                        this.drainScheduled = true;
+                        delay = this.pausedUntil - now;
+                    }
+                } else {
+                    while (!this.waiting.isEmpty()
+                            && this.inFlight < Math.min((long) this.limit, this.remaining)) {
+                        this.inFlight++;
+                        acquired.add(this.waiting.poll());
+                    }
+                }
+            }
+
+            if (delay > 0) {
+                Schedulers.parallel()
+                        .schedule(
+                                () -> {
+                                    synchronized (this) {
+                                        this.drainScheduled = false;
+                                    }
+                                    drain();
+                                },
+                                delay,
+                                TimeUnit.NANOSECONDS);
+            }
+
+            acquired.forEach(sink -> sink.success(new Permit(this)));
+        }
+
+        private void pause(long delay) {
+            long until = System.nanoTime() + Math.max(0, delay);
+
+            if (until - this.pausedUntil > 0) {
+                this.pausedUntil = until;
+            }
+        }
+
+        private void release() {
+            synchronized (this) {
+                this.inFlight--;
+            }
+
+            drain();
+        }
+
+        private synchronized void responseReceived(HttpClientResponse response, long latency) {
+            HttpHeaders headers = response.responseHeaders();
+            Optional<Long> remaining = getLong(headers, X_RATE_LIMIT_REMAINING);
+
+            this.remaining = remaining.map(r -> Math.max(1, r)).orElse(Long.MAX_VALUE);
+
+            if (isRateLimited(response)) {
+                decrease(DECREASE_FACTOR);
+                pause(getRetryDelay(headers));
+                return;
+            }
+
+            if (remaining.filter(r -> r <= 0).isPresent()) {
+                getResetDelay(headers).ifPresent(this::pause);
+            }
+
+            if (this.averageLatency > 0 && latency > this.averageLatency * LATENCY_TOLERANCE) {
+                decrease(LATENCY_DECREASE_FACTOR);
+            } else {
+                this.limit = Math.min(this.maximumLimit, this.limit + 1 / this.limit);
+            }
+
+            this.averageLatency =
+                    this.averageLatency == 0
+                            ? latency
+                            : (1 - LATENCY_WEIGHT) * this.averageLatency + LATENCY_WEIGHT * latency;
+        }
+    }
+}
@@ -16,13 +16,19 @@
 
 package org.cloudfoundry.reactor.util;
 
+import io.netty.util.AttributeKey;
 import java.util.List;
 import org.cloudfoundry.util.TimeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.netty.Connection;
 import reactor.netty.http.client.HttpClientRequest;
 import reactor.netty.http.client.HttpClientResponse;
 
+/**
+ * Logs requests and their responses. When the connection carrying a request is supplied, the time the request was sent
+ * is kept on its channel, so a single instance can be shared by concurrent and retried requests.
+ */
 public class RequestLogger {
 
     static final Logger REQUEST_LOGGER = LoggerFactory.getLogger("cloudfoundry-client.request");
@@ -31,6 +37,9 @@ public class RequestLogger {
 
     private static final String CF_WARNINGS = "X-Cf-Warnings";
 
+    private static final AttributeKey<Long> REQUEST_SENT_TIME =
+            AttributeKey.valueOf("cloudfoundry-client.request-sent-time");
+
     private long requestSentTime;
 
     public void request(HttpClientRequest request) {
@@ -38,11 +47,27 @@ public class RequestLogger {
     }
 
     public void response(HttpClientResponse response) {
+        response(response, this.requestSentTime);
+    }
+
+    void request(HttpClientRequest request, Connection connection) {
+        REQUEST_LOGGER.debug(String.format("%-6s {}", request.method()), request.uri());
+        connection.channel().attr(REQUEST_SENT_TIME).set(System.currentTimeMillis());
+    }
+
+    void response(HttpClientResponse response, Connection connection) {
+        response(response, connection.channel().attr(REQUEST_SENT_TIME).getAndSet(null));
+    }
+
+    private void response(HttpClientResponse response, Long requestSentTime) {
         if (!RESPONSE_LOGGER.isDebugEnabled()) {
             return;
         }
 
-        String elapsed = TimeUtils.asTime(System.currentTimeMillis() - this.requestSentTime);
+        String elapsed =
+                requestSentTime == null
+                        ? "unknown"
+                        : TimeUtils.asTime(System.currentTimeMillis() - requestSentTime);
         List<String> warnings = response.responseHeaders().getAll(CF_WARNINGS);
 
         if (warnings.isEmpty()) {
@@ -0,0 +1,445 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.cookie.Cookie;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.cloudfoundry.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClientResponse;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * A cache of {@code GET} responses, shared by all operations that use a {@link org.cloudfoundry.reactor.ConnectionContext}. Responses are cached separately for each user or client that requests them,
+ * and only if they can be revalidated with an {@code ETag} or {@code Last-Modified} header, or are declared fresh for a time with {@code Cache-Control: max-age}. Fresh responses are returned
+ * without making a request. Other responses are revalidated with a conditional request, and returned without transferring the body again if they have not been modified. Responses are never
+ * cached for longer than the configured TTL, and the least recently used responses are evicted once the total size of the cached bodies exceeds the configured maximum. Only JSON responses are
+ * cached. Once a request with any other method completes successfully, all of the responses cached for the user or client that made it are removed.
+ */
+public final class ResponseCache {
+
+    private static final String JSON = "json";
+
+    private static final String MAX_AGE = "max-age=";
+
+    private static final String NO_CACHE = "no-cache";
+
+    private static final String NO_STORE = "no-store";
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final long maximumSize;
+
+    private final long ttl;
+
+    private long generation;
+
+    private long size;
+
+    /**
+     * Creates a new instance
+     *
+     * @param maximumSize the maximum total size, in bytes, of the cached response bodies
+     * @param ttl         the maximum time that a response is cached for after it was last received or revalidated
+     */
+    public ResponseCache(long maximumSize, Duration ttl) {
+        this.maximumSize = maximumSize;
+        this.ttl = ttl.toNanos();
+    }
+
+    static void addValidators(ContextView context, HttpHeaders headers) {
+        context.<Entry>getOrEmpty(Entry.class)
+                .ifPresent(
+                        entry -> {
+                            if (entry.eTag != null) {
+                                headers.set(HttpHeaderNames.IF_NONE_MATCH, entry.eTag);
+                            }
+                            if (entry.lastModified != null) {
+                                headers.set(HttpHeaderNames.IF_MODIFIED_SINCE, entry.lastModified);
+                            }
+                        });
+    }
+
+    static String getKey(String identity, String uri) {
+        return String.format("%s %s", uri, identity);
+    }
+
+    private static Optional<Long> getMaxAge(@Nullable String cacheControl) {
+        if (cacheControl == null) {
+            return Optional.empty();
+        }
+
+        for (String directive : cacheControl.split(",")) {
+            String value = directive.trim().toLowerCase(Locale.ENGLISH);
+
+            if (value.startsWith(NO_CACHE)) {
+                return Optional.of(0L);
+            }
+
+            if (value.startsWith(MAX_AGE)) {
+                try {
+                    return Optional.of(Long.parseLong(value.substring(MAX_AGE.length())));
+                } catch (NumberFormatException e) {
+                    return Optional.of(0L);
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private static boolean isJson(@Nullable String contentType) {
+        return contentType != null && contentType.toLowerCase(Locale.ENGLISH).contains(JSON);
+    }
+
+    private static boolean isStorable(@Nullable String cacheControl) {
+        return cacheControl == null || !cacheControl.toLowerCase(Locale.ENGLISH).contains(NO_STORE);
+    }
+
+    /**
+     * Removes all cached responses
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        this.generation++;
+        this.size = 0;
+    }
+
+    synchronized Optional<Entry> get(String key) {
+        Entry entry = this.entries.get(key);
+
+        if (entry == null) {
+            return Optional.empty();
+        }
+
+        if (System.nanoTime() - entry.received > this.ttl) {
+            remove(key);
+            return Optional.empty();
+        }
+
+        return Optional.of(entry);
+    }
+
+    synchronized long getGeneration() {
+        return this.generation;
+    }
+
+    synchronized void invalidate(String identity) {
+        this.generation++;
+
+        Iterator<Map.Entry<String, Entry>> iterator = this.entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+
+            if (entry.identity.equals(identity)) {
+                this.size -= entry.body.length;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the body of a response, caching it once it has been received if the response can be cached. If the response indicates that a previously cached response has not been modified,
+     * the cached body is returned instead. Nothing is cached if any responses have been invalidated since the given generation, as the response may have been produced before the change that
+     * invalidated them.
+     */
+    ByteBufFlux receive(
+            String key,
+            String identity,
+            long generation,
+            @Nullable Entry cached,
+            HttpClientResponse response,
+            ByteBufFlux body) {
+        if (cached != null && HttpResponseStatus.NOT_MODIFIED.equals(response.status())) {
+            return ByteBufFlux.fromInbound(
+                    body.then()
+                            .thenMany(
+                                    Flux.defer(
+                                            () -> {
+                                                put(key, generation, cached.revalidated(response));
+                                                return cached.getBody();
+                                            })));
+        }
+
+        if (!HttpResponseStatus.OK.equals(response.status())) {
+            return body;
+        }
+
+        HttpHeaders headers = response.responseHeaders();
+        String cacheControl = headers.get(HttpHeaderNames.CACHE_CONTROL);
+        String eTag = headers.get(HttpHeaderNames.ETAG);
+        String lastModified = headers.get(HttpHeaderNames.LAST_MODIFIED);
+        long maxAge = getMaxAge(cacheControl).orElse(0L);
+
+        if (!isJson(headers.get(HttpHeaderNames.CONTENT_TYPE))
+                || !isStorable(cacheControl)
+                || (eTag == null && lastModified == null && maxAge == 0)) {
+            return body;
+        }
+
+        CachedResponse cachedResponse = new CachedResponse(response);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AtomicBoolean overflowed = new AtomicBoolean();
+
+        return ByteBufFlux.fromInbound(
+                body.doOnNext(
+                                byteBuf -> {
+                                    if (out.size() + byteBuf.readableBytes() > this.maximumSize) {
+                                        overflowed.set(true);
+                                    } else if (!overflowed.get()) {
+                                        byte[] bytes = ByteBufUtil.getBytes(byteBuf);
+                                        out.write(bytes, 0, bytes.length);
+                                    }
+                                })
+                        .doOnComplete(
+                                () -> {
+                                    if (!overflowed.get()) {
+                                        put(
+                                                key,
+                                                generation,
+                                                new Entry(
+                                                        out.toByteArray(),
+                                                        identity,
+                                                        eTag,
+                                                        lastModified,
+                                                        maxAge,
+                                                        cachedResponse));
+                                    }
+                                }));
+    }
+
+    private synchronized void put(String key, long generation, Entry entry) {
+        if (generation != this.generation) {
+            return;
+        }
+
+        remove(key);
+
+        this.entries.put(key, entry);
+        this.size += entry.body.length;
+
+        Iterator<Map.Entry<String, Entry>> iterator = this.entries.entrySet().iterator();
+        while (this.size > this.maximumSize && iterator.hasNext()) {
+            this.size -= iterator.next().getValue().body.length;
+            iterator.remove();
+        }
+    }
+
+    @Nullable
+    private Entry remove(String key) {
+        Entry entry = this.entries.remove(key);
+
+        if (entry != null) {
+            this.size -= entry.body.length;
+        }
+
+        return entry;
+    }
+
+    static final class Entry {
+
+        private final byte[] body;
+
+        private final String eTag;
+
+        private final String identity;
+
+        private final String lastModified;
+
+        private final long maxAge;
+
+        private final long received = System.nanoTime();
+
+        private final CachedResponse response;
+
+        private Entry(
+                byte[] body,
+                String identity,
+                @Nullable String eTag,
+                @Nullable String lastModified,
+                long maxAge,
+                CachedResponse response) {
+            this.body = body;
+            this.eTag = eTag;
+            this.identity = identity;
+            this.lastModified = lastModified;
+            this.maxAge = TimeUnit.SECONDS.toNanos(maxAge);
+            this.response = response;
+        }
+
+        ByteBufFlux getBody() {
+            return ByteBufFlux.fromInbound(
+                    Mono.fromSupplier(() -> Unpooled.wrappedBuffer(this.body)));
+        }
+
+        HttpClientResponse getResponse() {
+            return this.response;
+        }
+
+        boolean isFresh() {
+            return System.nanoTime() - this.received < this.maxAge;
+        }
+
+        private Entry revalidated(HttpClientResponse response) {
+            HttpHeaders headers = response.responseHeaders();
+            String cacheControl = headers.get(HttpHeaderNames.CACHE_CONTROL);
+
+            return new Entry(
+                    this.body,
+                    this.identity,
+                    Optional.ofNullable(headers.get(HttpHeaderNames.ETAG)).orElse(this.eTag),
+                    Optional.ofNullable(headers.get(HttpHeaderNames.LAST_MODIFIED))
+                            .orElse(this.lastModified),
+                    getMaxAge(cacheControl).orElse(0L),
+                    this.response);
+        }
+    }
+
+    /**
+     * A copy of the status and headers of a cached response, so that cached responses do not retain the connection that they were received on.
+     */
+    private static final class CachedResponse implements HttpClientResponse {
+
+        private final String fullPath;
+
+        private final String requestId;
+
+        private final String resourceUrl;
+
+        private final HttpHeaders responseHeaders;
+
+        private final HttpResponseStatus status;
+
+        private final String uri;
+
+        private final HttpVersion version;
+
+        private CachedResponse(HttpClientResponse response) {
+            this.fullPath = response.fullPath();
+            this.requestId = response.requestId();
+            this.resourceUrl = response.resourceUrl();
+            this.responseHeaders = new DefaultHttpHeaders().set(response.responseHeaders());
+            this.status = response.status();
+            this.uri = response.uri();
+            this.version = response.version();
+        }
+
+        @Override
+        public Map<CharSequence, Set<Cookie>> cookies() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        @Deprecated
+        public Context currentContext() {
+            return Context.of(currentContextView());
+        }
+
+        @Override
+        public ContextView currentContextView() {
+            return Context.empty();
+        }
+
+        @Override
+        public String fullPath() {
+            return this.fullPath;
+        }
+
+        @Override
+        public boolean isKeepAlive() {
+            return true;
+        }
+
+        @Override
+        public boolean isWebsocket() {
+            return false;
+        }
+
+        @Override
+        public HttpMethod method() {
+            return HttpMethod.GET;
+        }
+
+        @Override
+        public String[] redirectedFrom() {
+            return new String[0];
+        }
+
+        @Override
+        public HttpHeaders requestHeaders() {
+            return EmptyHttpHeaders.INSTANCE;
+        }
+
+        @Override
+        public String requestId() {
+            return this.requestId;
+        }
+
+        @Override
+        public String resourceUrl() {
+            return this.resourceUrl;
+        }
+
+        @Override
+        public HttpHeaders responseHeaders() {
+            return this.responseHeaders;
+        }
+
+        @Override
+        public HttpResponseStatus status() {
+            return this.status;
+        }
+
+        @Override
+        public Mono<HttpHeaders> trailerHeaders() {
+            return Mono.just(EmptyHttpHeaders.INSTANCE);
+        }
+
+        @Override
+        public String uri() {
+            return this.uri;
+        }
+
+        @Override
+        public HttpVersion version() {
+            return this.version;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+import reactor.core.publisher.Mono;
+
+/**
+ * Identifies the principal that a request is made on behalf of, so that responses are only shared between requests
+ * made by the same principal. Tokens for the same user or client issued at different times have the same identity. The identity of the last token is remembered, as
+ * every request made with a token asks for its identity.
+ */
+final class TokenIdentity {
+
+    private static final String BEARER = "bearer ";
+
+    private static final AtomicReference<Identity> LAST = new AtomicReference<>();
+
+    private static final JwtParser PARSER = Jwts.parserBuilder().build();
+
+    private TokenIdentity() {}
+
+    static Mono<String> get(OperatorContext context) {
+        return context.getTokenProvider()
+                .map(
+                        tokenProvider ->
+                                tokenProvider
+                                        .getToken(context.getConnectionContext())
+                                        .map(TokenIdentity::identify))
+                .orElse(Mono.just(""));
+    }
+
+    static String identify(String token) {
+        Identity last = LAST.get();
+
+        if (last != null && last.token.equals(token)) {
+            return last.identity;
+        }
+
+        String identity = parse(token);
+        LAST.set(new Identity(token, identity));
+        return identity;
+    }
+
+    private static String parse(String token) {
+        String value =
+                token.toLowerCase(Locale.ENGLISH).startsWith(BEARER)
+                        ? token.substring(BEARER.length())
+                        : token;
+
+        if (value.indexOf('.') == -1) {
+            return token;
+        }
+
+        try {
+            Claims claims =
+                    PARSER.parseClaimsJwt(value.substring(0, value.lastIndexOf('.') + 1))
+                            .getBody();
+
+            if (claims.getSubject() == null) {
+                return token;
+            }
+
+            return String.format("%s %s", claims.getIssuer(), claims.getSubject());
+        } catch (RuntimeException e) {
+            return token;
+        }
+    }
+
+    private static final class Identity {
+
+        private final String identity;
+
+        private final String token;
+
+        private Identity(String token, String identity) {
+            this.identity = identity;
+            this.token = token;
+        }
+    }
+}
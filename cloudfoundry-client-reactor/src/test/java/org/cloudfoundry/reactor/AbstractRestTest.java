@@ -57,7 +57,7 @@ public abstract class AbstractRestTest {
 
     protected final Mono<String> root;
 
-    final MockWebServer mockWebServer;
+    protected final MockWebServer mockWebServer;
 
     private MultipleRequestDispatcher multipleRequestDispatcher = new MultipleRequestDispatcher();
 
@@ -17,17 +17,35 @@
 package org.cloudfoundry.reactor;
 
 import static io.netty.handler.codec.http.HttpMethod.GET;
+import static io.netty.handler.codec.http.HttpMethod.HEAD;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import io.netty.handler.codec.http2.Http2StreamChannel;
 import io.netty.handler.logging.ByteBufFormat;
 import io.netty.handler.logging.LogLevel;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.security.KeyStore;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.management.ObjectName;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
 import org.junit.After;
 import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import reactor.netty.transport.ProxyProvider;
 import reactor.test.StepVerifier;
 
@@ -45,6 +63,100 @@ public final class DefaultConnectionContextTest extends AbstractRestTest {
         this.connectionContext.dispose();
     }
 
+    @Test
+    public void connectionPoolConfiguration() {
+        DefaultConnectionContext ctx =
+                DefaultConnectionContext.builder()
+                        .apiHost("api.example.com")
+                        .connectionPoolSize(24)
+                        .connectionPoolLeasingStrategy(ConnectionPoolLeasingStrategy.LIFO)
+                        .connectionPoolMaxIdleTime(Duration.ofSeconds(30))
+                        .connectionPoolPendingAcquireMaxCount(100)
+                        .hostConnectionPoolSize("uaa.example.com", 4)
+                        .hostConnectionPoolSize("doppler.example.com:4443", 8)
+                        .build();
+
+        ConnectionProvider connectionProvider = ctx.getConnectionProvider().get();
+        assertThat(connectionProvider.maxConnections()).isEqualTo(24);
+        assertThat(connectionProvider.maxConnectionsPerHost())
+                .containsEntry(InetSocketAddress.createUnresolved("uaa.example.com", 443), 4)
+                .containsEntry(InetSocketAddress.createUnresolved("doppler.example.com", 4443), 8);
+
+        ctx.dispose();
+    }
+
+    @Test
+    public void connectionPoolMetrics() throws Exception {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(TestRequest.builder().method(GET).path("/").build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .payload("fixtures/GET_response.json")
+                                        .build())
+                        .build());
+
+        this.connectionContext
+                .getRootProvider()
+                .getRoot("cloud_controller_v3", this.connectionContext)
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        ObjectName name =
+                ObjectName.getInstance(
+                        String.format(
+                                "org.cloudfoundry.reactor:type=ConnectionPool,endpoint=%s/%d,*",
+                                this.mockWebServer.getHostName(), this.mockWebServer.getPort()));
+        assertThat(ManagementFactory.getPlatformMBeanServer().queryNames(name, null)).hasSize(1);
+    }
+
+    @Test
+    public void connectionPoolMetricsMultipleContexts() throws Exception {
+        DefaultConnectionContext other =
+                DefaultConnectionContext.builder()
+                        .apiHost(this.mockWebServer.getHostName())
+                        .port(this.mockWebServer.getPort())
+                        .secure(false)
+                        .build();
+
+        for (DefaultConnectionContext connectionContext :
+                Arrays.asList(this.connectionContext, other)) {
+            mockRequest(
+                    InteractionContext.builder()
+                            .request(TestRequest.builder().method(GET).path("/").build())
+                            .response(
+                                    TestResponse.builder()
+                                            .status(OK)
+                                            .payload("fixtures/GET_response.json")
+                                            .build())
+                            .build());
+
+            connectionContext
+                    .getRootProvider()
+                    .getRoot("cloud_controller_v3", connectionContext)
+                    .as(StepVerifier::create)
+                    .expectNextCount(1)
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+        }
+
+        try {
+            ObjectName name =
+                    ObjectName.getInstance(
+                            String.format(
+                                    "org.cloudfoundry.reactor:type=ConnectionPool,endpoint=%s/%d,*",
+                                    this.mockWebServer.getHostName(),
+                                    this.mockWebServer.getPort()));
+            assertThat(ManagementFactory.getPlatformMBeanServer().queryNames(name, null))
+                    .hasSize(2);
+        } finally {
+            other.dispose();
+        }
+    }
+
     @Test
     public void getInfo() {
         mockRequest(
@@ -76,6 +188,85 @@ public final class DefaultConnectionContextTest extends AbstractRestTest {
                 .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void http2() {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(TestRequest.builder().method(GET).path("/").build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .payload("fixtures/GET_response.json")
+                                        .build())
+                        .build());
+
+        DefaultConnectionContext ctx =
+                DefaultConnectionContext.builder()
+                        .apiHost(this.mockWebServer.getHostName())
+                        .http2(true)
+                        .http2MaxConcurrentStreams(50L)
+                        .port(this.mockWebServer.getPort())
+                        .secure(false)
+                        .build();
+
+        assertThat(ctx.getHttpClient().configuration().protocols())
+                .containsExactlyInAnyOrder(HttpProtocol.H2, HttpProtocol.HTTP11);
+        assertThat(ctx.createHttp2AllocationStrategy(24))
+                .satisfies(
+                        allocationStrategy -> {
+                            assertThat(allocationStrategy.maxConcurrentStreams()).isEqualTo(50L);
+                            assertThat(allocationStrategy.permitMaximum()).isEqualTo(24);
+                        });
+        assertThat(ctx.getWebSocketHttpClient().configuration().protocols())
+                .containsExactly(HttpProtocol.HTTP11);
+
+        ctx.getRootProvider()
+                .getRoot("cloud_controller_v3", ctx)
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        ctx.dispose();
+    }
+
+    @Test
+    public void http2Negotiated() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.useHttps(createSslContext().getSocketFactory(), false);
+        server.setProtocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+        server.enqueue(new MockResponse().setResponseCode(200));
+        server.start(InetAddress.getByName("localhost"), 0);
+
+        DefaultConnectionContext ctx =
+                DefaultConnectionContext.builder()
+                        .apiHost("localhost")
+                        .http2(true)
+                        .port(server.getPort())
+                        .skipSslValidation(true)
+                        .build();
+
+        try {
+            ctx.trust("localhost", server.getPort())
+                    .thenMany(
+                            ctx.getHttpClient()
+                                    .get()
+                                    .uri(String.format("https://localhost:%d/", server.getPort()))
+                                    .responseConnection(
+                                            (response, connection) ->
+                                                    Mono.just(
+                                                            connection.channel()
+                                                                    instanceof Http2StreamChannel)))
+                    .as(StepVerifier::create)
+                    .expectNext(true)
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(10));
+        } finally {
+            ctx.dispose();
+            server.shutdown();
+        }
+    }
+
     @Test
     public void multipleInstances() {
         DefaultConnectionContext first =
@@ -125,4 +316,89 @@ public final class DefaultConnectionContextTest extends AbstractRestTest {
         assertThat(client.configuration().loggingHandler().byteBufFormat())
                 .isEqualTo(ByteBufFormat.HEX_DUMP);
     }
+
+    @Test
+    public void warmUp() throws InterruptedException {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(TestRequest.builder().method(HEAD).path("/").build())
+                        .response(TestResponse.builder().status(OK).build())
+                        .build());
+        mockRequest(
+                InteractionContext.builder()
+                        .request(TestRequest.builder().method(HEAD).path("/").build())
+                        .response(TestResponse.builder().status(OK).build())
+                        .build());
+
+        DefaultConnectionContext ctx =
+                DefaultConnectionContext.builder()
+                        .apiHost(this.mockWebServer.getHostName())
+                        .port(this.mockWebServer.getPort())
+                        .rootProvider(
+                                SingleEndpointRootProvider.builder()
+                                        .apiHost(this.mockWebServer.getHostName())
+                                        .port(this.mockWebServer.getPort())
+                                        .secure(false)
+                                        .build())
+                        .secure(false)
+                        .build();
+
+        ctx.warmUp(2, TOKEN_PROVIDER)
+                .as(StepVerifier::create)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(this.mockWebServer.takeRequest(5, TimeUnit.SECONDS).getSequenceNumber())
+                .isZero();
+        assertThat(this.mockWebServer.takeRequest(5, TimeUnit.SECONDS).getSequenceNumber())
+                .isZero();
+
+        ctx.dispose();
+    }
+
+    @Test
+    public void warmUpNoConnections() {
+        DefaultConnectionContext ctx =
+                DefaultConnectionContext.builder()
+                        .apiHost(this.mockWebServer.getHostName())
+                        .port(this.mockWebServer.getPort())
+                        .rootProvider(
+                                SingleEndpointRootProvider.builder()
+                                        .apiHost(this.mockWebServer.getHostName())
+                                        .port(this.mockWebServer.getPort())
+                                        .secure(false)
+                                        .build())
+                        .secure(false)
+                        .build();
+
+        ctx.warmUp(0, TOKEN_PROVIDER)
+                .as(StepVerifier::create)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        ctx.warmUp(-1)
+                .as(StepVerifier::create)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(this.mockWebServer.getRequestCount()).isZero();
+
+        ctx.dispose();
+    }
+
+    private static SSLContext createSslContext() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+
+        try (InputStream in =
+                new ClassPathResource("fixtures/tls/keystore.p12").getInputStream()) {
+            keyStore.load(in, "test-password".toCharArray());
+        }
+
+        KeyManagerFactory keyManagerFactory =
+                KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, "test-password".toCharArray());
+
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+        return sslContext;
+    }
 }
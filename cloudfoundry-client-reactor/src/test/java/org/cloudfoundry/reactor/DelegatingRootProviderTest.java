@@ -19,9 +19,13 @@ package org.cloudfoundry.reactor;
 import static io.netty.handler.codec.http.HttpMethod.GET;
 import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import io.netty.handler.codec.http.HttpResponseStatus;
 import java.time.Duration;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.Test;
 import reactor.test.StepVerifier;
 
@@ -396,4 +400,52 @@ public final class DelegatingRootProviderTest extends AbstractRestTest {
                 .expectComplete()
                 .verify(Duration.ofSeconds(5));
     }
+
+    @Test
+    public void getRootParallelDiscovery() {
+        this.mockWebServer.setDispatcher(
+                new Dispatcher() {
+
+                    @Override
+                    public MockResponse dispatch(RecordedRequest request) {
+                        String payload =
+                                "/".equals(request.getPath())
+                                        ? "fixtures/GET_response.json"
+                                        : "fixtures/client/v2/info/GET_response.json";
+
+                        return TestResponse.builder()
+                                .status(OK)
+                                .payload(payload)
+                                .build()
+                                .getMockResponse();
+                    }
+                });
+
+        DelegatingRootProvider rootProvider =
+                DelegatingRootProvider.builder()
+                        .apiHost("localhost")
+                        .parallelDiscovery(true)
+                        .port(this.mockWebServer.getPort())
+                        .secure(false)
+                        .objectMapper(CONNECTION_CONTEXT.getObjectMapper())
+                        .build();
+
+        rootProvider
+                .getRoot("cloud_controller_v2", CONNECTION_CONTEXT)
+                .as(StepVerifier::create)
+                .expectNext(
+                        String.format(
+                                "http://api.run.pivotal.io:%d/v2", this.mockWebServer.getPort()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        rootProvider
+                .getRoot("authorization_endpoint", CONNECTION_CONTEXT)
+                .as(StepVerifier::create)
+                .expectNext("http://localhost:8080/uaa")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(this.mockWebServer.getRequestCount()).isEqualTo(2);
+    }
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import static io.netty.handler.codec.http.HttpMethod.GET;
+import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERROR;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static io.netty.handler.codec.http.HttpResponseStatus.UNAUTHORIZED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.cloudfoundry.Nullable;
+import org.cloudfoundry.UnknownCloudFoundryException;
+import org.cloudfoundry.reactor.util.AbstractReactorOperations;
+import org.cloudfoundry.reactor.util.Operator;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public final class MetricsRecorderTest extends AbstractRestTest {
+
+    private final RecordingMetricsRecorder metricsRecorder = new RecordingMetricsRecorder();
+
+    private final DefaultConnectionContext connectionContext =
+            DefaultConnectionContext.builder()
+                    .apiHost(this.mockWebServer.getHostName())
+                    .port(this.mockWebServer.getPort())
+                    .secure(false)
+                    .metricsRecorder(this.metricsRecorder)
+                    .build();
+
+    @Test
+    public void recordError() {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(
+                                TestRequest.builder()
+                                        .method(GET)
+                                        .path("/v3/apps/test-application-id")
+                                        .build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(INTERNAL_SERVER_ERROR)
+                                        .payload("fixtures/client/v3/error_response.json")
+                                        .build())
+                        .build());
+
+        createOperator()
+                .flatMap(
+                        operator ->
+                                operator.get()
+                                        .uri(uri -> uri.path("/v3/apps/test-application-id"))
+                                        .response()
+                                        .parseBody(Map.class))
+                .as(StepVerifier::create)
+                .expectError(UnknownCloudFoundryException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(this.metricsRecorder.exchanges)
+                .containsExactly(
+                        "GET /v3/apps/test-application-id 500 UnknownCloudFoundryException");
+    }
+
+    @Test
+    public void recordExchange() {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(
+                                TestRequest.builder()
+                                        .method(GET)
+                                        .path("/v3/apps/c4dc9ef5-7a2a-4a6f-a9d4-6a6e1d2bb7a2")
+                                        .build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .payload("fixtures/client/v3/apps/GET_{id}_response.json")
+                                        .build())
+                        .build());
+
+        createOperator()
+                .flatMap(
+                        operator ->
+                                operator.get()
+                                        .uri(
+                                                uri ->
+                                                        uri.path(
+                                                                "/v3/apps/c4dc9ef5-7a2a-4a6f-a9d4-6a6e1d2bb7a2"))
+                                        .response()
+                                        .parseBody(Map.class))
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(this.metricsRecorder.exchanges).containsExactly("GET /v3/apps/{guid} 200");
+        assertThat(this.metricsRecorder.connectionAcquisitions)
+                .containsExactly("GET /v3/apps/{guid}");
+        assertThat(this.metricsRecorder.bytesReceived).isPositive();
+    }
+
+    @Test
+    public void recordInvalidTokenRetry() {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(TestRequest.builder().method(GET).path("/v2/info").build())
+                        .response(TestResponse.builder().status(UNAUTHORIZED).build())
+                        .build());
+        mockRequest(
+                InteractionContext.builder()
+                        .request(TestRequest.builder().method(GET).path("/v2/info").build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .payload("fixtures/client/v2/info/GET_response.json")
+                                        .build())
+                        .build());
+
+        createOperator()
+                .flatMap(
+                        operator ->
+                                operator.get()
+                                        .uri(uri -> uri.path("/v2/info"))
+                                        .response()
+                                        .parseBody(Map.class))
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(this.metricsRecorder.invalidTokenRetries).containsExactly("GET /v2/info");
+        assertThat(this.metricsRecorder.exchanges).containsExactly("GET /v2/info 200");
+    }
+
+    private Mono<Operator> createOperator() {
+        return new AbstractReactorOperations(
+                this.connectionContext, this.root, TOKEN_PROVIDER, Collections.emptyMap()) {
+
+            private Mono<Operator> getOperator() {
+                return createOperator();
+            }
+        }.getOperator();
+    }
+
+    private static final class RecordingMetricsRecorder implements MetricsRecorder {
+
+        private final List<String> connectionAcquisitions = new CopyOnWriteArrayList<>();
+
+        private final List<String> exchanges = new CopyOnWriteArrayList<>();
+
+        private final List<String> invalidTokenRetries = new CopyOnWriteArrayList<>();
+
+        private volatile long bytesReceived;
+
+        @Override
+        public void recordConnectionAcquireTime(
+                String method, String uriTemplate, Duration duration) {
+            this.connectionAcquisitions.add(String.format("%s %s", method, uriTemplate));
+        }
+
+        @Override
+        public void recordDataReceived(String method, String uriTemplate, long bytes) {
+            this.bytesReceived += bytes;
+        }
+
+        @Override
+        public void recordExchange(
+                String method,
+                String uriTemplate,
+                @Nullable Integer status,
+                @Nullable Throwable error,
+                Duration duration) {
+            StringBuilder exchange =
+                    new StringBuilder(String.format("%s %s %s", method, uriTemplate, status));
+
+            if (error != null) {
+                exchange.append(' ').append(error.getClass().getSimpleName());
+            }
+
+            this.exchanges.add(exchange.toString());
+        }
+
+        @Override
+        public void recordInvalidTokenRetry(String method, String uriTemplate) {
+            this.invalidTokenRetries.add(String.format("%s %s", method, uriTemplate));
+        }
+    }
+}
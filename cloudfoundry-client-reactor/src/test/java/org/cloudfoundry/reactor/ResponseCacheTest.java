@@ -0,0 +1,255 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import static io.netty.handler.codec.http.HttpMethod.DELETE;
+import static io.netty.handler.codec.http.HttpMethod.GET;
+import static io.netty.handler.codec.http.HttpMethod.PUT;
+import static io.netty.handler.codec.http.HttpResponseStatus.NOT_MODIFIED;
+import static io.netty.handler.codec.http.HttpResponseStatus.NO_CONTENT;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import org.cloudfoundry.reactor.util.AbstractReactorOperations;
+import org.cloudfoundry.reactor.util.Operator;
+import org.cloudfoundry.reactor.util.ResponseCache;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public final class ResponseCacheTest extends AbstractRestTest {
+
+    private final DefaultConnectionContext connectionContext =
+            DefaultConnectionContext.builder()
+                    .apiHost(this.mockWebServer.getHostName())
+                    .port(this.mockWebServer.getPort())
+                    .secure(false)
+                    .responseCache(new ResponseCache(1024 * 1024, Duration.ofMinutes(5)))
+                    .build();
+
+    @Test
+    public void fresh() {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(TestRequest.builder().method(GET).path("/v2/info").build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .header("Cache-Control", "max-age=60")
+                                        .payload("fixtures/client/v2/info/GET_response.json")
+                                        .build())
+                        .build());
+
+        getInfo().as(StepVerifier::create).expectNextCount(1).expectComplete().verify();
+        getInfo()
+                .as(StepVerifier::create)
+                .expectNextMatches(info -> info.containsKey("api_version"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void invalidate() {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(TestRequest.builder().method(GET).path("/v2/info").build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .header("ETag", "\"test-etag\"")
+                                        .payload("fixtures/client/v2/info/GET_response.json")
+                                        .build())
+                        .build());
+        mockRequest(
+                InteractionContext.builder()
+                        .request(TestRequest.builder().method(DELETE).path("/v2/info").build())
+                        .response(TestResponse.builder().status(NO_CONTENT).build())
+                        .build());
+        mockRequest(
+                InteractionContext.builder()
+                        .request(
+                                TestRequest.builder()
+                                        .method(GET)
+                                        .path("/v2/info")
+                                        .header("If-None-Match", null)
+                                        .build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .payload("fixtures/client/v2/info/GET_response.json")
+                                        .build())
+                        .build());
+
+        getInfo()
+                .then(
+                        createOperator()
+                                .flatMap(
+                                        operator ->
+                                                operator.delete()
+                                                        .uri(uri -> uri.path("/v2/info"))
+                                                        .response()
+                                                        .get()))
+                .then(getInfo())
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void invalidateOtherUris() {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(TestRequest.builder().method(GET).path("/v2/info").build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .header("ETag", "\"test-etag\"")
+                                        .payload("fixtures/client/v2/info/GET_response.json")
+                                        .build())
+                        .build());
+        mockRequest(
+                InteractionContext.builder()
+                        .request(
+                                TestRequest.builder()
+                                        .method(PUT)
+                                        .path("/v2/info/test-id")
+                                        .build())
+                        .response(TestResponse.builder().status(NO_CONTENT).build())
+                        .build());
+        mockRequest(
+                InteractionContext.builder()
+                        .request(
+                                TestRequest.builder()
+                                        .method(GET)
+                                        .path("/v2/info")
+                                        .header("If-None-Match", null)
+                                        .build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .payload("fixtures/client/v2/info/GET_response.json")
+                                        .build())
+                        .build());
+
+        getInfo()
+                .then(
+                        createOperator()
+                                .flatMap(
+                                        operator ->
+                                                operator.put()
+                                                        .uri(uri -> uri.path("/v2/info/test-id"))
+                                                        .response()
+                                                        .get()))
+                .then(getInfo())
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void noStore() {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(TestRequest.builder().method(GET).path("/v2/info").build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .header("Cache-Control", "no-store")
+                                        .header("ETag", "\"test-etag\"")
+                                        .payload("fixtures/client/v2/info/GET_response.json")
+                                        .build())
+                        .build());
+        mockRequest(
+                InteractionContext.builder()
+                        .request(
+                                TestRequest.builder()
+                                        .method(GET)
+                                        .path("/v2/info")
+                                        .header("If-None-Match", null)
+                                        .build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .payload("fixtures/client/v2/info/GET_response.json")
+                                        .build())
+                        .build());
+
+        getInfo()
+                .then(getInfo())
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void revalidate() {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(TestRequest.builder().method(GET).path("/v2/info").build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .header("ETag", "\"test-etag\"")
+                                        .payload("fixtures/client/v2/info/GET_response.json")
+                                        .build())
+                        .build());
+        mockRequest(
+                InteractionContext.builder()
+                        .request(
+                                TestRequest.builder()
+                                        .method(GET)
+                                        .path("/v2/info")
+                                        .header("If-None-Match", "\"test-etag\"")
+                                        .build())
+                        .response(TestResponse.builder().status(NOT_MODIFIED).build())
+                        .build());
+
+        getInfo()
+                .flatMap(first -> getInfo().map(first::equals))
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private Mono<Operator> createOperator() {
+        return new AbstractReactorOperations(
+                this.connectionContext, this.root, TOKEN_PROVIDER, Collections.emptyMap()) {
+
+            private Mono<Operator> getOperator() {
+                return createOperator();
+            }
+        }.getOperator();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Map<String, Object>> getInfo() {
+        return createOperator()
+                .flatMap(
+                        operator ->
+                                operator.get()
+                                        .uri(uri -> uri.path("/v2/info"))
+                                        .response()
+                                        .parseBody(Map.class))
+                .map(info -> (Map<String, Object>) info);
+    }
+}
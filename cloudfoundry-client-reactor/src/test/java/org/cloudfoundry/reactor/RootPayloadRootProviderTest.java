@@ -18,13 +18,24 @@ package org.cloudfoundry.reactor;
 
 import static io.netty.handler.codec.http.HttpMethod.GET;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+import org.junit.After;
 import org.junit.Test;
+import org.springframework.util.FileSystemUtils;
 import reactor.test.StepVerifier;
 
 public final class RootPayloadRootProviderTest extends AbstractRestTest {
 
+    private final Path discoveryCacheDirectory;
+
     private final RootPayloadRootProvider rootProvider =
             RootPayloadRootProvider.builder()
                     .apiHost("localhost")
@@ -33,6 +44,15 @@ public final class RootPayloadRootProviderTest extends AbstractRestTest {
                     .objectMapper(CONNECTION_CONTEXT.getObjectMapper())
                     .build();
 
+    public RootPayloadRootProviderTest() throws IOException {
+        this.discoveryCacheDirectory = Files.createTempDirectory("discovery-cache");
+    }
+
+    @After
+    public void deleteDiscoveryCacheDirectory() throws IOException {
+        FileSystemUtils.deleteRecursively(this.discoveryCacheDirectory);
+    }
+
     @Test
     public void getRoot() {
         this.rootProvider
@@ -83,4 +103,83 @@ public final class RootPayloadRootProviderTest extends AbstractRestTest {
                 .expectError(IllegalArgumentException.class)
                 .verify(Duration.ofSeconds(5));
     }
+
+    @Test
+    public void getRootKeyPersisted() throws IOException, InterruptedException {
+        mockRootRequest();
+        mockRootRequest();
+
+        getRootCloudFoundryClientV2(createPersistingRootProvider());
+        FileTime validated = setLastModifiedTime(Duration.ofHours(1));
+
+        getRootCloudFoundryClientV2(createPersistingRootProvider());
+
+        for (int i = 0; i < 500 && validated.equals(getLastModifiedTime()); i++) {
+            Thread.sleep(10);
+        }
+
+        assertThat(getLastModifiedTime()).as("revalidated").isGreaterThan(validated);
+    }
+
+    @Test
+    public void getRootKeyPersistedExpired() throws IOException, InterruptedException {
+        mockRootRequest();
+        mockRootRequest();
+
+        getRootCloudFoundryClientV2(createPersistingRootProvider());
+
+        setLastModifiedTime(Duration.ofDays(2));
+
+        getRootCloudFoundryClientV2(createPersistingRootProvider());
+        assertThat(this.mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    private RootPayloadRootProvider createPersistingRootProvider() {
+        return RootPayloadRootProvider.builder()
+                .apiHost("localhost")
+                .discoveryCacheDirectory(this.discoveryCacheDirectory)
+                .port(this.mockWebServer.getPort())
+                .secure(false)
+                .objectMapper(CONNECTION_CONTEXT.getObjectMapper())
+                .build();
+    }
+
+    private FileTime getLastModifiedTime() throws IOException {
+        return Files.getLastModifiedTime(getPersistedPayload());
+    }
+
+    private Path getPersistedPayload() throws IOException {
+        try (Stream<Path> paths = Files.list(this.discoveryCacheDirectory)) {
+            return paths.filter(path -> path.toString().endsWith(".json")).findFirst().get();
+        }
+    }
+
+    private void getRootCloudFoundryClientV2(RootPayloadRootProvider rootProvider) {
+        rootProvider
+                .getRoot("cloud_controller_v2", CONNECTION_CONTEXT)
+                .as(StepVerifier::create)
+                .expectNext(
+                        String.format(
+                                "http://api.run.pivotal.io:%d/v2", this.mockWebServer.getPort()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private void mockRootRequest() {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(TestRequest.builder().method(GET).path("/").build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .payload("fixtures/GET_response.json")
+                                        .build())
+                        .build());
+    }
+
+    private FileTime setLastModifiedTime(Duration age) throws IOException {
+        FileTime lastModifiedTime = FileTime.from(Instant.now().minus(age));
+        Files.setLastModifiedTime(getPersistedPayload(), lastModifiedTime);
+        return lastModifiedTime;
+    }
 }
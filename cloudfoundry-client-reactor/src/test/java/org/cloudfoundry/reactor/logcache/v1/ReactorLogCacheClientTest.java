@@ -32,8 +32,14 @@ import org.cloudfoundry.logcache.v1.MetaRequest;
 import org.cloudfoundry.logcache.v1.MetaResponse;
 import org.cloudfoundry.logcache.v1.Metadata;
 import org.cloudfoundry.logcache.v1.Metric;
+import org.cloudfoundry.logcache.v1.QueryRangeRequest;
+import org.cloudfoundry.logcache.v1.QueryRequest;
+import org.cloudfoundry.logcache.v1.QueryResponse;
+import org.cloudfoundry.logcache.v1.QueryResult;
 import org.cloudfoundry.logcache.v1.ReadRequest;
 import org.cloudfoundry.logcache.v1.ReadResponse;
+import org.cloudfoundry.logcache.v1.Sample;
+import org.cloudfoundry.logcache.v1.Series;
 import org.cloudfoundry.reactor.InteractionContext;
 import org.cloudfoundry.reactor.TestRequest;
 import org.cloudfoundry.reactor.TestResponse;
@@ -106,6 +112,106 @@ public class ReactorLogCacheClientTest extends AbstractLogCacheApiTest {
                 .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void query() {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(
+                                TestRequest.builder()
+                                        .method(GET)
+                                        .path("/api/v1/query?query=cpu&time=1588631926")
+                                        .build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .contentType("application/json")
+                                        .payload("fixtures/logcache.v1/GET_query_response.json")
+                                        .build())
+                        .build());
+
+        this.logCacheEndpoints
+                .query(QueryRequest.builder().query("cpu").time("1588631926").build())
+                .as(StepVerifier::create)
+                .expectNext(
+                        QueryResponse.builder()
+                                .data(
+                                        QueryResult.builder()
+                                                .resultType("vector")
+                                                .result(
+                                                        Series.builder()
+                                                                .metric(
+                                                                        "source_id",
+                                                                        "1a69c137-90f5-4b0a-8526-2ebca84c83a8")
+                                                                .sample(
+                                                                        Sample.builder()
+                                                                                .timestamp(
+                                                                                        1588631926D)
+                                                                                .value(
+                                                                                        "0.394234612100979")
+                                                                                .build())
+                                                                .build())
+                                                .build())
+                                .status("success")
+                                .build())
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void queryRange() {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(
+                                TestRequest.builder()
+                                        .method(GET)
+                                        .path(
+                                                "/api/v1/query_range?end=1588631940&query=cpu&start=1588631880&step=60s")
+                                        .build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .contentType("application/json")
+                                        .payload(
+                                                "fixtures/logcache.v1/GET_query_range_response.json")
+                                        .build())
+                        .build());
+
+        this.logCacheEndpoints
+                .queryRange(
+                        QueryRangeRequest.builder()
+                                .end("1588631940")
+                                .query("cpu")
+                                .start("1588631880")
+                                .step("60s")
+                                .build())
+                .as(StepVerifier::create)
+                .expectNext(
+                        Series.builder()
+                                .metric("instance_id", "0")
+                                .metric("source_id", "1a69c137-90f5-4b0a-8526-2ebca84c83a8")
+                                .values(
+                                        Sample.builder()
+                                                .timestamp(1588631880D)
+                                                .value("0.394234612100979")
+                                                .build(),
+                                        Sample.builder()
+                                                .timestamp(1588631940D)
+                                                .value("1.270851394839291")
+                                                .build())
+                                .build(),
+                        Series.builder()
+                                .metric("instance_id", "1")
+                                .metric("source_id", "1a69c137-90f5-4b0a-8526-2ebca84c83a8")
+                                .values(
+                                        Sample.builder()
+                                                .timestamp(1588631880D)
+                                                .value("0.281038472635012")
+                                                .build())
+                                .build())
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
     @Test
     public void read() {
         mockRequest(
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.cloudfoundry.reactor.tokenprovider;
+
+import static io.netty.handler.codec.http.HttpMethod.POST;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.cloudfoundry.reactor.AbstractRestTest;
+import org.cloudfoundry.reactor.ConnectionContext;
+import org.cloudfoundry.reactor.DefaultConnectionContext;
+import org.cloudfoundry.reactor.InteractionContext;
+import org.cloudfoundry.reactor.RootProvider;
+import org.cloudfoundry.reactor.TestRequest;
+import org.cloudfoundry.reactor.TestResponse;
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+public final class AbstractUaaTokenProviderTest extends AbstractRestTest {
+
+    private static final String FIRST_TOKEN =
+            "bearer"
+                + " eyJhbGciOiJub25lIn0.eyJqdGkiOiJ0ZXN0LWZpcnN0LXRva2VuIiwiZXhwIjo0MTAyNDQ0ODAwfQ.";
+
+    private static final String SECOND_TOKEN =
+            "bearer"
+                + " eyJhbGciOiJub25lIn0.eyJqdGkiOiJ0ZXN0LXNlY29uZC10b2tlbiIsImV4cCI6NDEwMjQ0NDgwMH0.";
+
+    private final RootProvider rootProvider = mock(RootProvider.class, RETURNS_SMART_NULLS);
+
+    private final ConnectionContext connectionContext =
+            DefaultConnectionContext.builder()
+                    .apiHost("localhost")
+                    .rootProvider(this.rootProvider)
+                    .secure(false)
+                    .build();
+
+    private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.getOrSet();
+
+    @After
+    public void resetScheduler() {
+        VirtualTimeScheduler.reset();
+    }
+
+    @Test
+    public void invalidateCancelsRefreshBeforeExpiration() throws InterruptedException {
+        mockTokenRequest("fixtures/tokenprovider/POST_response_first.json");
+
+        ClientCredentialsGrantTokenProvider tokenProvider =
+                ClientCredentialsGrantTokenProvider.builder()
+                        .clientId("test-client-id")
+                        .clientSecret("test-client-secret")
+                        .build();
+
+        assertThat(tokenProvider.getToken(this.connectionContext).block()).isEqualTo(FIRST_TOKEN);
+
+        tokenProvider.invalidate(this.connectionContext);
+        this.scheduler.advanceTimeBy(Duration.ofDays(100 * 365));
+        Thread.sleep(100);
+
+        assertThat(this.mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidateRejectedToken() {
+        mockTokenRequest("fixtures/tokenprovider/POST_response_first.json");
+        mockTokenRequest("fixtures/tokenprovider/POST_response_second.json");
+
+        ClientCredentialsGrantTokenProvider tokenProvider =
+                ClientCredentialsGrantTokenProvider.builder()
+                        .clientId("test-client-id")
+                        .clientSecret("test-client-secret")
+                        .build();
+
+        assertThat(tokenProvider.getToken(this.connectionContext).block()).isEqualTo(FIRST_TOKEN);
+
+        tokenProvider.invalidate(this.connectionContext, FIRST_TOKEN);
+        tokenProvider.invalidate(this.connectionContext, FIRST_TOKEN);
+        assertThat(tokenProvider.getToken(this.connectionContext).block()).isEqualTo(SECOND_TOKEN);
+
+        tokenProvider.invalidate(this.connectionContext, FIRST_TOKEN);
+        assertThat(tokenProvider.getToken(this.connectionContext).block()).isEqualTo(SECOND_TOKEN);
+    }
+
+    @Test
+    public void refreshBeforeExpiration() throws InterruptedException {
+        mockTokenRequest("fixtures/tokenprovider/POST_response_first.json");
+        mockTokenRequest("fixtures/tokenprovider/POST_response_second.json");
+
+        ClientCredentialsGrantTokenProvider tokenProvider =
+                ClientCredentialsGrantTokenProvider.builder()
+                        .clientId("test-client-id")
+                        .clientSecret("test-client-secret")
+                        .build();
+
+        tokenProvider
+                .getToken(this.connectionContext)
+                .as(StepVerifier::create)
+                .expectNext(FIRST_TOKEN)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        this.scheduler.advanceTimeBy(Duration.ofDays(100 * 365));
+
+        for (int i = 0;
+                i < 500
+                        && FIRST_TOKEN.equals(
+                                tokenProvider.getToken(this.connectionContext).block());
+                i++) {
+            Thread.sleep(10);
+        }
+
+        assertThat(tokenProvider.getToken(this.connectionContext).block()).isEqualTo(SECOND_TOKEN);
+    }
+
+    @Test
+    public void refreshBeforeExpirationDisabled() {
+        mockTokenRequest("fixtures/tokenprovider/POST_response_first.json");
+
+        ClientCredentialsGrantTokenProvider tokenProvider =
+                ClientCredentialsGrantTokenProvider.builder()
+                        .clientId("test-client-id")
+                        .clientSecret("test-client-secret")
+                        .tokenRefreshMargin(Duration.ZERO)
+                        .build();
+
+        tokenProvider
+                .getToken(this.connectionContext)
+                .as(StepVerifier::create)
+                .expectNext(FIRST_TOKEN)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        this.scheduler.advanceTimeBy(Duration.ofDays(100 * 365));
+
+        assertThat(tokenProvider.getToken(this.connectionContext).block()).isEqualTo(FIRST_TOKEN);
+    }
+
+    @Test
+    public void restoreStoredToken() {
+        mockTokenRequest("fixtures/tokenprovider/POST_response_first.json");
+
+        InMemoryTokenStore tokenStore = new InMemoryTokenStore();
+
+        assertThat(createTokenProvider(tokenStore).getToken(this.connectionContext).block())
+                .isEqualTo(FIRST_TOKEN);
+        assertThat(tokenStore.tokens.values())
+                .containsExactly(StoredToken.builder().accessToken(FIRST_TOKEN).build());
+
+        createTokenProvider(tokenStore)
+                .getToken(this.connectionContext)
+                .as(StepVerifier::create)
+                .expectNext(FIRST_TOKEN)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void restoreStoredTokenDifferentIdentity() {
+        mockTokenRequest("fixtures/tokenprovider/POST_response_first.json");
+        mockTokenRequest("fixtures/tokenprovider/POST_response_second.json");
+
+        InMemoryTokenStore tokenStore = new InMemoryTokenStore();
+
+        assertThat(createTokenProvider(tokenStore).getToken(this.connectionContext).block())
+                .isEqualTo(FIRST_TOKEN);
+
+        ClientCredentialsGrantTokenProvider.builder()
+                .clientId("test-other-client-id")
+                .clientSecret("test-client-secret")
+                .tokenStore(tokenStore)
+                .build()
+                .getToken(this.connectionContext)
+                .as(StepVerifier::create)
+                .expectNext(SECOND_TOKEN)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(tokenStore.tokens).hasSize(2);
+    }
+
+    private static ClientCredentialsGrantTokenProvider createTokenProvider(TokenStore tokenStore) {
+        return ClientCredentialsGrantTokenProvider.builder()
+                .clientId("test-client-id")
+                .clientSecret("test-client-secret")
+                .tokenStore(tokenStore)
+                .build();
+    }
+
+    private void mockTokenRequest(String payload) {
+        when(this.rootProvider.getRoot(any(String.class), any(ConnectionContext.class)))
+                .thenReturn(this.root);
+
+        mockRequest(
+                InteractionContext.builder()
+                        .request(
+                                TestRequest.builder()
+                                        .method(POST)
+                                        .path("/oauth/token")
+                                        .contents(body -> {})
+                                        .build())
+                        .response(TestResponse.builder().status(OK).payload(payload).build())
+                        .build());
+    }
+
+    private static final class InMemoryTokenStore implements TokenStore {
+
+        private final Map<String, StoredToken> tokens = new ConcurrentHashMap<>();
+
+        @Override
+        public Mono<StoredToken> get(String identity) {
+            return Mono.justOrEmpty(this.tokens.get(identity));
+        }
+
+        @Override
+        public Mono<Void> put(String identity, StoredToken token) {
+            return Mono.fromRunnable(() -> this.tokens.put(identity, token));
+        }
+    }
+}
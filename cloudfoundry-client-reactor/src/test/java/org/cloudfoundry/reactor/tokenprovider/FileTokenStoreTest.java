@@ -0,0 +1,176 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.tokenprovider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.util.FileSystemUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public final class FileTokenStoreTest {
+
+    private final Path directory;
+
+    private final FileTokenStore tokenStore;
+
+    public FileTokenStoreTest() throws IOException {
+        this.directory = Files.createTempDirectory("token-store");
+        this.tokenStore =
+                FileTokenStore.builder()
+                        .directory(this.directory.resolve("tokens"))
+                        .passphrase("test-passphrase")
+                        .build();
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        FileSystemUtils.deleteRecursively(this.directory);
+    }
+
+    @Test
+    public void getMissing() {
+        this.tokenStore
+                .get("test-identity")
+                .as(StepVerifier::create)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void getWrongIdentity() {
+        this.tokenStore
+                .put(
+                        "test-identity",
+                        StoredToken.builder().accessToken("bearer test-access-token").build())
+                .block(Duration.ofSeconds(5));
+
+        this.directory
+                .resolve("tokens")
+                .resolve("test-identity")
+                .toFile()
+                .renameTo(this.directory.resolve("tokens").resolve("test-other-identity").toFile());
+
+        this.tokenStore
+                .get("test-other-identity")
+                .as(StepVerifier::create)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void getWrongPassphrase() {
+        this.tokenStore
+                .put(
+                        "test-identity",
+                        StoredToken.builder().accessToken("bearer test-access-token").build())
+                .block(Duration.ofSeconds(5));
+
+        FileTokenStore.builder()
+                .directory(this.directory.resolve("tokens"))
+                .passphrase("test-other-passphrase")
+                .build()
+                .get("test-identity")
+                .as(StepVerifier::create)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void put() throws IOException {
+        StoredToken token =
+                StoredToken.builder()
+                        .accessToken("bearer test-access-token")
+                        .refreshToken("test-refresh-token")
+                        .build();
+
+        this.tokenStore.put("test-identity", token).block(Duration.ofSeconds(5));
+
+        assertThat(
+                        new String(
+                                Files.readAllBytes(
+                                        this.directory.resolve("tokens").resolve("test-identity")),
+                                StandardCharsets.ISO_8859_1))
+                .doesNotContain("test-access-token")
+                .doesNotContain("test-refresh-token");
+
+        FileTokenStore.builder()
+                .directory(this.directory.resolve("tokens"))
+                .passphrase("test-passphrase")
+                .build()
+                .get("test-identity")
+                .as(StepVerifier::create)
+                .expectNext(token)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void putConcurrentFirstUse() throws IOException {
+        StoredToken token = StoredToken.builder().accessToken("bearer test-access-token").build();
+
+        Flux.range(0, 16)
+                .flatMap(
+                        i ->
+                                FileTokenStore.builder()
+                                        .directory(this.directory.resolve("tokens"))
+                                        .passphrase("test-passphrase")
+                                        .build()
+                                        .put("test-identity-" + i, token))
+                .then()
+                .block(Duration.ofSeconds(30));
+
+        assertThat(Files.readAllBytes(this.directory.resolve("tokens").resolve("salt")))
+                .hasSize(16);
+        try (Stream<Path> paths = Files.list(this.directory.resolve("tokens"))) {
+            assertThat(paths).noneMatch(path -> path.getFileName().toString().endsWith(".tmp"));
+        }
+
+        Flux.range(0, 16)
+                .flatMap(i -> this.tokenStore.get("test-identity-" + i))
+                .as(StepVerifier::create)
+                .expectNextCount(16)
+                .expectComplete()
+                .verify(Duration.ofSeconds(30));
+    }
+
+    @Test
+    public void putInvalidSalt() throws IOException {
+        Files.createDirectories(this.directory.resolve("tokens"));
+        Files.write(this.directory.resolve("tokens").resolve("salt"), new byte[] {1, 2, 3});
+
+        this.tokenStore
+                .put(
+                        "test-identity",
+                        StoredToken.builder().accessToken("bearer test-access-token").build())
+                .as(StepVerifier::create)
+                .consumeErrorWith(
+                        t ->
+                                assertThat(t)
+                                        .isInstanceOf(IllegalStateException.class)
+                                        .hasMessageContaining("is 3 bytes long, expected 16"))
+                .verify(Duration.ofSeconds(5));
+    }
+}
@@ -18,10 +18,13 @@ package org.cloudfoundry.reactor.util;
 
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERROR;
+import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.RETURNS_SMART_NULLS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -113,6 +116,28 @@ public final class ErrorPayloadMappersTest {
                 .verify(Duration.ofSeconds(1));
     }
 
+    @Test
+    public void clientV2ClientErrorKeepsConnection() throws IOException {
+        when(this.connection.inbound()).thenReturn(this.inbound);
+        when(this.inbound.receive())
+                .thenReturn(
+                        ByteBufFlux.fromPath(
+                                new ClassPathResource("fixtures/client/v2/error_response.json")
+                                        .getFile()
+                                        .toPath()));
+        when(this.response.status()).thenReturn(NOT_FOUND);
+        HttpClientResponseWithConnection responseWithConnection =
+                buildResponseWithConnection(this.connection);
+
+        Flux.just(responseWithConnection)
+                .transform(ErrorPayloadMappers.clientV2(this.objectMapper))
+                .as(StepVerifier::create)
+                .expectError(ClientV2Exception.class)
+                .verify(Duration.ofSeconds(1));
+
+        verify(this.connection, never()).dispose();
+    }
+
     @Test
     public void clientV2NoError() {
         when(this.response.status()).thenReturn(OK);
@@ -279,6 +304,52 @@ public final class ErrorPayloadMappersTest {
                 .verify(Duration.ofSeconds(1));
     }
 
+    @Test
+    public void fallbackCancelledClosesConnection() {
+        when(this.connection.inbound()).thenReturn(this.inbound);
+        when(this.inbound.receive()).thenReturn(ByteBufFlux.fromInbound(Flux.never()));
+        when(this.response.status()).thenReturn(INTERNAL_SERVER_ERROR);
+        HttpClientResponseWithConnection responseWithConnection =
+                buildResponseWithConnection(this.connection);
+
+        Flux.just(responseWithConnection)
+                .transform(ErrorPayloadMappers.fallback())
+                .as(StepVerifier::create)
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+
+        verify(this.connection).dispose();
+    }
+
+    @Test
+    public void fallbackError() throws IOException {
+        when(this.connection.inbound()).thenReturn(this.inbound);
+        when(this.inbound.receive())
+                .thenReturn(
+                        ByteBufFlux.fromPath(
+                                new ClassPathResource("fixtures/invalid_error_response.json")
+                                        .getFile()
+                                        .toPath()));
+        when(this.response.status()).thenReturn(INTERNAL_SERVER_ERROR);
+        HttpClientResponseWithConnection responseWithConnection =
+                buildResponseWithConnection(this.connection);
+
+        Flux.just(responseWithConnection)
+                .transform(ErrorPayloadMappers.fallback())
+                .as(StepVerifier::create)
+                .consumeErrorWith(
+                        t ->
+                                assertThat(t)
+                                        .isInstanceOf(UnknownCloudFoundryException.class)
+                                        .extracting("statusCode", "payload")
+                                        .containsExactly(
+                                                INTERNAL_SERVER_ERROR.code(),
+                                                "Invalid Error Response"))
+                .verify(Duration.ofSeconds(1));
+
+        verify(this.connection, never()).dispose();
+    }
+
     @Test
     public void uaaBadPayload() throws IOException {
         when(this.connection.inbound()).thenReturn(this.inbound);
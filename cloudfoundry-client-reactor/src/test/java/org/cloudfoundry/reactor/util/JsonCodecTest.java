@@ -0,0 +1,235 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.cloudfoundry.client.v3.packages.ListPackagesResponse;
+import org.cloudfoundry.client.v3.packages.PackageResource;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.ClassPathResource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.NettyOutbound;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.test.StepVerifier;
+
+public final class JsonCodecTest {
+
+    private final ObjectMapper objectMapper =
+            new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Test
+    public void decode() throws IOException {
+        JsonCodec.decode(this.objectMapper, chunked(fixture(), 7), ListPackagesResponse.class)
+                .as(StepVerifier::create)
+                .consumeNextWith(
+                        response -> {
+                            assertThat(response.getPagination().getTotalResults()).isEqualTo(2);
+                            assertThat(response.getResources())
+                                    .extracting(PackageResource::getId)
+                                    .containsExactly(
+                                            "a57fd932-85db-483a-a27e-b00efbb3b0a4",
+                                            "8f1f294d-cef8-4c11-9f0b-3bcdc0bd2691");
+                        })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeElements() {
+        JsonCodec.decodeElements(
+                        this.objectMapper,
+                        chunked(
+                                ("{\"result\":[0],\"data\":{\"other\":{\"result\":[1]},"
+                                     + "\"result\":[{\"value\":2},{\"value\":[3]}],"
+                                     + "\"resultType\":\"matrix\"},\"status\":\"success\"}")
+                                        .getBytes(StandardCharsets.UTF_8),
+                                3),
+                        JsonNode.class,
+                        "data",
+                        "result")
+                .map(node -> node.get("value").toString())
+                .as(StepVerifier::create)
+                .expectNext("2", "[3]")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeElementsResources() throws IOException {
+        JsonCodec.decodeElements(
+                        this.objectMapper,
+                        chunked(fixture(), 13),
+                        PackageResource.class,
+                        "resources")
+                .map(PackageResource::getId)
+                .as(StepVerifier::create)
+                .expectNext(
+                        "a57fd932-85db-483a-a27e-b00efbb3b0a4",
+                        "8f1f294d-cef8-4c11-9f0b-3bcdc0bd2691")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeElementsResourcesEmpty() {
+        JsonCodec.decodeElements(
+                        this.objectMapper,
+                        chunked(
+                                "{\"pagination\":{\"resources\":[1]},\"resources\":[]}"
+                                        .getBytes(StandardCharsets.UTF_8),
+                                5),
+                        PackageResource.class,
+                        "resources")
+                .as(StepVerifier::create)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeEmpty() {
+        JsonCodec.decode(
+                        this.objectMapper,
+                        ByteBufFlux.fromInbound(Flux.empty()),
+                        ListPackagesResponse.class)
+                .as(StepVerifier::create)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeInvalid() {
+        JsonCodec.decode(
+                        this.objectMapper,
+                        chunked("{\"pagination\": ]".getBytes(StandardCharsets.UTF_8), 4),
+                        ListPackagesResponse.class)
+                .as(StepVerifier::create)
+                .consumeErrorWith(
+                        t ->
+                                assertThat(t)
+                                        .isInstanceOf(JsonParsingException.class)
+                                        .extracting("payload")
+                                        .isEqualTo("\": ]"))
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void encode() {
+        HttpClientRequest request = mock(HttpClientRequest.class);
+        NettyOutbound outbound = outbound(UnpooledByteBufAllocator.DEFAULT);
+        AtomicReference<ByteBuf> body = new AtomicReference<>();
+
+        when(outbound.send(any()))
+                .thenAnswer(
+                        invocation -> {
+                            Publisher<ByteBuf> publisher = invocation.getArgument(0);
+                            body.set(Mono.from(publisher).block());
+                            return outbound;
+                        });
+
+        JsonCodec.encode(this.objectMapper, new TestPayload("test-name")).apply(request, outbound);
+
+        try {
+            assertThat(body.get().toString(StandardCharsets.UTF_8))
+                    .isEqualTo("{\"name\":\"test-name\"}");
+            verify(request)
+                    .header(
+                            HttpHeaderNames.CONTENT_LENGTH,
+                            String.valueOf(body.get().readableBytes()));
+        } finally {
+            body.get().release();
+        }
+    }
+
+    @Test
+    public void encodeFailureReleasesBuffer() {
+        ByteBuf buffer = Unpooled.buffer(0, 4);
+        ByteBufAllocator allocator = mock(ByteBufAllocator.class);
+        when(allocator.buffer()).thenReturn(buffer);
+
+        assertThatThrownBy(
+                        () ->
+                                JsonCodec.encode(this.objectMapper, new TestPayload("test-name"))
+                                        .apply(mock(HttpClientRequest.class), outbound(allocator)))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+
+        assertThat(buffer.refCnt()).isZero();
+    }
+
+    private static ByteBufFlux chunked(byte[] payload, int chunkSize) {
+        List<ByteBuf> chunks = new ArrayList<>();
+
+        for (int index = 0; index < payload.length; index += chunkSize) {
+            chunks.add(
+                    Unpooled.wrappedBuffer(
+                            payload, index, Math.min(chunkSize, payload.length - index)));
+        }
+
+        return ByteBufFlux.fromInbound(Flux.fromIterable(chunks));
+    }
+
+    private static byte[] fixture() throws IOException {
+        return Files.readAllBytes(
+                new ClassPathResource("fixtures/client/v3/packages/GET_response.json")
+                        .getFile()
+                        .toPath());
+    }
+
+    private static NettyOutbound outbound(ByteBufAllocator allocator) {
+        NettyOutbound outbound = mock(NettyOutbound.class);
+        when(outbound.alloc()).thenReturn(allocator);
+        return outbound;
+    }
+
+    @JsonSerialize
+    private static final class TestPayload {
+
+        private final String name;
+
+        private TestPayload(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+    }
+}
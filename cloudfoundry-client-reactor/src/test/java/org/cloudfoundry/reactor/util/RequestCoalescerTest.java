@@ -0,0 +1,106 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import static io.netty.handler.codec.http.HttpMethod.GET;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import org.cloudfoundry.reactor.AbstractRestTest;
+import org.cloudfoundry.reactor.DefaultConnectionContext;
+import org.cloudfoundry.reactor.InteractionContext;
+import org.cloudfoundry.reactor.TestRequest;
+import org.cloudfoundry.reactor.TestResponse;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public final class RequestCoalescerTest extends AbstractRestTest {
+
+    private final DefaultConnectionContext connectionContext =
+            DefaultConnectionContext.builder()
+                    .apiHost(this.mockWebServer.getHostName())
+                    .port(this.mockWebServer.getPort())
+                    .secure(false)
+                    .requestCoalescer(new RequestCoalescer())
+                    .build();
+
+    @Test
+    public void coalesce() {
+        mockInfo();
+
+        Mono.zip(getInfo(), getInfo())
+                .as(StepVerifier::create)
+                .expectNextMatches(infos -> infos.getT1() == infos.getT2())
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(this.mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void sequential() {
+        mockInfo();
+        mockInfo();
+
+        getInfo()
+                .then(getInfo())
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(this.mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    private Mono<Operator> createOperator() {
+        return new AbstractReactorOperations(
+                this.connectionContext, this.root, TOKEN_PROVIDER, Collections.emptyMap()) {
+
+            private Mono<Operator> getOperator() {
+                return createOperator();
+            }
+        }.getOperator();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Map<String, Object>> getInfo() {
+        return createOperator()
+                .flatMap(
+                        operator ->
+                                operator.get()
+                                        .uri(uri -> uri.path("/v2/info"))
+                                        .response()
+                                        .parseBody(Map.class))
+                .map(info -> (Map<String, Object>) info);
+    }
+
+    private void mockInfo() {
+        mockRequest(
+                InteractionContext.builder()
+                        .request(TestRequest.builder().method(GET).path("/v2/info").build())
+                        .response(
+                                TestResponse.builder()
+                                        .status(OK)
+                                        .payload("fixtures/client/v2/info/GET_response.json")
+                                        .build())
+                        .build());
+    }
+}
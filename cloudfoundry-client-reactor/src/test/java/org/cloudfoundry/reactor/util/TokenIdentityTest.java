@@ -0,0 +1,48 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public final class TokenIdentityTest {
+
+    private static final String FIRST_TOKEN =
+            "bearer eyJhbGciOiJub25lIn0.eyJpc3MiOiJ0ZXN0LWlzc3VlciIsInN1YiI6InRlc3Qtc3ViamVjdCIsImp0aSI6InRlc3QtZmlyc3QtdG9rZW4ifQ.";
+
+    private static final String SECOND_TOKEN =
+            "bearer eyJhbGciOiJub25lIn0.eyJpc3MiOiJ0ZXN0LWlzc3VlciIsInN1YiI6InRlc3Qtc3ViamVjdCIsImp0aSI6InRlc3Qtc2Vjb25kLXRva2VuIn0.";
+
+    @Test
+    public void identify() {
+        assertThat(TokenIdentity.identify(FIRST_TOKEN)).isEqualTo("test-issuer test-subject");
+        assertThat(TokenIdentity.identify(SECOND_TOKEN)).isEqualTo("test-issuer test-subject");
+    }
+
+    @Test
+    public void identifyNotJwt() {
+        assertThat(TokenIdentity.identify("bearer test-token")).isEqualTo("bearer test-token");
+    }
+
+    @Test
+    public void identifySameToken() {
+        String identity = TokenIdentity.identify(FIRST_TOKEN);
+
+        assertThat(TokenIdentity.identify(FIRST_TOKEN)).isSameAs(identity);
+    }
+}
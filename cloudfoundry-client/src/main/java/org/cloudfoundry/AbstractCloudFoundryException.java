@@ -41,4 +41,23 @@ public abstract class AbstractCloudFoundryException extends RuntimeException {
     public int getStatusCode() {
         return this.statusCode;
     }
+
+    /**
+     * Returns whether an operation that failed with an error is worth retrying.  Invalid requests and client errors other than timeouts and rate limiting fail the same way on every attempt.
+     *
+     * @param t the error
+     * @return {@code true} if the operation should be retried
+     */
+    public static boolean isRetryable(Throwable t) {
+        if (t instanceof IllegalArgumentException) {
+            return false;
+        }
+
+        if (t instanceof AbstractCloudFoundryException) {
+            int statusCode = ((AbstractCloudFoundryException) t).getStatusCode();
+            return statusCode < 400 || statusCode >= 500 || statusCode == 408 || statusCode == 429;
+        }
+
+        return true;
+    }
 }
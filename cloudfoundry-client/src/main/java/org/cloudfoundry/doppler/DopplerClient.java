@@ -17,6 +17,7 @@
 package org.cloudfoundry.doppler;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.ParallelFlux;
 
 /**
  * Main entry point to the Doppler Client API
@@ -47,6 +48,23 @@ public interface DopplerClient {
      */
     Flux<Envelope> recentLogs(RecentLogsRequest request);
 
+    /**
+     * Makes several <a href="https://github.com/cloudfoundry/loggregator/tree/develop/src/trafficcontroller#endpoints">Firehose</a> requests that share a subscription id, reconnecting each
+     * with backoff when it disconnects, and publishes their merged events on parallel rails.  Invalid requests and client errors are not retried, and are passed to the subscriber.
+     *
+     * @param request the Sharded Firehose request
+     * @return the events from the firehose
+     */
+    default ParallelFlux<Envelope> shardedFirehose(ShardedFirehoseRequest request) {
+        return ShardedFirehose.create(
+                request,
+                () ->
+                        firehose(
+                                FirehoseRequest.builder()
+                                        .subscriptionId(request.getSubscriptionId())
+                                        .build()));
+    }
+
     /**
      * Makes the <a href="https://github.com/cloudfoundry/loggregator/tree/develop/src/trafficcontroller#endpoints">Stream</a> request
      *
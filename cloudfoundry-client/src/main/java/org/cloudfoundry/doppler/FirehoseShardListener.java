@@ -0,0 +1,57 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.doppler;
+
+import java.time.Duration;
+import org.cloudfoundry.Nullable;
+
+/**
+ * A listener notified of the state of each shard of a {@link ShardedFirehoseRequest}. Shards are numbered from {@code 0}.
+ */
+public interface FirehoseShardListener {
+
+    /**
+     * Called when a shard connects, or reconnects
+     *
+     * @param shard the shard
+     */
+    default void connected(int shard) {}
+
+    /**
+     * Called when a shard disconnects
+     *
+     * @param shard the shard
+     * @param error the error that caused the disconnection, or {@code null} if the connection was closed
+     */
+    default void disconnected(int shard, @Nullable Throwable error) {}
+
+    /**
+     * Called when a shard drops an event because it was received faster than it was consumed
+     *
+     * @param shard    the shard
+     * @param envelope the event that was dropped
+     */
+    default void dropped(int shard, Envelope envelope) {}
+
+    /**
+     * Called when a shard receives an event with a timestamp
+     *
+     * @param shard the shard
+     * @param lag   the time between the event being wrapped and being received
+     */
+    default void received(int shard, Duration lag) {}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.doppler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.cloudfoundry.AbstractCloudFoundryException;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.ParallelFlux;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+final class ShardedFirehose {
+
+    private static final FirehoseShardListener NO_OP_LISTENER = new FirehoseShardListener() {};
+
+    private ShardedFirehose() {}
+
+    static ParallelFlux<Envelope> create(
+            ShardedFirehoseRequest request, Supplier<Flux<Envelope>> connector) {
+        FirehoseShardListener listener =
+                Optional.ofNullable(request.getListener()).orElse(NO_OP_LISTENER);
+
+        List<Flux<Envelope>> shards =
+                IntStream.range(0, request.getShards())
+                        .mapToObj(shard -> shard(connector, listener, request, shard))
+                        .collect(Collectors.toList());
+
+        return Flux.merge(shards).parallel(request.getParallelism()).runOn(Schedulers.parallel());
+    }
+
+    private static void received(FirehoseShardListener listener, int shard, Envelope envelope) {
+        Optional.ofNullable(envelope.getTimestamp())
+                .map(
+                        timestamp ->
+                                Duration.ofNanos(
+                                        TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis())
+                                                - timestamp))
+                .ifPresent(lag -> listener.received(shard, lag));
+    }
+
+    private static Flux<Envelope> shard(
+            Supplier<Flux<Envelope>> connector,
+            FirehoseShardListener listener,
+            ShardedFirehoseRequest request,
+            int shard) {
+        return Flux.defer(connector)
+                .doOnSubscribe(subscription -> listener.connected(shard))
+                .doOnNext(envelope -> received(listener, shard, envelope))
+                .doOnComplete(() -> listener.disconnected(shard, null))
+                .doOnError(t -> listener.disconnected(shard, t))
+                .repeatWhen(completions -> completions.delayElements(request.getMinBackoff()))
+                .retryWhen(
+                        Retry.backoff(Long.MAX_VALUE, request.getMinBackoff())
+                                .maxBackoff(request.getMaxBackoff())
+                                .filter(AbstractCloudFoundryException::isRetryable)
+                                .transientErrors(true))
+                .onBackpressureBuffer(
+                        request.getBufferSize(),
+                        envelope -> listener.dropped(shard, envelope),
+                        BufferOverflowStrategy.DROP_OLDEST);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.doppler;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.cloudfoundry.Nullable;
+import org.immutables.value.Value;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * The request payload for consuming the Firehose over several connections that share a subscription id
+ */
+@Value.Immutable
+abstract class _ShardedFirehoseRequest {
+
+    @Value.Check
+    void check() {
+        if (getBufferSize() < 1) {
+            throw new IllegalStateException("Cannot build ShardedFirehoseRequest, bufferSize must be at least 1");
+        }
+
+        if (getParallelism() < 1) {
+            throw new IllegalStateException("Cannot build ShardedFirehoseRequest, parallelism must be at least 1");
+        }
+
+        if (getShards() < 1) {
+            throw new IllegalStateException("Cannot build ShardedFirehoseRequest, shards must be at least 1");
+        }
+    }
+
+    /**
+     * The number of events buffered for each shard before the oldest are dropped
+     */
+    @JsonIgnore
+    @Value.Default
+    int getBufferSize() {
+        return 8192;
+    }
+
+    /**
+     * The listener notified of the state of each shard
+     */
+    @JsonIgnore
+    @Nullable
+    abstract FirehoseShardListener getListener();
+
+    /**
+     * The maximum delay before reconnecting a shard
+     */
+    @JsonIgnore
+    @Value.Default
+    Duration getMaxBackoff() {
+        return Duration.ofMinutes(1);
+    }
+
+    /**
+     * The minimum delay before reconnecting a shard
+     */
+    @JsonIgnore
+    @Value.Default
+    Duration getMinBackoff() {
+        return Duration.ofSeconds(1);
+    }
+
+    /**
+     * The number of rails that events are published on
+     */
+    @JsonIgnore
+    @Value.Default
+    int getParallelism() {
+        return Schedulers.DEFAULT_POOL_SIZE;
+    }
+
+    /**
+     * The number of connections to open
+     */
+    @JsonIgnore
+    @Value.Default
+    int getShards() {
+        return 2;
+    }
+
+    /**
+     * The subscription id
+     */
+    @JsonIgnore
+    abstract String getSubscriptionId();
+
+}
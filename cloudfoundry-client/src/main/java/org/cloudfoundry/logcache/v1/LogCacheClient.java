@@ -16,6 +16,7 @@
 
 package org.cloudfoundry.logcache.v1;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -39,6 +40,22 @@ public interface LogCacheClient {
      */
     Mono<MetaResponse> meta(MetaRequest meta);
 
+    /**
+     * Makes the Log Cache /api/v1/query request
+     *
+     * @param request the Query request
+     * @return the result of the PromQL query at a single time
+     */
+    Mono<QueryResponse> query(QueryRequest request);
+
+    /**
+     * Makes the Log Cache /api/v1/query_range request.  The series of the resulting matrix are emitted as each one is received, rather than once the whole response has arrived.
+     *
+     * @param request the Query Range request
+     * @return the series of the PromQL query over a range of time
+     */
+    Flux<Series> queryRange(QueryRangeRequest request);
+
     /**
      * Makes the Log Cache /api/v1/read request
      *
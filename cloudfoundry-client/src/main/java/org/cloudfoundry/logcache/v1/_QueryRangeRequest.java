@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.logcache.v1;
+
+import org.cloudfoundry.QueryParameter;
+import org.immutables.value.Value;
+
+/**
+ * The request payload for the Query Range operation
+ */
+@Value.Immutable
+abstract class _QueryRangeRequest {
+
+    /**
+     * The end of the range, as an RFC 3339 timestamp or a UNIX timestamp in seconds
+     */
+    @QueryParameter("end")
+    abstract String getEnd();
+
+    /**
+     * The PromQL query
+     */
+    @QueryParameter("query")
+    abstract String getQuery();
+
+    /**
+     * The start of the range, as an RFC 3339 timestamp or a UNIX timestamp in seconds
+     */
+    @QueryParameter("start")
+    abstract String getStart();
+
+    /**
+     * The resolution of the range, as a duration such as {@code 15s} or a number of seconds
+     */
+    @QueryParameter("step")
+    abstract String getStep();
+
+}
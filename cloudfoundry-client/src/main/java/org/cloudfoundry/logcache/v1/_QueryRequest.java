@@ -0,0 +1,42 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.logcache.v1;
+
+import org.cloudfoundry.Nullable;
+import org.cloudfoundry.QueryParameter;
+import org.immutables.value.Value;
+
+/**
+ * The request payload for the Query operation
+ */
+@Value.Immutable
+abstract class _QueryRequest {
+
+    /**
+     * The PromQL query
+     */
+    @QueryParameter("query")
+    abstract String getQuery();
+
+    /**
+     * The time to evaluate the query at, as an RFC 3339 timestamp or a UNIX timestamp in seconds
+     */
+    @Nullable
+    @QueryParameter("time")
+    abstract String getTime();
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.logcache.v1;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.cloudfoundry.Nullable;
+import org.immutables.value.Value;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The result of a PromQL query
+ */
+@JsonDeserialize(using = _QueryResult.QueryResultDeserializer.class)
+@Value.Immutable
+abstract class _QueryResult {
+
+    /**
+     * The series of a {@code vector} or {@code matrix} result
+     */
+    abstract List<Series> getResult();
+
+    /**
+     * The type of the result: {@code matrix}, {@code vector}, {@code scalar} or {@code string}
+     */
+    abstract String getResultType();
+
+    /**
+     * The sample of a {@code scalar} or {@code string} result
+     */
+    @Nullable
+    abstract Sample getScalar();
+
+    static final class QueryResultDeserializer extends StdDeserializer<QueryResult> {
+
+        private static final long serialVersionUID = -2587457382619440366L;
+
+        QueryResultDeserializer() {
+            super(QueryResult.class);
+        }
+
+        @Override
+        public QueryResult deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            ObjectCodec codec = p.getCodec();
+            JsonNode tree = p.readValueAsTree();
+
+            String resultType = tree.path("resultType").asText();
+            QueryResult.Builder builder = QueryResult.builder()
+                .resultType(resultType);
+
+            JsonNode result = tree.path("result");
+            if ("scalar".equals(resultType) || "string".equals(resultType)) {
+                builder.scalar(codec.treeToValue(result, Sample.class));
+            } else {
+                for (JsonNode series : result) {
+                    builder.result(codec.treeToValue(series, Series.class));
+                }
+            }
+
+            return builder.build();
+        }
+
+    }
+
+}
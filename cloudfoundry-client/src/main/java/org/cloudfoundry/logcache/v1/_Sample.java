@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.logcache.v1;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.immutables.value.Value;
+
+import java.io.IOException;
+
+/**
+ * A sample of a PromQL series, encoded as a {@code [timestamp, "value"]} pair
+ */
+@JsonDeserialize(using = _Sample.SampleDeserializer.class)
+@Value.Immutable
+abstract class _Sample {
+
+    /**
+     * The UNIX timestamp (in seconds) of the sample
+     */
+    abstract Double getTimestamp();
+
+    /**
+     * The value of the sample, which may be {@code NaN}, {@code +Inf} or {@code -Inf}
+     */
+    abstract String getValue();
+
+    static final class SampleDeserializer extends StdDeserializer<Sample> {
+
+        private static final long serialVersionUID = 4529934873478950184L;
+
+        SampleDeserializer() {
+            super(Sample.class);
+        }
+
+        @Override
+        public Sample deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartArrayToken()) {
+                return (Sample) ctxt.handleUnexpectedToken(Sample.class, p);
+            }
+
+            p.nextToken();
+            double timestamp = p.getValueAsDouble();
+
+            p.nextToken();
+            String value = p.getValueAsString();
+
+            if (p.nextToken() != JsonToken.END_ARRAY) {
+                return (Sample) ctxt.handleUnexpectedToken(Sample.class, p);
+            }
+
+            return Sample.builder()
+                .timestamp(timestamp)
+                .value(value)
+                .build();
+        }
+
+    }
+
+}
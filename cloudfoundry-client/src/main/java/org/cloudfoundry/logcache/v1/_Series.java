@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.logcache.v1;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.cloudfoundry.Nullable;
+import org.immutables.value.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A series of a PromQL result
+ */
+@JsonDeserialize
+@Value.Immutable
+abstract class _Series {
+
+    /**
+     * The labels that identify the series
+     */
+    @JsonProperty("metric")
+    abstract Map<String, String> getMetric();
+
+    /**
+     * The sample of a {@code vector} result
+     */
+    @JsonProperty("value")
+    @Nullable
+    abstract Sample getSample();
+
+    /**
+     * The samples of a {@code matrix} result
+     */
+    @JsonProperty("values")
+    abstract List<Sample> getValues();
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.doppler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cloudfoundry.Nullable;
+import org.cloudfoundry.UnknownCloudFoundryException;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+public final class ShardedFirehoseTest {
+
+    private final RecordingListener listener = new RecordingListener();
+
+    @Test
+    public void dropped() {
+        ShardedFirehose.create(
+                        ShardedFirehoseRequest.builder()
+                                .bufferSize(1)
+                                .listener(this.listener)
+                                .parallelism(1)
+                                .shards(1)
+                                .subscriptionId("test-subscription-id")
+                                .build(),
+                        () ->
+                                Flux.range(0, 10_000)
+                                        .map(i -> envelope("test-origin-" + i))
+                                        .concatWith(Flux.never()))
+                .sequential()
+                .as(publisher -> StepVerifier.create(publisher, 1))
+                .expectNextCount(1)
+                .then(() -> assertThat(this.listener.dropped).isNotEmpty())
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void merge() {
+        AtomicInteger connections = new AtomicInteger();
+
+        ShardedFirehose.create(
+                        ShardedFirehoseRequest.builder()
+                                .listener(this.listener)
+                                .parallelism(2)
+                                .shards(3)
+                                .subscriptionId("test-subscription-id")
+                                .build(),
+                        () ->
+                                Flux.just(envelope("test-origin-" + connections.getAndIncrement()))
+                                        .concatWith(Flux.never()))
+                .sequential()
+                .take(3)
+                .map(Envelope::getOrigin)
+                .sort()
+                .as(StepVerifier::create)
+                .expectNext("test-origin-0", "test-origin-1", "test-origin-2")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(this.listener.connected).containsExactlyInAnyOrder(0, 1, 2);
+        assertThat(this.listener.lags).hasSize(3).allMatch(lag -> !lag.isNegative());
+    }
+
+    @Test
+    public void reconnect() {
+        AtomicInteger connections = new AtomicInteger();
+
+        ShardedFirehose.create(
+                        ShardedFirehoseRequest.builder()
+                                .listener(this.listener)
+                                .maxBackoff(Duration.ofMillis(10))
+                                .minBackoff(Duration.ofMillis(1))
+                                .parallelism(1)
+                                .shards(1)
+                                .subscriptionId("test-subscription-id")
+                                .build(),
+                        () -> {
+                            int connection = connections.getAndIncrement();
+
+                            if (connection == 0) {
+                                return Flux.error(new IllegalStateException("test-error"));
+                            }
+
+                            return Flux.just(envelope("test-origin-" + connection));
+                        })
+                .sequential()
+                .take(2)
+                .map(Envelope::getOrigin)
+                .as(StepVerifier::create)
+                .expectNext("test-origin-1", "test-origin-2")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(this.listener.connected).startsWith(0, 0, 0);
+        assertThat(this.listener.disconnected).startsWith("0 IllegalStateException", "0 closed");
+    }
+
+    @Test
+    public void unauthorized() {
+        AtomicInteger connections = new AtomicInteger();
+
+        ShardedFirehose.create(
+                        ShardedFirehoseRequest.builder()
+                                .listener(this.listener)
+                                .minBackoff(Duration.ofMillis(1))
+                                .parallelism(1)
+                                .shards(1)
+                                .subscriptionId("test-subscription-id")
+                                .build(),
+                        () -> {
+                            connections.incrementAndGet();
+                            return Flux.error(new UnknownCloudFoundryException(401));
+                        })
+                .sequential()
+                .as(StepVerifier::create)
+                .expectError(UnknownCloudFoundryException.class)
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(connections).hasValue(1);
+    }
+
+    private static Envelope envelope(String origin) {
+        return Envelope.builder()
+                .eventType(EventType.LOG_MESSAGE)
+                .origin(origin)
+                .timestamp(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()))
+                .build();
+    }
+
+    private static final class RecordingListener implements FirehoseShardListener {
+
+        private final List<Integer> connected = new CopyOnWriteArrayList<>();
+
+        private final List<String> disconnected = new CopyOnWriteArrayList<>();
+
+        private final List<Envelope> dropped = new CopyOnWriteArrayList<>();
+
+        private final List<Duration> lags = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void connected(int shard) {
+            this.connected.add(shard);
+        }
+
+        @Override
+        public void disconnected(int shard, @Nullable Throwable error) {
+            this.disconnected.add(
+                    String.format(
+                            "%d %s",
+                            shard, error == null ? "closed" : error.getClass().getSimpleName()));
+        }
+
+        @Override
+        public void dropped(int shard, Envelope envelope) {
+            this.dropped.add(envelope);
+        }
+
+        @Override
+        public void received(int shard, Duration lag) {
+            this.lags.add(lag);
+        }
+    }
+}
@@ -52,6 +52,7 @@ import org.cloudfoundry.operations.stacks.DefaultStacks;
 import org.cloudfoundry.operations.stacks.Stacks;
 import org.cloudfoundry.operations.useradmin.DefaultUserAdmin;
 import org.cloudfoundry.operations.useradmin.UserAdmin;
+import org.cloudfoundry.operations.util.NameResolutionCache;
 import org.cloudfoundry.routing.RoutingClient;
 import org.cloudfoundry.uaa.UaaClient;
 import org.cloudfoundry.util.ExceptionUtils;
@@ -71,6 +72,8 @@ import java.util.Optional;
 @Value.Immutable
 abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations {
 
+    private static final Duration DEFAULT_NAME_CACHE_DURATION = Duration.ofMinutes(1);
+
     @Override
     @Value.Derived
     public Advanced advanced() {
@@ -80,7 +83,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Applications applications() {
-        return new DefaultApplications(getCloudFoundryClientPublisher(), getDopplerClientPublisher(), getSpaceId());
+        return new DefaultApplications(getCloudFoundryClientPublisher(), getDopplerClientPublisher(), getSpaceId(), getNameResolutionCache());
     }
 
     @Override
@@ -92,7 +95,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Domains domains() {
-        return new DefaultDomains(getCloudFoundryClientPublisher(), getRoutingClientPublisher());
+        return new DefaultDomains(getCloudFoundryClientPublisher(), getRoutingClientPublisher(), getNameResolutionCache());
     }
 
     @Override
@@ -110,13 +113,13 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Organizations organizations() {
-        return new DefaultOrganizations(getCloudFoundryClientPublisher(), getUsername());
+        return new DefaultOrganizations(getCloudFoundryClientPublisher(), getUsername(), getNameResolutionCache());
     }
 
     @Override
     @Value.Derived
     public Routes routes() {
-        return new DefaultRoutes(getCloudFoundryClientPublisher(), getOrganizationId(), getSpaceId());
+        return new DefaultRoutes(getCloudFoundryClientPublisher(), getOrganizationId(), getSpaceId(), getNameResolutionCache());
     }
 
     @Override
@@ -128,7 +131,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Services services() {
-        return new DefaultServices(getCloudFoundryClientPublisher(), getOrganizationId(), getSpaceId());
+        return new DefaultServices(getCloudFoundryClientPublisher(), getOrganizationId(), getSpaceId(), getNameResolutionCache());
     }
 
     @Override
@@ -140,7 +143,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Spaces spaces() {
-        return new DefaultSpaces(getCloudFoundryClientPublisher(), getOrganizationId(), getUsername());
+        return new DefaultSpaces(getCloudFoundryClientPublisher(), getOrganizationId(), getUsername(), getNameResolutionCache());
     }
 
     @Override
@@ -186,6 +189,23 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
             .orElse(Mono.error(new IllegalStateException("DopplerClient must be set")));
     }
 
+    /**
+     * The duration that the ids that names resolve to should be cached.  Defaults to 1 minute.
+     */
+    abstract Optional<Duration> getNameCacheDuration();
+
+    /**
+     * The maximum number of ids that names resolve to that should be cached.  Defaults to no caching.
+     */
+    abstract Optional<Integer> getNameCacheSize();
+
+    @Value.Derived
+    NameResolutionCache getNameResolutionCache() {
+        return getNameCacheSize()
+            .map(size -> new NameResolutionCache(size, getNameCacheDuration().orElse(DEFAULT_NAME_CACHE_DURATION)))
+            .orElseGet(NameResolutionCache::disabled);
+    }
+
     /**
      * The {@link NetworkingClient} to use for operations functionality
      */
@@ -36,10 +36,12 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import org.cloudfoundry.AbstractCloudFoundryException;
 import org.cloudfoundry.client.CloudFoundryClient;
 import org.cloudfoundry.client.v2.OrderDirection;
 import org.cloudfoundry.client.v2.applications.AbstractApplicationResource;
@@ -150,6 +152,8 @@ import org.cloudfoundry.doppler.EventType;
 import org.cloudfoundry.doppler.LogMessage;
 import org.cloudfoundry.doppler.RecentLogsRequest;
 import org.cloudfoundry.doppler.StreamRequest;
+import org.cloudfoundry.operations.util.NameResolutionCache;
+import org.cloudfoundry.operations.util.NameResolutionCache.Kind;
 import org.cloudfoundry.operations.util.OperationsLogging;
 import org.cloudfoundry.util.DateUtils;
 import org.cloudfoundry.util.DelayTimeoutException;
@@ -168,6 +172,7 @@ import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuple5;
 import reactor.util.function.Tuples;
+import reactor.util.retry.Retry;
 
 public final class DefaultApplications implements Applications {
 
@@ -196,6 +201,10 @@ public final class DefaultApplications implements Applications {
 
     private static final Duration LOG_MESSAGE_TIMESPAN = Duration.ofMillis(500);
 
+    private static final Duration LOGS_MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private static final Duration LOGS_MIN_BACKOFF = Duration.ofSeconds(1);
+
     private static final int MAX_NUMBER_OF_RECENT_EVENTS = 50;
 
     private static final String STARTED_STATE = "STARTED";
@@ -206,6 +215,8 @@ public final class DefaultApplications implements Applications {
 
     private final Mono<DopplerClient> dopplerClient;
 
+    private final NameResolutionCache nameResolutionCache;
+
     private final RandomWords randomWords;
 
     private final Mono<String> spaceId;
@@ -214,7 +225,20 @@ public final class DefaultApplications implements Applications {
             Mono<CloudFoundryClient> cloudFoundryClient,
             Mono<DopplerClient> dopplerClient,
             Mono<String> spaceId) {
-        this(cloudFoundryClient, dopplerClient, new WordListRandomWords(), spaceId);
+        this(cloudFoundryClient, dopplerClient, spaceId, NameResolutionCache.disabled());
+    }
+
+    public DefaultApplications(
+            Mono<CloudFoundryClient> cloudFoundryClient,
+            Mono<DopplerClient> dopplerClient,
+            Mono<String> spaceId,
+            NameResolutionCache nameResolutionCache) {
+        this(
+                cloudFoundryClient,
+                dopplerClient,
+                nameResolutionCache,
+                new WordListRandomWords(),
+                spaceId);
     }
 
     DefaultApplications(
@@ -222,8 +246,23 @@ public final class DefaultApplications implements Applications {
             Mono<DopplerClient> dopplerClient,
             RandomWords randomWords,
             Mono<String> spaceId) {
+        this(
+                cloudFoundryClient,
+                dopplerClient,
+                NameResolutionCache.disabled(),
+                randomWords,
+                spaceId);
+    }
+
+    DefaultApplications(
+            Mono<CloudFoundryClient> cloudFoundryClient,
+            Mono<DopplerClient> dopplerClient,
+            NameResolutionCache nameResolutionCache,
+            RandomWords randomWords,
+            Mono<String> spaceId) {
         this.cloudFoundryClient = cloudFoundryClient;
         this.dopplerClient = dopplerClient;
+        this.nameResolutionCache = nameResolutionCache;
         this.randomWords = randomWords;
         this.spaceId = spaceId;
     }
@@ -239,10 +278,12 @@ public final class DefaultApplications implements Applications {
                                                 getApplicationId(
                                                         cloudFoundryClient,
                                                         request.getName(),
+                                                        this.nameResolutionCache,
                                                         spaceId),
                                                 getApplicationIdFromOrgSpace(
                                                         cloudFoundryClient,
                                                         request.getTargetName(),
+                                                        this.nameResolutionCache,
                                                         spaceId,
                                                         request.getTargetOrganization(),
                                                         request.getTargetSpace()))))
@@ -284,6 +325,7 @@ public final class DefaultApplications implements Applications {
                                         getRoutesAndApplicationId(
                                                         cloudFoundryClient,
                                                         request,
+                                                        this.nameResolutionCache,
                                                         spaceId,
                                                         Optional.ofNullable(
                                                                         request.getDeleteRoutes())
@@ -308,6 +350,7 @@ public final class DefaultApplications implements Applications {
                                                                 applicationId))))
                 .delayUntil(function(DefaultApplications::removeServiceBindings))
                 .flatMap(function(DefaultApplications::requestDeleteApplication))
+                .doFinally(signal -> this.nameResolutionCache.invalidate(Kind.APPLICATION))
                 .transform(OperationsLogging.log("Delete Application"))
                 .checkpoint();
     }
@@ -387,6 +430,7 @@ public final class DefaultApplications implements Applications {
                                                 getApplicationId(
                                                         cloudFoundryClient,
                                                         request.getName(),
+                                                        this.nameResolutionCache,
                                                         spaceId))))
                 .flatMap(
                         function(
@@ -423,6 +467,7 @@ public final class DefaultApplications implements Applications {
                                                 getApplicationId(
                                                         cloudFoundryClient,
                                                         request.getName(),
+                                                        this.nameResolutionCache,
                                                         spaceId))))
                 .flatMap(function(DefaultApplications::requestApplicationEnvironment))
                 .map(DefaultApplications::toApplicationEnvironments)
@@ -441,6 +486,7 @@ public final class DefaultApplications implements Applications {
                                                 getApplicationId(
                                                         cloudFoundryClient,
                                                         request.getName(),
+                                                        this.nameResolutionCache,
                                                         spaceId))))
                 .flatMapMany(
                         function(
@@ -508,10 +554,18 @@ public final class DefaultApplications implements Applications {
                         function(
                                 (cloudFoundryClient, spaceId) ->
                                         getApplicationId(
-                                                cloudFoundryClient, request.getName(), spaceId)))
+                                                cloudFoundryClient,
+                                                request.getName(),
+                                                this.nameResolutionCache,
+                                                spaceId)))
                 .flatMapMany(
                         applicationId ->
-                                getLogs(this.dopplerClient, applicationId, request.getRecent()))
+                                getLogs(
+                                        this.dopplerClient,
+                                        applicationId,
+                                        request.getRecent(),
+                                        request.getReconnect(),
+                                        request.getStartTime()))
                 .transform(OperationsLogging.log("Get Application Logs"))
                 .checkpoint();
     }
@@ -570,7 +624,10 @@ public final class DefaultApplications implements Applications {
                                 (cloudFoundryClient, spaceId) ->
                                         Mono.zip(
                                                 Mono.just(cloudFoundryClient),
-                                                getSpaceOrganizationId(cloudFoundryClient, spaceId),
+                                                getSpaceOrganizationId(
+                                                        cloudFoundryClient,
+                                                        this.nameResolutionCache,
+                                                        spaceId),
                                                 Mono.just(spaceId))))
                 .flatMap(
                         function(
@@ -591,6 +648,7 @@ public final class DefaultApplications implements Applications {
                                                                         cloudFoundryClient,
                                                                         availableDomains,
                                                                         manifest,
+                                                                        this.nameResolutionCache,
                                                                         this.randomWords,
                                                                         request,
                                                                         spaceId);
@@ -601,6 +659,7 @@ public final class DefaultApplications implements Applications {
                                                                         cloudFoundryClient,
                                                                         availableDomains,
                                                                         manifest,
+                                                                        this.nameResolutionCache,
                                                                         this.randomWords,
                                                                         request,
                                                                         spaceId);
@@ -693,6 +752,7 @@ public final class DefaultApplications implements Applications {
                                                 getApplicationId(
                                                         cloudFoundryClient,
                                                         request.getName(),
+                                                        this.nameResolutionCache,
                                                         spaceId))))
                 .flatMap(
                         function(
@@ -702,6 +762,7 @@ public final class DefaultApplications implements Applications {
                                                 applicationId,
                                                 request.getNewName())))
                 .then()
+                .doFinally(signal -> this.nameResolutionCache.invalidate(Kind.APPLICATION))
                 .transform(OperationsLogging.log("Rename Application"))
                 .checkpoint();
     }
@@ -717,6 +778,7 @@ public final class DefaultApplications implements Applications {
                                                 getApplicationId(
                                                         cloudFoundryClient,
                                                         request.getName(),
+                                                        this.nameResolutionCache,
                                                         spaceId))))
                 .flatMap(
                         function(
@@ -774,6 +836,7 @@ public final class DefaultApplications implements Applications {
                                                 getApplicationId(
                                                         cloudFoundryClient,
                                                         request.getName(),
+                                                        this.nameResolutionCache,
                                                         spaceId))))
                 .flatMap(
                         function(
@@ -820,6 +883,7 @@ public final class DefaultApplications implements Applications {
                                                 getApplicationId(
                                                         cloudFoundryClient,
                                                         request.getName(),
+                                                        this.nameResolutionCache,
                                                         spaceId))))
                 .flatMap(
                         function(
@@ -887,6 +951,7 @@ public final class DefaultApplications implements Applications {
                                                 getApplicationId(
                                                         cloudFoundryClient,
                                                         request.getName(),
+                                                        this.nameResolutionCache,
                                                         spaceId))))
                 .flatMap(
                         function(
@@ -1097,6 +1162,7 @@ public final class DefaultApplications implements Applications {
             CloudFoundryClient cloudFoundryClient,
             String applicationId,
             ApplicationManifest manifest,
+            NameResolutionCache nameResolutionCache,
             String spaceId) {
         if (manifest.getServices() == null || manifest.getServices().size() == 0) {
             return Mono.empty();
@@ -1105,7 +1171,11 @@ public final class DefaultApplications implements Applications {
         return Flux.fromIterable(manifest.getServices())
                 .flatMap(
                         serviceInstanceName ->
-                                getServiceId(cloudFoundryClient, serviceInstanceName, spaceId))
+                                getServiceId(
+                                        cloudFoundryClient,
+                                        nameResolutionCache,
+                                        serviceInstanceName,
+                                        spaceId))
                 .flatMap(
                         serviceInstanceId ->
                                 requestCreateServiceBinding(
@@ -1353,8 +1423,17 @@ public final class DefaultApplications implements Applications {
     }
 
     private static Mono<String> getApplicationId(
-            CloudFoundryClient cloudFoundryClient, String application, String spaceId) {
-        return getApplication(cloudFoundryClient, application, spaceId).map(ResourceUtils::getId);
+            CloudFoundryClient cloudFoundryClient,
+            String application,
+            NameResolutionCache nameResolutionCache,
+            String spaceId) {
+        return nameResolutionCache.resolve(
+                Kind.APPLICATION,
+                spaceId,
+                application,
+                () ->
+                        getApplication(cloudFoundryClient, application, spaceId)
+                                .map(ResourceUtils::getId));
     }
 
     private static Mono<String> getApplicationId(
@@ -1390,21 +1469,35 @@ public final class DefaultApplications implements Applications {
     private static Mono<String> getApplicationIdFromOrgSpace(
             CloudFoundryClient cloudFoundryClient,
             String application,
+            NameResolutionCache nameResolutionCache,
             String spaceId,
             String organization,
             String space) {
-        return getSpaceOrganizationId(cloudFoundryClient, spaceId)
+        return getSpaceOrganizationId(cloudFoundryClient, nameResolutionCache, spaceId)
                 .flatMap(
                         organizationId ->
                                 organization != null
-                                        ? getOrganizationId(cloudFoundryClient, organization)
+                                        ? getOrganizationId(
+                                                cloudFoundryClient,
+                                                nameResolutionCache,
+                                                organization)
                                         : Mono.just(organizationId))
                 .flatMap(
                         organizationId ->
                                 space != null
-                                        ? getSpaceId(cloudFoundryClient, organizationId, space)
+                                        ? getSpaceId(
+                                                cloudFoundryClient,
+                                                nameResolutionCache,
+                                                organizationId,
+                                                space)
                                         : Mono.just(spaceId))
-                .flatMap(spaceId1 -> getApplicationId(cloudFoundryClient, application, spaceId1));
+                .flatMap(
+                        spaceId1 ->
+                                getApplicationId(
+                                        cloudFoundryClient,
+                                        application,
+                                        nameResolutionCache,
+                                        spaceId1));
     }
 
     private static Mono<String> getApplicationIdV3(
@@ -1531,22 +1624,84 @@ public final class DefaultApplications implements Applications {
     }
 
     private static Flux<LogMessage> getLogs(
-            Mono<DopplerClient> dopplerClient, String applicationId, Boolean recent) {
+            Mono<DopplerClient> dopplerClient,
+            String applicationId,
+            Boolean recent,
+            Boolean reconnect,
+            Long startTime) {
         if (Optional.ofNullable(recent).orElse(false)) {
-            return requestLogsRecent(dopplerClient, applicationId)
-                    .filter(e -> EventType.LOG_MESSAGE == e.getEventType())
-                    .map(Envelope::getLogMessage)
-                    .collectSortedList(LOG_MESSAGE_COMPARATOR)
-                    .flatMapIterable(d -> d);
+            return getLogsRecent(dopplerClient, applicationId)
+                    .filter(logMessage -> isAfter(logMessage, startTime));
+        } else if (Optional.ofNullable(reconnect).orElse(false)) {
+            return getLogsReconnecting(
+                    dopplerClient, applicationId, new LogPosition(startTime), startTime);
         } else {
-            return requestLogsStream(dopplerClient, applicationId)
-                    .filter(e -> EventType.LOG_MESSAGE == e.getEventType())
-                    .map(Envelope::getLogMessage)
-                    .transformDeferred(
-                            SortingUtils.timespan(LOG_MESSAGE_COMPARATOR, LOG_MESSAGE_TIMESPAN));
+            return getLogsStream(dopplerClient, applicationId)
+                    .filter(logMessage -> isAfter(logMessage, startTime));
         }
     }
 
+    private static Flux<LogMessage> getLogsReconnecting(
+            Mono<DopplerClient> dopplerClient,
+            String applicationId,
+            LogPosition position,
+            Long startTime) {
+        AtomicBoolean connected = new AtomicBoolean();
+
+        return Flux.defer(
+                        () -> {
+                            position.connected();
+
+                            Flux<LogMessage> stream =
+                                    getLogsStream(dopplerClient, applicationId)
+                                            .filter(logMessage -> isAfter(logMessage, startTime));
+
+                            if (!connected.getAndSet(true) && !position.isMarked()) {
+                                return stream.filter(position::acceptStream);
+                            }
+
+                            // filter after merging, so that the stream is only compared to the
+                            // backfill once all of the backfill has been accepted
+                            return Flux.mergeSequential(
+                                            getLogsRecent(dopplerClient, applicationId)
+                                                    .map(logMessage -> Tuples.of(true, logMessage)),
+                                            stream.map(logMessage -> Tuples.of(false, logMessage)))
+                                    .filter(
+                                            predicate(
+                                                    (backfill, logMessage) ->
+                                                            backfill
+                                                                    ? position.acceptBackfill(
+                                                                            logMessage)
+                                                                    : position.acceptStream(
+                                                                            logMessage)))
+                                    .map(Tuple2::getT2);
+                        })
+                .repeatWhen(completions -> completions.delayElements(LOGS_MIN_BACKOFF))
+                .retryWhen(
+                        Retry.backoff(Long.MAX_VALUE, LOGS_MIN_BACKOFF)
+                                .maxBackoff(LOGS_MAX_BACKOFF)
+                                .filter(AbstractCloudFoundryException::isRetryable)
+                                .transientErrors(true));
+    }
+
+    private static Flux<LogMessage> getLogsRecent(
+            Mono<DopplerClient> dopplerClient, String applicationId) {
+        return requestLogsRecent(dopplerClient, applicationId)
+                .filter(e -> EventType.LOG_MESSAGE == e.getEventType())
+                .map(Envelope::getLogMessage)
+                .collectSortedList(LOG_MESSAGE_COMPARATOR)
+                .flatMapIterable(d -> d);
+    }
+
+    private static Flux<LogMessage> getLogsStream(
+            Mono<DopplerClient> dopplerClient, String applicationId) {
+        return requestLogsStream(dopplerClient, applicationId)
+                .filter(e -> EventType.LOG_MESSAGE == e.getEventType())
+                .map(Envelope::getLogMessage)
+                .transformDeferred(
+                        SortingUtils.timespan(LOG_MESSAGE_COMPARATOR, LOG_MESSAGE_TIMESPAN));
+    }
+
     @SuppressWarnings("unchecked")
     private static Map<String, Object> getMetadataRequest(EventEntity entity) {
         Map<String, Optional<Object>> metadata =
@@ -1574,9 +1729,14 @@ public final class DefaultApplications implements Applications {
     }
 
     private static Mono<Optional<String>> getOptionalStackId(
-            CloudFoundryClient cloudFoundryClient, String stack) {
+            CloudFoundryClient cloudFoundryClient,
+            NameResolutionCache nameResolutionCache,
+            String stack) {
         return Optional.ofNullable(stack)
-                .map(stack1 -> getStackId(cloudFoundryClient, stack1).map(Optional::of))
+                .map(
+                        stack1 ->
+                                getStackId(cloudFoundryClient, nameResolutionCache, stack1)
+                                        .map(Optional::of))
                 .orElse(Mono.just(Optional.empty()));
     }
 
@@ -1592,8 +1752,14 @@ public final class DefaultApplications implements Applications {
     }
 
     private static Mono<String> getOrganizationId(
-            CloudFoundryClient cloudFoundryClient, String organization) {
-        return getOrganization(cloudFoundryClient, organization).map(ResourceUtils::getId);
+            CloudFoundryClient cloudFoundryClient,
+            NameResolutionCache nameResolutionCache,
+            String organization) {
+        return nameResolutionCache.resolve(
+                Kind.ORGANIZATION,
+                "",
+                organization,
+                () -> getOrganization(cloudFoundryClient, organization).map(ResourceUtils::getId));
     }
 
     private static Mono<SpaceResource> getOrganizationSpaceByName(
@@ -1759,9 +1925,10 @@ public final class DefaultApplications implements Applications {
             getRoutesAndApplicationId(
                     CloudFoundryClient cloudFoundryClient,
                     DeleteApplicationRequest request,
+                    NameResolutionCache nameResolutionCache,
                     String spaceId,
                     boolean deleteRoutes) {
-        return getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+        return getApplicationId(cloudFoundryClient, request.getName(), nameResolutionCache, spaceId)
                 .flatMap(
                         applicationId ->
                                 getOptionalRoutes(cloudFoundryClient, deleteRoutes, applicationId)
@@ -1769,37 +1936,74 @@ public final class DefaultApplications implements Applications {
     }
 
     private static Mono<String> getServiceId(
-            CloudFoundryClient cloudFoundryClient, String serviceInstanceName, String spaceId) {
-        return requestListServiceInstances(cloudFoundryClient, serviceInstanceName, spaceId)
-                .map(ResourceUtils::getId)
-                .single()
-                .onErrorResume(
-                        NoSuchElementException.class,
-                        t ->
-                                ExceptionUtils.illegalArgument(
-                                        "Service instance %s could not be found",
-                                        serviceInstanceName));
+            CloudFoundryClient cloudFoundryClient,
+            NameResolutionCache nameResolutionCache,
+            String serviceInstanceName,
+            String spaceId) {
+        return nameResolutionCache.resolve(
+                Kind.SERVICE_INSTANCE,
+                spaceId,
+                serviceInstanceName,
+                () ->
+                        requestListServiceInstances(
+                                        cloudFoundryClient, serviceInstanceName, spaceId)
+                                .map(ResourceUtils::getId)
+                                .single()
+                                .onErrorResume(
+                                        NoSuchElementException.class,
+                                        t ->
+                                                ExceptionUtils.illegalArgument(
+                                                        "Service instance %s could not be found",
+                                                        serviceInstanceName)));
     }
 
     private static Mono<String> getSpaceId(
-            CloudFoundryClient cloudFoundryClient, String organizationId, String space) {
-        return getOrganizationSpaceByName(cloudFoundryClient, organizationId, space)
-                .map(ResourceUtils::getId);
+            CloudFoundryClient cloudFoundryClient,
+            NameResolutionCache nameResolutionCache,
+            String organizationId,
+            String space) {
+        return nameResolutionCache.resolve(
+                Kind.SPACE,
+                organizationId,
+                space,
+                () ->
+                        getOrganizationSpaceByName(cloudFoundryClient, organizationId, space)
+                                .map(ResourceUtils::getId));
     }
 
     private static Mono<String> getSpaceOrganizationId(
-            CloudFoundryClient cloudFoundryClient, String spaceId) {
-        return requestSpace(cloudFoundryClient, spaceId)
-                .map(response -> ResourceUtils.getEntity(response).getOrganizationId());
-    }
-
-    private static Mono<String> getStackId(CloudFoundryClient cloudFoundryClient, String stack) {
-        return requestStacks(cloudFoundryClient, stack)
-                .map(ResourceUtils::getId)
-                .single()
-                .onErrorResume(
-                        NoSuchElementException.class,
-                        t -> ExceptionUtils.illegalArgument("Stack %s does not exist", stack));
+            CloudFoundryClient cloudFoundryClient,
+            NameResolutionCache nameResolutionCache,
+            String spaceId) {
+        return nameResolutionCache.resolve(
+                Kind.SPACE_ORGANIZATION,
+                "",
+                spaceId,
+                () ->
+                        requestSpace(cloudFoundryClient, spaceId)
+                                .map(
+                                        response ->
+                                                ResourceUtils.getEntity(response)
+                                                        .getOrganizationId()));
+    }
+
+    private static Mono<String> getStackId(
+            CloudFoundryClient cloudFoundryClient,
+            NameResolutionCache nameResolutionCache,
+            String stack) {
+        return nameResolutionCache.resolve(
+                Kind.STACK,
+                "",
+                stack,
+                () ->
+                        requestStacks(cloudFoundryClient, stack)
+                                .map(ResourceUtils::getId)
+                                .single()
+                                .onErrorResume(
+                                        NoSuchElementException.class,
+                                        t ->
+                                                ExceptionUtils.illegalArgument(
+                                                        "Stack %s does not exist", stack)));
     }
 
     private static Mono<String> getStackName(
@@ -1833,6 +2037,10 @@ public final class DefaultApplications implements Applications {
                 .orElse(null);
     }
 
+    private static boolean isAfter(LogMessage logMessage, Long startTime) {
+        return startTime == null || logMessage.getTimestamp() > startTime;
+    }
+
     private static boolean isIdentical(String s, String t) {
         return Objects.equals(s, t);
     }
@@ -1961,11 +2169,12 @@ public final class DefaultApplications implements Applications {
             CloudFoundryClient cloudFoundryClient,
             List<DomainSummary> availableDomains,
             ApplicationManifest manifest,
+            NameResolutionCache nameResolutionCache,
             RandomWords randomWords,
             PushApplicationManifestRequest request,
             String spaceId) {
 
-        return getOptionalStackId(cloudFoundryClient, manifest.getStack())
+        return getOptionalStackId(cloudFoundryClient, nameResolutionCache, manifest.getStack())
                 .flatMapMany(
                         stackId ->
                                 getApplicationId(
@@ -2002,6 +2211,7 @@ public final class DefaultApplications implements Applications {
                                                                 cloudFoundryClient,
                                                                 applicationId,
                                                                 manifest,
+                                                                nameResolutionCache,
                                                                 spaceId),
                                                         updateBuildpacks(
                                                                 cloudFoundryClient,
@@ -2027,11 +2237,12 @@ public final class DefaultApplications implements Applications {
             CloudFoundryClient cloudFoundryClient,
             List<DomainSummary> availableDomains,
             ApplicationManifest manifest,
+            NameResolutionCache nameResolutionCache,
             RandomWords randomWords,
             PushApplicationManifestRequest request,
             String spaceId) {
 
-        return getOptionalStackId(cloudFoundryClient, manifest.getStack())
+        return getOptionalStackId(cloudFoundryClient, nameResolutionCache, manifest.getStack())
                 .flatMapMany(
                         stackId ->
                                 getApplicationId(
@@ -2058,7 +2269,12 @@ public final class DefaultApplications implements Applications {
                                                 .thenReturn(applicationId)))
                 .delayUntil(
                         applicationId ->
-                                bindServices(cloudFoundryClient, applicationId, manifest, spaceId))
+                                bindServices(
+                                        cloudFoundryClient,
+                                        applicationId,
+                                        manifest,
+                                        nameResolutionCache,
+                                        spaceId))
                 .flatMap(
                         applicationId ->
                                 stopAndStartApplication(
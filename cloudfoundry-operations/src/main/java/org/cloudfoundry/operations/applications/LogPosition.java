@@ -0,0 +1,93 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations.applications;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.cloudfoundry.doppler.LogMessage;
+
+/**
+ * The high-water mark of a stream of logs, used to join the recent logs requested after a reconnection to the logs already received. Logs from a stream are always accepted, unless they
+ * duplicate a log that was backfilled from the recent logs since the stream connected. Backfilled logs are only accepted after the mark: logs written before the mark are rejected, as are logs
+ * written at the mark from a source and instance that has already been accepted at that timestamp. A mark set from a start time rejects all logs written at it.
+ */
+final class LogPosition {
+
+    private final Set<LogMessage> backfilled = new HashSet<>();
+
+    private final Set<String> sourcesAtMark = new HashSet<>();
+
+    private Long mark;
+
+    private boolean markExclusive;
+
+    LogPosition(Long startTime) {
+        this.mark = startTime;
+        this.markExclusive = startTime != null;
+    }
+
+    private static String getSource(LogMessage logMessage) {
+        return String.format("%s %s", logMessage.getSourceType(), logMessage.getSourceInstance());
+    }
+
+    synchronized boolean acceptBackfill(LogMessage logMessage) {
+        long timestamp = logMessage.getTimestamp();
+
+        if (this.mark != null
+                && (timestamp < this.mark
+                        || (timestamp == this.mark
+                                && (this.markExclusive
+                                        || this.sourcesAtMark.contains(getSource(logMessage)))))) {
+            return false;
+        }
+
+        this.backfilled.add(logMessage);
+        advance(logMessage);
+        return true;
+    }
+
+    synchronized boolean acceptStream(LogMessage logMessage) {
+        if (this.backfilled.remove(logMessage)) {
+            return false;
+        }
+
+        advance(logMessage);
+        return true;
+    }
+
+    synchronized void connected() {
+        this.backfilled.clear();
+    }
+
+    synchronized boolean isMarked() {
+        return this.mark != null;
+    }
+
+    private void advance(LogMessage logMessage) {
+        long timestamp = logMessage.getTimestamp();
+
+        if (this.mark == null || timestamp > this.mark) {
+            this.mark = timestamp;
+            this.markExclusive = false;
+            this.sourcesAtMark.clear();
+        }
+
+        if (timestamp == this.mark && !this.markExclusive) {
+            this.sourcesAtMark.add(getSource(logMessage));
+        }
+    }
+}
@@ -36,4 +36,16 @@ abstract class _LogsRequest {
     @Nullable
     abstract Boolean getRecent();
 
+    /**
+     * Whether the stream of logs should reconnect, with backoff, when it is disconnected. Logs written while disconnected are retrieved from the recent logs.
+     */
+    @Nullable
+    abstract Boolean getReconnect();
+
+    /**
+     * The UNIX timestamp (in nanoseconds) that logs must be written after to be retrieved. Pass the timestamp of the last log retrieved to resume a stream of logs from that position.
+     */
+    @Nullable
+    abstract Long getStartTime();
+
 }
@@ -34,6 +34,8 @@ import org.cloudfoundry.client.v2.shareddomains.CreateSharedDomainResponse;
 import org.cloudfoundry.client.v2.shareddomains.ListSharedDomainsRequest;
 import org.cloudfoundry.client.v2.shareddomains.SharedDomainEntity;
 import org.cloudfoundry.client.v2.shareddomains.SharedDomainResource;
+import org.cloudfoundry.operations.util.NameResolutionCache;
+import org.cloudfoundry.operations.util.NameResolutionCache.Kind;
 import org.cloudfoundry.operations.util.OperationsLogging;
 import org.cloudfoundry.routing.RoutingClient;
 import org.cloudfoundry.routing.v1.routergroups.ListRouterGroupsResponse;
@@ -47,11 +49,21 @@ public final class DefaultDomains implements Domains {
 
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
+    private final NameResolutionCache nameResolutionCache;
+
     private final Mono<RoutingClient> routingClient;
 
     public DefaultDomains(
             Mono<CloudFoundryClient> cloudFoundryClient, Mono<RoutingClient> routingClient) {
+        this(cloudFoundryClient, routingClient, NameResolutionCache.disabled());
+    }
+
+    public DefaultDomains(
+            Mono<CloudFoundryClient> cloudFoundryClient,
+            Mono<RoutingClient> routingClient,
+            NameResolutionCache nameResolutionCache) {
         this.cloudFoundryClient = cloudFoundryClient;
+        this.nameResolutionCache = nameResolutionCache;
         this.routingClient = routingClient;
     }
 
@@ -68,9 +80,14 @@ public final class DefaultDomains implements Domains {
                         function(
                                 (cloudFoundryClient, organizationId) ->
                                         requestCreateDomain(
-                                                cloudFoundryClient,
-                                                request.getDomain(),
-                                                organizationId)))
+                                                        cloudFoundryClient,
+                                                        request.getDomain(),
+                                                        organizationId)
+                                                .doFinally(
+                                                        signal ->
+                                                                this.nameResolutionCache.invalidate(
+                                                                        Kind.DOMAIN,
+                                                                        organizationId))))
                 .then()
                 .transform(OperationsLogging.log("Create Domain"))
                 .checkpoint();
@@ -84,6 +101,7 @@ public final class DefaultDomains implements Domains {
                             cloudFoundryClient ->
                                     requestCreateSharedDomain(
                                             cloudFoundryClient, request.getDomain(), null))
+                    .doFinally(signal -> this.nameResolutionCache.invalidate(Kind.DOMAIN))
                     .then()
                     .transform(OperationsLogging.log("Create Shared Domain"))
                     .checkpoint();
@@ -104,6 +122,7 @@ public final class DefaultDomains implements Domains {
                                                     cloudFoundryClient,
                                                     request.getDomain(),
                                                     routerGroupId)))
+                    .doFinally(signal -> this.nameResolutionCache.invalidate(Kind.DOMAIN))
                     .then()
                     .transform(OperationsLogging.log("Create Shared Domain"))
                     .checkpoint();
@@ -144,7 +163,18 @@ public final class DefaultDomains implements Domains {
                                         getPrivateDomainId(cloudFoundryClient, request.getDomain()),
                                         getOrganizationId(
                                                 cloudFoundryClient, request.getOrganization())))
-                .flatMap(function(DefaultDomains::requestAssociateOrganizationPrivateDomainRequest))
+                .flatMap(
+                        function(
+                                (cloudFoundryClient, domainId, organizationId) ->
+                                        requestAssociateOrganizationPrivateDomainRequest(
+                                                        cloudFoundryClient,
+                                                        domainId,
+                                                        organizationId)
+                                                .doFinally(
+                                                        signal ->
+                                                                this.nameResolutionCache.invalidate(
+                                                                        Kind.DOMAIN,
+                                                                        organizationId))))
                 .then()
                 .transform(OperationsLogging.log("Share Domain"))
                 .checkpoint();
@@ -160,7 +190,18 @@ public final class DefaultDomains implements Domains {
                                         getPrivateDomainId(cloudFoundryClient, request.getDomain()),
                                         getOrganizationId(
                                                 cloudFoundryClient, request.getOrganization())))
-                .flatMap(function(DefaultDomains::requestRemoveOrganizationPrivateDomainRequest))
+                .flatMap(
+                        function(
+                                (cloudFoundryClient, domainId, organizationId) ->
+                                        requestRemoveOrganizationPrivateDomainRequest(
+                                                        cloudFoundryClient,
+                                                        domainId,
+                                                        organizationId)
+                                                .doFinally(
+                                                        signal ->
+                                                                this.nameResolutionCache.invalidate(
+                                                                        Kind.DOMAIN,
+                                                                        organizationId))))
                 .transform(OperationsLogging.log("Unshare Domain"))
                 .checkpoint();
     }
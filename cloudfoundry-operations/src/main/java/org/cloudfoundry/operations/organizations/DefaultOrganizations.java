@@ -48,6 +48,8 @@ import org.cloudfoundry.client.v2.shareddomains.SharedDomainResource;
 import org.cloudfoundry.client.v2.spacequotadefinitions.SpaceQuotaDefinitionResource;
 import org.cloudfoundry.client.v2.spaces.SpaceResource;
 import org.cloudfoundry.operations.spaceadmin.SpaceQuota;
+import org.cloudfoundry.operations.util.NameResolutionCache;
+import org.cloudfoundry.operations.util.NameResolutionCache.Kind;
 import org.cloudfoundry.operations.util.OperationsLogging;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
@@ -63,11 +65,21 @@ public final class DefaultOrganizations implements Organizations {
 
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
+    private final NameResolutionCache nameResolutionCache;
+
     private final Mono<String> username;
 
     public DefaultOrganizations(
             Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> username) {
+        this(cloudFoundryClient, username, NameResolutionCache.disabled());
+    }
+
+    public DefaultOrganizations(
+            Mono<CloudFoundryClient> cloudFoundryClient,
+            Mono<String> username,
+            NameResolutionCache nameResolutionCache) {
         this.cloudFoundryClient = cloudFoundryClient;
+        this.nameResolutionCache = nameResolutionCache;
         this.username = username;
     }
 
@@ -112,6 +124,7 @@ public final class DefaultOrganizations implements Organizations {
                                         Mono.just(request.getCompletionTimeout()),
                                         getOrganizationId(cloudFoundryClient, request.getName())))
                 .flatMap(function(DefaultOrganizations::deleteOrganization))
+                .doFinally(signal -> this.nameResolutionCache.invalidate())
                 .transform(OperationsLogging.log("Delete Organization"))
                 .checkpoint();
     }
@@ -171,6 +184,7 @@ public final class DefaultOrganizations implements Organizations {
                                                 organizationId,
                                                 request.getNewName())))
                 .then()
+                .doFinally(signal -> this.nameResolutionCache.invalidate(Kind.ORGANIZATION))
                 .transform(OperationsLogging.log("Rename Organization"))
                 .checkpoint();
     }
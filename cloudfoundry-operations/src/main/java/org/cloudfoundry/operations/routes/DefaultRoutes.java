@@ -50,6 +50,8 @@ import org.cloudfoundry.client.v2.spaces.ListSpaceApplicationsRequest;
 import org.cloudfoundry.client.v2.spaces.ListSpaceRoutesRequest;
 import org.cloudfoundry.client.v2.spaces.ListSpaceServiceInstancesRequest;
 import org.cloudfoundry.client.v2.spaces.SpaceResource;
+import org.cloudfoundry.operations.util.NameResolutionCache;
+import org.cloudfoundry.operations.util.NameResolutionCache.Kind;
 import org.cloudfoundry.operations.util.OperationsLogging;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
@@ -63,6 +65,8 @@ public final class DefaultRoutes implements Routes {
 
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
+    private final NameResolutionCache nameResolutionCache;
+
     private final Mono<String> organizationId;
 
     private final Mono<String> spaceId;
@@ -71,7 +75,16 @@ public final class DefaultRoutes implements Routes {
             Mono<CloudFoundryClient> cloudFoundryClient,
             Mono<String> organizationId,
             Mono<String> spaceId) {
+        this(cloudFoundryClient, organizationId, spaceId, NameResolutionCache.disabled());
+    }
+
+    public DefaultRoutes(
+            Mono<CloudFoundryClient> cloudFoundryClient,
+            Mono<String> organizationId,
+            Mono<String> spaceId,
+            NameResolutionCache nameResolutionCache) {
         this.cloudFoundryClient = cloudFoundryClient;
+        this.nameResolutionCache = nameResolutionCache;
         this.organizationId = organizationId;
         this.spaceId = spaceId;
     }
@@ -111,10 +124,12 @@ public final class DefaultRoutes implements Routes {
                                                 Mono.just(cloudFoundryClient),
                                                 getSpaceId(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         organizationId,
                                                         request.getSpace()),
                                                 getDomainId(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         organizationId,
                                                         request.getDomain()))))
                 .flatMap(
@@ -147,6 +162,7 @@ public final class DefaultRoutes implements Routes {
                                                 Mono.just(cloudFoundryClient),
                                                 getDomainId(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         organizationId,
                                                         request.getDomain()))))
                 .flatMap(
@@ -270,6 +286,7 @@ public final class DefaultRoutes implements Routes {
                                                 Mono.just(cloudFoundryClient),
                                                 getOrCreateRoute(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         organizationId,
                                                         spaceId,
                                                         request.getDomain(),
@@ -279,6 +296,7 @@ public final class DefaultRoutes implements Routes {
                                                         request.getRandomPort()),
                                                 getApplicationId(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         request.getApplicationName(),
                                                         spaceId))))
                 .flatMap(
@@ -303,10 +321,12 @@ public final class DefaultRoutes implements Routes {
                                                 Mono.just(cloudFoundryClient),
                                                 getApplicationId(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         request.getApplicationName(),
                                                         spaceId),
                                                 getDomainId(
                                                                 cloudFoundryClient,
+                                                                this.nameResolutionCache,
                                                                 organizationId,
                                                                 request.getDomain())
                                                         .flatMap(
@@ -375,8 +395,17 @@ public final class DefaultRoutes implements Routes {
     }
 
     private static Mono<String> getApplicationId(
-            CloudFoundryClient cloudFoundryClient, String application, String spaceId) {
-        return getApplication(cloudFoundryClient, application, spaceId).map(ResourceUtils::getId);
+            CloudFoundryClient cloudFoundryClient,
+            NameResolutionCache nameResolutionCache,
+            String application,
+            String spaceId) {
+        return nameResolutionCache.resolve(
+                Kind.APPLICATION,
+                spaceId,
+                application,
+                () ->
+                        getApplication(cloudFoundryClient, application, spaceId)
+                                .map(ResourceUtils::getId));
     }
 
     private static Mono<List<String>> getApplicationNames(
@@ -401,8 +430,17 @@ public final class DefaultRoutes implements Routes {
     }
 
     private static Mono<String> getDomainId(
-            CloudFoundryClient cloudFoundryClient, String organizationId, String domain) {
-        return getDomain(cloudFoundryClient, organizationId, domain).map(ResourceUtils::getId);
+            CloudFoundryClient cloudFoundryClient,
+            NameResolutionCache nameResolutionCache,
+            String organizationId,
+            String domain) {
+        return nameResolutionCache.resolve(
+                Kind.DOMAIN,
+                organizationId,
+                domain,
+                () ->
+                        getDomain(cloudFoundryClient, organizationId, domain)
+                                .map(ResourceUtils::getId));
     }
 
     private static Mono<String> getDomainName(Map<String, String> domains, String domainId) {
@@ -425,6 +463,7 @@ public final class DefaultRoutes implements Routes {
 
     private static Mono<AbstractRouteResource> getOrCreateRoute(
             CloudFoundryClient cloudFoundryClient,
+            NameResolutionCache nameResolutionCache,
             String organizationId,
             String spaceId,
             String domain,
@@ -433,7 +472,7 @@ public final class DefaultRoutes implements Routes {
             Integer port,
             Boolean randomPort) {
         if (randomPort != null) {
-            return getDomainId(cloudFoundryClient, organizationId, domain)
+            return getDomainId(cloudFoundryClient, nameResolutionCache, organizationId, domain)
                     .flatMap(
                             domainId ->
                                     requestCreateRoute(
@@ -446,7 +485,7 @@ public final class DefaultRoutes implements Routes {
                                             spaceId));
         }
 
-        return getDomainId(cloudFoundryClient, organizationId, domain)
+        return getDomainId(cloudFoundryClient, nameResolutionCache, organizationId, domain)
                 .flatMap(
                         domainId ->
                                 getRoute(cloudFoundryClient, domainId, host, path, port)
@@ -554,8 +593,17 @@ public final class DefaultRoutes implements Routes {
     }
 
     private static Mono<String> getSpaceId(
-            CloudFoundryClient cloudFoundryClient, String organizationId, String space) {
-        return getSpace(cloudFoundryClient, organizationId, space).map(ResourceUtils::getId);
+            CloudFoundryClient cloudFoundryClient,
+            NameResolutionCache nameResolutionCache,
+            String organizationId,
+            String space) {
+        return nameResolutionCache.resolve(
+                Kind.SPACE,
+                organizationId,
+                space,
+                () ->
+                        getSpace(cloudFoundryClient, organizationId, space)
+                                .map(ResourceUtils::getId));
     }
 
     private static Mono<String> getSpaceName(Map<String, String> spaces, String spaceId) {
@@ -85,6 +85,8 @@ import org.cloudfoundry.client.v2.userprovidedserviceinstances.CreateUserProvide
 import org.cloudfoundry.client.v2.userprovidedserviceinstances.DeleteUserProvidedServiceInstanceRequest;
 import org.cloudfoundry.client.v2.userprovidedserviceinstances.RemoveUserProvidedServiceInstanceRouteRequest;
 import org.cloudfoundry.client.v2.userprovidedserviceinstances.UpdateUserProvidedServiceInstanceResponse;
+import org.cloudfoundry.operations.util.NameResolutionCache;
+import org.cloudfoundry.operations.util.NameResolutionCache.Kind;
 import org.cloudfoundry.operations.util.OperationsLogging;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
@@ -106,6 +108,8 @@ public final class DefaultServices implements Services {
 
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
+    private final NameResolutionCache nameResolutionCache;
+
     private final Mono<String> organizationId;
 
     private final Mono<String> spaceId;
@@ -114,7 +118,16 @@ public final class DefaultServices implements Services {
             Mono<CloudFoundryClient> cloudFoundryClient,
             Mono<String> organizationId,
             Mono<String> spaceId) {
+        this(cloudFoundryClient, organizationId, spaceId, NameResolutionCache.disabled());
+    }
+
+    public DefaultServices(
+            Mono<CloudFoundryClient> cloudFoundryClient,
+            Mono<String> organizationId,
+            Mono<String> spaceId,
+            NameResolutionCache nameResolutionCache) {
         this.cloudFoundryClient = cloudFoundryClient;
+        this.nameResolutionCache = nameResolutionCache;
         this.spaceId = spaceId;
         this.organizationId = organizationId;
     }
@@ -130,9 +143,11 @@ public final class DefaultServices implements Services {
                                                 getApplicationId(
                                                         cloudFoundryClient,
                                                         request.getApplicationName(),
+                                                        this.nameResolutionCache,
                                                         spaceId),
                                                 getSpaceServiceInstanceId(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         request.getServiceInstanceName(),
                                                         spaceId))))
                 .flatMap(
@@ -159,6 +174,7 @@ public final class DefaultServices implements Services {
                                                 getDomainId(
                                                         cloudFoundryClient,
                                                         request.getDomainName(),
+                                                        this.nameResolutionCache,
                                                         organizationId),
                                                 Mono.just(spaceId))))
                 .flatMap(
@@ -174,6 +190,7 @@ public final class DefaultServices implements Services {
                                                         request.getPath()),
                                                 getSpaceServiceInstanceId(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         request.getServiceInstanceName(),
                                                         spaceId))))
                 .flatMap(
@@ -200,6 +217,7 @@ public final class DefaultServices implements Services {
                                                 Mono.just(spaceId),
                                                 getServiceIdByName(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         spaceId,
                                                         request.getServiceName()))))
                 .flatMap(
@@ -210,6 +228,7 @@ public final class DefaultServices implements Services {
                                                 Mono.just(spaceId),
                                                 getServicePlanIdByName(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         serviceId,
                                                         request.getPlanName()))))
                 .flatMap(
@@ -238,6 +257,7 @@ public final class DefaultServices implements Services {
                                                 Mono.just(cloudFoundryClient),
                                                 getSpaceServiceInstanceId(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         request.getServiceInstanceName(),
                                                         spaceId))))
                 .flatMap(
@@ -286,6 +306,7 @@ public final class DefaultServices implements Services {
                                                         request.getName(),
                                                         spaceId))))
                 .flatMap(function(DefaultServices::deleteServiceInstance))
+                .doFinally(signal -> this.nameResolutionCache.invalidate(Kind.SERVICE_INSTANCE))
                 .transform(OperationsLogging.log("Delete Service Instance"))
                 .checkpoint();
     }
@@ -300,6 +321,7 @@ public final class DefaultServices implements Services {
                                                 Mono.just(cloudFoundryClient),
                                                 getSpaceServiceInstanceId(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         request.getServiceInstanceName(),
                                                         spaceId))))
                 .flatMap(
@@ -370,6 +392,7 @@ public final class DefaultServices implements Services {
                                                 Mono.just(cloudFoundryClient),
                                                 getSpaceServiceInstanceId(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         request.getServiceInstanceName(),
                                                         spaceId))))
                 .flatMap(
@@ -411,6 +434,7 @@ public final class DefaultServices implements Services {
                                                 Mono.just(cloudFoundryClient),
                                                 getSpaceServiceInstanceId(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         request.getServiceInstanceName(),
                                                         spaceId))))
                 .flatMapMany(
@@ -478,6 +502,7 @@ public final class DefaultServices implements Services {
                                                 serviceInstance,
                                                 request.getNewName())))
                 .then()
+                .doFinally(signal -> this.nameResolutionCache.invalidate(Kind.SERVICE_INSTANCE))
                 .transform(OperationsLogging.log("Rename Service Instance"))
                 .checkpoint();
     }
@@ -493,9 +518,11 @@ public final class DefaultServices implements Services {
                                                 getApplicationId(
                                                         cloudFoundryClient,
                                                         request.getApplicationName(),
+                                                        this.nameResolutionCache,
                                                         spaceId),
                                                 getSpaceServiceInstanceId(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         request.getServiceInstanceName(),
                                                         spaceId))))
                 .flatMap(
@@ -526,6 +553,7 @@ public final class DefaultServices implements Services {
                                                 getDomainId(
                                                         cloudFoundryClient,
                                                         request.getDomainName(),
+                                                        this.nameResolutionCache,
                                                         organizationId),
                                                 Mono.just(spaceId))))
                 .flatMap(
@@ -541,6 +569,7 @@ public final class DefaultServices implements Services {
                                                         request.getPath()),
                                                 getSpaceServiceInstanceId(
                                                         cloudFoundryClient,
+                                                        this.nameResolutionCache,
                                                         request.getServiceInstanceName(),
                                                         spaceId))))
                 .flatMap(function(DefaultServices::requestRemoveRoute))
@@ -731,9 +760,17 @@ public final class DefaultServices implements Services {
     }
 
     private static Mono<String> getApplicationId(
-            CloudFoundryClient cloudFoundryClient, String applicationName, String spaceId) {
-        return getApplication(cloudFoundryClient, applicationName, spaceId)
-                .map(ResourceUtils::getId);
+            CloudFoundryClient cloudFoundryClient,
+            String applicationName,
+            NameResolutionCache nameResolutionCache,
+            String spaceId) {
+        return nameResolutionCache.resolve(
+                Kind.APPLICATION,
+                spaceId,
+                applicationName,
+                () ->
+                        getApplication(cloudFoundryClient, applicationName, spaceId)
+                                .map(ResourceUtils::getId));
     }
 
     private static Mono<List<String>> getBoundApplications(
@@ -747,10 +784,20 @@ public final class DefaultServices implements Services {
     }
 
     private static Mono<String> getDomainId(
-            CloudFoundryClient cloudFoundryClient, String domain, String organizationId) {
-        return getPrivateDomainId(cloudFoundryClient, domain, organizationId)
-                .switchIfEmpty(getSharedDomainId(cloudFoundryClient, domain))
-                .switchIfEmpty(ExceptionUtils.illegalArgument("Domain %s not found", domain));
+            CloudFoundryClient cloudFoundryClient,
+            String domain,
+            NameResolutionCache nameResolutionCache,
+            String organizationId) {
+        return nameResolutionCache.resolve(
+                Kind.DOMAIN,
+                organizationId,
+                domain,
+                () ->
+                        getPrivateDomainId(cloudFoundryClient, domain, organizationId)
+                                .switchIfEmpty(getSharedDomainId(cloudFoundryClient, domain))
+                                .switchIfEmpty(
+                                        ExceptionUtils.illegalArgument(
+                                                "Domain %s not found", domain)));
     }
 
     @SuppressWarnings("unchecked")
@@ -871,8 +918,17 @@ public final class DefaultServices implements Services {
     }
 
     private static Mono<String> getServiceIdByName(
-            CloudFoundryClient cloudFoundryClient, String spaceId, String service) {
-        return getSpaceService(cloudFoundryClient, spaceId, service).map(ResourceUtils::getId);
+            CloudFoundryClient cloudFoundryClient,
+            NameResolutionCache nameResolutionCache,
+            String spaceId,
+            String service) {
+        return nameResolutionCache.resolve(
+                Kind.SERVICE,
+                spaceId,
+                service,
+                () ->
+                        getSpaceService(cloudFoundryClient, spaceId, service)
+                                .map(ResourceUtils::getId));
     }
 
     private static Mono<ServiceKeyResource> getServiceKey(
@@ -897,16 +953,28 @@ public final class DefaultServices implements Services {
     }
 
     private static Mono<String> getServicePlanIdByName(
-            CloudFoundryClient cloudFoundryClient, String serviceId, String plan) {
-        return requestListServicePlans(cloudFoundryClient, serviceId)
-                .filter(resource -> plan.equals(ResourceUtils.getEntity(resource).getName()))
-                .single()
-                .map(ResourceUtils::getId)
-                .onErrorResume(
-                        NoSuchElementException.class,
-                        t ->
-                                ExceptionUtils.illegalArgument(
-                                        "Service plan %s does not exist", plan));
+            CloudFoundryClient cloudFoundryClient,
+            NameResolutionCache nameResolutionCache,
+            String serviceId,
+            String plan) {
+        return nameResolutionCache.resolve(
+                Kind.SERVICE_PLAN,
+                serviceId,
+                plan,
+                () ->
+                        requestListServicePlans(cloudFoundryClient, serviceId)
+                                .filter(
+                                        resource ->
+                                                plan.equals(
+                                                        ResourceUtils.getEntity(resource)
+                                                                .getName()))
+                                .single()
+                                .map(ResourceUtils::getId)
+                                .onErrorResume(
+                                        NoSuchElementException.class,
+                                        t ->
+                                                ExceptionUtils.illegalArgument(
+                                                        "Service plan %s does not exist", plan)));
     }
 
     private static Mono<List<ServicePlanResource>> getServicePlans(
@@ -942,9 +1010,17 @@ public final class DefaultServices implements Services {
     }
 
     private static Mono<String> getSpaceServiceInstanceId(
-            CloudFoundryClient cloudFoundryClient, String serviceInstanceName, String spaceId) {
-        return getSpaceServiceInstance(cloudFoundryClient, serviceInstanceName, spaceId)
-                .map(ResourceUtils::getId);
+            CloudFoundryClient cloudFoundryClient,
+            NameResolutionCache nameResolutionCache,
+            String serviceInstanceName,
+            String spaceId) {
+        return nameResolutionCache.resolve(
+                Kind.SERVICE_INSTANCE,
+                spaceId,
+                serviceInstanceName,
+                () ->
+                        getSpaceServiceInstance(cloudFoundryClient, serviceInstanceName, spaceId)
+                                .map(ResourceUtils::getId));
     }
 
     private static Mono<UnionServiceInstanceResource> getSpaceUserProvidedServiceInstance(
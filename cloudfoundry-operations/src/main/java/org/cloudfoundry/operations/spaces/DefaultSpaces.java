@@ -62,6 +62,8 @@ import org.cloudfoundry.client.v2.spaces.SpaceResource;
 import org.cloudfoundry.client.v2.spaces.UpdateSpaceRequest;
 import org.cloudfoundry.client.v2.spaces.UpdateSpaceResponse;
 import org.cloudfoundry.operations.spaceadmin.SpaceQuota;
+import org.cloudfoundry.operations.util.NameResolutionCache;
+import org.cloudfoundry.operations.util.NameResolutionCache.Kind;
 import org.cloudfoundry.operations.util.OperationsLogging;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
@@ -74,6 +76,8 @@ public final class DefaultSpaces implements Spaces {
 
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
+    private final NameResolutionCache nameResolutionCache;
+
     private final Mono<String> organizationId;
 
     private final Mono<String> username;
@@ -82,7 +86,16 @@ public final class DefaultSpaces implements Spaces {
             Mono<CloudFoundryClient> cloudFoundryClient,
             Mono<String> organizationId,
             Mono<String> username) {
+        this(cloudFoundryClient, organizationId, username, NameResolutionCache.disabled());
+    }
+
+    public DefaultSpaces(
+            Mono<CloudFoundryClient> cloudFoundryClient,
+            Mono<String> organizationId,
+            Mono<String> username,
+            NameResolutionCache nameResolutionCache) {
         this.cloudFoundryClient = cloudFoundryClient;
+        this.nameResolutionCache = nameResolutionCache;
         this.organizationId = organizationId;
         this.username = username;
     }
@@ -178,6 +191,7 @@ public final class DefaultSpaces implements Spaces {
                                                         organizationId,
                                                         request.getName()))))
                 .flatMap(function(DefaultSpaces::deleteSpace))
+                .doFinally(signal -> this.nameResolutionCache.invalidate())
                 .transform(OperationsLogging.log("Delete Space"))
                 .checkpoint();
     }
@@ -251,6 +265,7 @@ public final class DefaultSpaces implements Spaces {
                                         requestUpdateSpace(
                                                 cloudFoundryClient, spaceId, request.getNewName())))
                 .then()
+                .doFinally(signal -> this.nameResolutionCache.invalidate(Kind.SPACE))
                 .transform(OperationsLogging.log("Rename Space"))
                 .checkpoint();
     }
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * A cache of the ids that names resolve to, shared by the operations created by a {@link org.cloudfoundry.operations.CloudFoundryOperations}. Names are resolved within a scope, such as the id of
+ * the space that an application belongs to. Only successful resolutions are cached, each for at most the configured TTL, and the least recently used resolutions are evicted once the configured
+ * maximum number is reached. Operations that delete or rename a resource invalidate the resolutions of that kind. A resolution that was started before an invalidation is not cached, as it may
+ * have observed the resource before it changed.
+ */
+public final class NameResolutionCache {
+
+    private final Map<Key, Resolution> resolutions = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final int maximumSize;
+
+    private long generation;
+
+    private final long ttl;
+
+    /**
+     * Creates a new instance
+     *
+     * @param maximumSize the maximum number of resolutions to cache
+     * @param ttl         the maximum time that a resolution is cached for
+     */
+    public NameResolutionCache(int maximumSize, Duration ttl) {
+        this.maximumSize = maximumSize;
+        this.ttl = ttl.toNanos();
+    }
+
+    /**
+     * Returns a cache that does not cache any resolutions
+     *
+     * @return a cache that does not cache any resolutions
+     */
+    public static NameResolutionCache disabled() {
+        return new NameResolutionCache(0, Duration.ZERO);
+    }
+
+    /**
+     * Removes all cached resolutions
+     */
+    public synchronized void invalidate() {
+        this.resolutions.clear();
+        this.generation++;
+    }
+
+    /**
+     * Removes all cached resolutions of a kind
+     *
+     * @param kind the kind of resolutions to remove
+     */
+    public synchronized void invalidate(Kind kind) {
+        this.resolutions.keySet().removeIf(key -> key.kind == kind);
+        this.generation++;
+    }
+
+    /**
+     * Removes all cached resolutions of a kind within a scope
+     *
+     * @param kind  the kind of resolutions to remove
+     * @param scope the scope of resolutions to remove, such as an organization id
+     */
+    public synchronized void invalidate(Kind kind, String scope) {
+        this.resolutions.keySet().removeIf(key -> key.kind == kind && key.scope.equals(scope));
+        this.generation++;
+    }
+
+    /**
+     * Resolves a name to an id, using a cached resolution if one exists
+     *
+     * @param kind     the kind of resource that is named
+     * @param scope    the scope that the name is unique within, such as a space id
+     * @param name     the name to resolve
+     * @param resolver the resolver to use if no resolution is cached
+     * @return the id that the name resolves to
+     */
+    public Mono<String> resolve(
+            Kind kind, String scope, String name, Supplier<Mono<String>> resolver) {
+        if (this.maximumSize <= 0) {
+            return resolver.get();
+        }
+
+        Key key = new Key(kind, scope, name);
+
+        return Mono.defer(
+                () -> {
+                    long generation = getGeneration();
+                    String id = get(key);
+
+                    if (id != null) {
+                        return Mono.just(id);
+                    }
+
+                    return resolver.get().doOnNext(resolved -> put(key, generation, resolved));
+                });
+    }
+
+    private synchronized String get(Key key) {
+        Resolution resolution = this.resolutions.get(key);
+
+        if (resolution == null) {
+            return null;
+        }
+
+        if (System.nanoTime() - resolution.resolved > this.ttl) {
+            this.resolutions.remove(key);
+            return null;
+        }
+
+        return resolution.id;
+    }
+
+    private synchronized long getGeneration() {
+        return this.generation;
+    }
+
+    private synchronized void put(Key key, long generation, String id) {
+        if (this.generation != generation) {
+            return;
+        }
+
+        this.resolutions.put(key, new Resolution(id));
+
+        if (this.resolutions.size() > this.maximumSize) {
+            this.resolutions.remove(this.resolutions.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * The kinds of resource that names are resolved for
+     */
+    public enum Kind {
+        APPLICATION,
+        DOMAIN,
+        ORGANIZATION,
+        SERVICE,
+        SERVICE_INSTANCE,
+        SERVICE_PLAN,
+        SPACE,
+        SPACE_ORGANIZATION,
+        STACK
+    }
+
+    private static final class Key {
+
+        private final Kind kind;
+
+        private final String name;
+
+        private final String scope;
+
+        private Key(Kind kind, String scope, String name) {
+            this.kind = kind;
+            this.name = name;
+            this.scope = scope;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) o;
+            return this.kind == other.kind
+                    && this.name.equals(other.name)
+                    && this.scope.equals(other.scope);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * this.kind.hashCode() + this.name.hashCode()) + this.scope.hashCode();
+        }
+    }
+
+    private static final class Resolution {
+
+        private final String id;
+
+        private final long resolved = System.nanoTime();
+
+        private Resolution(String id) {
+            this.id = id;
+        }
+    }
+}
@@ -22,6 +22,8 @@ import static org.cloudfoundry.client.v3.LifecycleType.DOCKER;
 import static org.cloudfoundry.operations.TestObjects.fill;
 import static org.mockito.Mockito.RETURNS_SMART_NULLS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
@@ -138,9 +140,11 @@ import org.cloudfoundry.doppler.DopplerClient;
 import org.cloudfoundry.doppler.Envelope;
 import org.cloudfoundry.doppler.EventType;
 import org.cloudfoundry.doppler.LogMessage;
+import org.cloudfoundry.doppler.MessageType;
 import org.cloudfoundry.doppler.RecentLogsRequest;
 import org.cloudfoundry.doppler.StreamRequest;
 import org.cloudfoundry.operations.AbstractOperationsTest;
+import org.cloudfoundry.operations.util.NameResolutionCache;
 import org.cloudfoundry.util.DateUtils;
 import org.cloudfoundry.util.FluentMap;
 import org.cloudfoundry.util.ResourceMatchingUtils;
@@ -1345,6 +1349,48 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
                 .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void logsReconnect() {
+        requestApplications(
+                this.cloudFoundryClient,
+                "test-application-name",
+                TEST_SPACE_ID,
+                "test-metadata-id");
+        requestLogsRecentReconnect(this.dopplerClient, "test-metadata-id");
+        requestLogsStreamReconnect(this.dopplerClient, "test-metadata-id");
+
+        this.applications
+                .logs(LogsRequest.builder().name("test-application-name").reconnect(true).build())
+                .as(StepVerifier::create)
+                .expectNext(logMessage(1L, "0"))
+                .expectNext(logMessage(2L, "0"))
+                .expectNext(logMessage(1L, "1"))
+                .expectNext(logMessage(2L, "1"))
+                .expectNext(logMessage(3L, "0"))
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void logsReconnectError() {
+        requestApplications(
+                this.cloudFoundryClient,
+                "test-application-name",
+                TEST_SPACE_ID,
+                "test-metadata-id");
+        requestLogsStreamReconnectError(this.dopplerClient, "test-metadata-id");
+
+        this.applications
+                .logs(LogsRequest.builder().name("test-application-name").reconnect(true).build())
+                .as(StepVerifier::create)
+                .consumeErrorWith(
+                        t ->
+                                assertThat(t)
+                                        .isInstanceOf(IllegalArgumentException.class)
+                                        .hasMessage("test-error"))
+                .verify(Duration.ofSeconds(5));
+    }
+
     @Test
     public void logsRecentNotSet() {
         requestApplications(
@@ -3248,6 +3294,42 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
                 .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void renameInvalidatesNameResolutions() {
+        requestApplications(
+                this.cloudFoundryClient, "test-app-name", TEST_SPACE_ID, "test-metadata-id");
+        requestUpdateApplicationRename(
+                this.cloudFoundryClient, "test-metadata-id", "test-new-app-name");
+
+        DefaultApplications applications =
+                new DefaultApplications(
+                        Mono.just(this.cloudFoundryClient),
+                        Mono.just(this.dopplerClient),
+                        new NameResolutionCache(10, Duration.ofMinutes(1)),
+                        this.randomWords,
+                        Mono.just(TEST_SPACE_ID));
+
+        for (int i = 0; i < 2; i++) {
+            applications
+                    .rename(
+                            RenameApplicationRequest.builder()
+                                    .name("test-app-name")
+                                    .newName("test-new-app-name")
+                                    .build())
+                    .as(StepVerifier::create)
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+        }
+
+        verify(this.spaces, times(2))
+                .listApplications(
+                        ListSpaceApplicationsRequest.builder()
+                                .name("test-app-name")
+                                .page(1)
+                                .spaceId(TEST_SPACE_ID)
+                                .build());
+    }
+
     @Test
     public void renameNoApp() {
         requestApplicationsEmpty(this.cloudFoundryClient, "test-app-name", TEST_SPACE_ID);
@@ -4013,6 +4095,24 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
                 .verify(Duration.ofSeconds(5));
     }
 
+    private static Envelope logEnvelope(Long timestamp, String sourceInstance) {
+        return Envelope.builder()
+                .eventType(EventType.LOG_MESSAGE)
+                .logMessage(logMessage(timestamp, sourceInstance))
+                .origin("rsp")
+                .build();
+    }
+
+    private static LogMessage logMessage(Long timestamp, String sourceInstance) {
+        return LogMessage.builder()
+                .message("test-message")
+                .messageType(MessageType.OUT)
+                .sourceInstance(sourceInstance)
+                .sourceType("APP/PROC/WEB")
+                .timestamp(timestamp)
+                .build();
+    }
+
     private static void provideRandomWords(RandomWords randomWords) {
         when(randomWords.getAdjective()).thenReturn("test-adjective");
         when(randomWords.getNoun()).thenReturn("test-noun");
@@ -5317,6 +5417,13 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
                                         .build()));
     }
 
+    private static void requestLogsRecentReconnect(
+            DopplerClient dopplerClient, String applicationId) {
+        when(dopplerClient.recentLogs(
+                        RecentLogsRequest.builder().applicationId(applicationId).build()))
+                .thenReturn(Flux.just(logEnvelope(2L, "0"), logEnvelope(1L, "0")));
+    }
+
     private static void requestLogsStream(DopplerClient dopplerClient, String applicationId) {
         when(dopplerClient.stream(StreamRequest.builder().applicationId(applicationId).build()))
                 .thenReturn(
@@ -5329,6 +5436,29 @@ public final class DefaultApplicationsTest extends AbstractOperationsTest {
                                         .build()));
     }
 
+    private static void requestLogsStreamReconnect(
+            DopplerClient dopplerClient, String applicationId) {
+        when(dopplerClient.stream(StreamRequest.builder().applicationId(applicationId).build()))
+                .thenReturn(
+                        Flux.concat(
+                                Flux.just(logEnvelope(1L, "0")),
+                                Flux.error(new IllegalStateException("test-error"))))
+                .thenReturn(
+                        Flux.concat(
+                                Flux.just(
+                                        logEnvelope(2L, "0"),
+                                        logEnvelope(2L, "1"),
+                                        logEnvelope(3L, "0"),
+                                        logEnvelope(1L, "1")),
+                                Flux.never()));
+    }
+
+    private static void requestLogsStreamReconnectError(
+            DopplerClient dopplerClient, String applicationId) {
+        when(dopplerClient.stream(StreamRequest.builder().applicationId(applicationId).build()))
+                .thenReturn(Flux.error(new IllegalArgumentException("test-error")));
+    }
+
     private static void requestOrganizationSpacesByName(
             CloudFoundryClient cloudFoundryClient, String organizationId, String space) {
         when(cloudFoundryClient
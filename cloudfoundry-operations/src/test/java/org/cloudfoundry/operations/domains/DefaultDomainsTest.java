@@ -21,6 +21,8 @@ import static org.cloudfoundry.operations.TestObjects.fill;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import org.cloudfoundry.client.CloudFoundryClient;
 import org.cloudfoundry.client.v2.Metadata;
 import org.cloudfoundry.client.v2.organizations.AssociateOrganizationPrivateDomainRequest;
@@ -39,6 +41,8 @@ import org.cloudfoundry.client.v2.shareddomains.ListSharedDomainsResponse;
 import org.cloudfoundry.client.v2.shareddomains.SharedDomainEntity;
 import org.cloudfoundry.client.v2.shareddomains.SharedDomainResource;
 import org.cloudfoundry.operations.AbstractOperationsTest;
+import org.cloudfoundry.operations.util.NameResolutionCache;
+import org.cloudfoundry.operations.util.NameResolutionCache.Kind;
 import org.cloudfoundry.routing.RoutingClient;
 import org.cloudfoundry.routing.v1.routergroups.ListRouterGroupsRequest;
 import org.cloudfoundry.routing.v1.routergroups.ListRouterGroupsResponse;
@@ -234,6 +238,46 @@ public final class DefaultDomainsTest extends AbstractOperationsTest {
                 .verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void unshareDomainInvalidatesNameResolutions() {
+        requestListPrivateDomains(this.cloudFoundryClient, "test-domain", "test-domain-id");
+        requestOrganizations(this.cloudFoundryClient, "test-organization");
+        requestRemoveOrganizationPrivateDomain(
+                this.cloudFoundryClient, "test-domain-id", "test-organization-id");
+
+        NameResolutionCache nameResolutionCache =
+                new NameResolutionCache(10, Duration.ofMinutes(1));
+        AtomicInteger resolutions = new AtomicInteger();
+        Supplier<Mono<String>> resolve =
+                () ->
+                        nameResolutionCache.resolve(
+                                Kind.DOMAIN,
+                                "test-organization-id",
+                                "test-domain",
+                                () ->
+                                        Mono.fromCallable(resolutions::incrementAndGet)
+                                                .thenReturn("test-domain-id"));
+
+        resolve.get().block(Duration.ofSeconds(5));
+
+        new DefaultDomains(
+                        Mono.just(this.cloudFoundryClient),
+                        Mono.just(this.routingClient),
+                        nameResolutionCache)
+                .unshare(
+                        UnshareDomainRequest.builder()
+                                .domain("test-domain")
+                                .organization("test-organization")
+                                .build())
+                .as(StepVerifier::create)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        resolve.get().block(Duration.ofSeconds(5));
+
+        assertThat(resolutions).hasValue(2);
+    }
+
     private static void requestAssociateOrganizationPrivateDomain(
             CloudFoundryClient cloudFoundryClient, String domainId, String organizationId) {
         when(cloudFoundryClient
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cloudfoundry.operations.util.NameResolutionCache.Kind;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+public final class NameResolutionCacheTest {
+
+    private final AtomicInteger resolutions = new AtomicInteger();
+
+    @Test
+    public void disabled() {
+        NameResolutionCache cache = NameResolutionCache.disabled();
+
+        resolve(cache, "test-name", "test-id-1");
+        resolve(cache, "test-name", "test-id-2");
+
+        assertThat(this.resolutions).hasValue(2);
+    }
+
+    @Test
+    public void evict() {
+        NameResolutionCache cache = new NameResolutionCache(1, Duration.ofMinutes(1));
+
+        resolve(cache, "test-name-1", "test-id-1");
+        resolve(cache, "test-name-2", "test-id-2");
+        resolve(cache, "test-name-1", "test-id-3");
+
+        assertThat(this.resolutions).hasValue(3);
+    }
+
+    @Test
+    public void expire() {
+        NameResolutionCache cache = new NameResolutionCache(10, Duration.ZERO);
+
+        resolve(cache, "test-name", "test-id-1");
+        resolve(cache, "test-name", "test-id-2");
+
+        assertThat(this.resolutions).hasValue(2);
+    }
+
+    @Test
+    public void invalidate() {
+        NameResolutionCache cache = new NameResolutionCache(10, Duration.ofMinutes(1));
+
+        resolve(cache, "test-name", "test-id-1");
+        cache.invalidate(Kind.STACK);
+        resolve(cache, "test-name", "test-id-1");
+        cache.invalidate(Kind.APPLICATION);
+        resolve(cache, "test-name", "test-id-2");
+
+        assertThat(this.resolutions).hasValue(2);
+    }
+
+    @Test
+    public void invalidateDuringResolution() {
+        NameResolutionCache cache = new NameResolutionCache(10, Duration.ofMinutes(1));
+        Sinks.One<String> resolution = Sinks.one();
+
+        cache.resolve(
+                        Kind.APPLICATION,
+                        "test-space-id",
+                        "test-name",
+                        () ->
+                                Mono.fromCallable(this.resolutions::incrementAndGet)
+                                        .then(resolution.asMono()))
+                .as(StepVerifier::create)
+                .then(() -> cache.invalidate(Kind.APPLICATION))
+                .then(() -> resolution.tryEmitValue("test-id-1"))
+                .expectNext("test-id-1")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        resolve(cache, "test-name", "test-id-2");
+
+        assertThat(this.resolutions).hasValue(2);
+    }
+
+    @Test
+    public void invalidateScope() {
+        NameResolutionCache cache = new NameResolutionCache(10, Duration.ofMinutes(1));
+
+        resolve(cache, "test-name", "test-id-1");
+        cache.invalidate(Kind.APPLICATION, "test-other-space-id");
+        resolve(cache, "test-name", "test-id-1");
+        cache.invalidate(Kind.APPLICATION, "test-space-id");
+        resolve(cache, "test-name", "test-id-2");
+
+        assertThat(this.resolutions).hasValue(2);
+    }
+
+    @Test
+    public void resolve() {
+        NameResolutionCache cache = new NameResolutionCache(10, Duration.ofMinutes(1));
+
+        resolve(cache, "test-name", "test-id-1");
+        resolve(cache, "test-name", "test-id-1");
+
+        assertThat(this.resolutions).hasValue(1);
+    }
+
+    @Test
+    public void resolveError() {
+        NameResolutionCache cache = new NameResolutionCache(10, Duration.ofMinutes(1));
+
+        cache.resolve(
+                        Kind.APPLICATION,
+                        "test-space-id",
+                        "test-name",
+                        () ->
+                                Mono.fromCallable(this.resolutions::incrementAndGet)
+                                        .then(Mono.error(new IllegalArgumentException())))
+                .as(StepVerifier::create)
+                .expectError(IllegalArgumentException.class)
+                .verify(Duration.ofSeconds(5));
+        resolve(cache, "test-name", "test-id-2");
+
+        assertThat(this.resolutions).hasValue(2);
+    }
+
+    private void resolve(NameResolutionCache cache, String name, String expected) {
+        String id = "test-id-" + (this.resolutions.get() + 1);
+
+        cache.resolve(
+                        Kind.APPLICATION,
+                        "test-space-id",
+                        name,
+                        () -> Mono.fromCallable(this.resolutions::incrementAndGet).thenReturn(id))
+                .as(StepVerifier::create)
+                .expectNext(expected)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+}
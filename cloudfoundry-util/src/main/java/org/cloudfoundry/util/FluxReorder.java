@@ -0,0 +1,391 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import org.cloudfoundry.util.SortingUtils.OverflowStrategy;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxOperator;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+/**
+ * Reorders the elements of a {@link Flux}, holding each element for a timespan after it arrives so that elements arriving later can be sorted ahead of it. At most {@code capacity} elements are
+ * held, and one more is requested from the source so that the overflow strategy is applied when an element arrives to find the buffer full. Elements are only emitted when requested. Arriving elements are handed off through a single-producer queue, and the reordering itself
+ * is done by whichever thread wins the right to drain, so that no lock is ever held.
+ */
+final class FluxReorder<T> extends FluxOperator<T, T> {
+
+    private final int capacity;
+
+    private final Comparator<? super T> comparator;
+
+    private final OverflowStrategy overflowStrategy;
+
+    private final Scheduler scheduler;
+
+    private final long timespan;
+
+    FluxReorder(
+            Flux<? extends T> source,
+            Comparator<? super T> comparator,
+            long timespan,
+            int capacity,
+            OverflowStrategy overflowStrategy,
+            Scheduler scheduler) {
+        super(source);
+        this.capacity = capacity;
+        this.comparator = comparator;
+        this.overflowStrategy = overflowStrategy;
+        this.scheduler = scheduler;
+        this.timespan = timespan;
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        this.source.subscribe(
+                new ReorderSubscriber<>(
+                        actual,
+                        this.comparator,
+                        this.timespan,
+                        this.capacity,
+                        this.overflowStrategy,
+                        this.scheduler));
+    }
+
+    private static final class Element<T> {
+
+        private final long arrived;
+
+        private final long sequence;
+
+        private final T value;
+
+        private Element(T value, long arrived, long sequence) {
+            this.arrived = arrived;
+            this.sequence = sequence;
+            this.value = value;
+        }
+    }
+
+    private static final class ReorderSubscriber<T> implements CoreSubscriber<T>, Subscription {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicLongFieldUpdater<ReorderSubscriber> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(ReorderSubscriber.class, "requested");
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<ReorderSubscriber> WIP =
+                AtomicIntegerFieldUpdater.newUpdater(ReorderSubscriber.class, "wip");
+
+        private final CoreSubscriber<? super T> actual;
+
+        private final int capacity;
+
+        private final Queue<Element<T>> heap;
+
+        private final OverflowStrategy overflowStrategy;
+
+        private final int prefetch;
+
+        private final Queue<Element<T>> queue;
+
+        private final Scheduler scheduler;
+
+        private final long timespan;
+
+        private volatile boolean cancelled;
+
+        private volatile boolean done;
+
+        private Throwable error;
+
+        private volatile long requested;
+
+        private long sequence;
+
+        private Disposable timer;
+
+        private long timerDeadline;
+
+        private volatile boolean timerPending;
+
+        private Subscription upstream;
+
+        private volatile int wip;
+
+        private ReorderSubscriber(
+                CoreSubscriber<? super T> actual,
+                Comparator<? super T> comparator,
+                long timespan,
+                int capacity,
+                OverflowStrategy overflowStrategy,
+                Scheduler scheduler) {
+            this.actual = actual;
+            this.capacity = capacity;
+            this.heap =
+                    new PriorityQueue<>(
+                            Comparator.<Element<T>, T>comparing(
+                                            element -> element.value, comparator)
+                                    .thenComparingLong(element -> element.sequence));
+            this.overflowStrategy = overflowStrategy;
+            this.prefetch = capacity == Integer.MAX_VALUE ? capacity : capacity + 1;
+            this.queue = Queues.<Element<T>>get(this.prefetch).get();
+            this.scheduler = scheduler;
+            this.timespan = timespan;
+        }
+
+        @Override
+        public void cancel() {
+            if (this.cancelled) {
+                return;
+            }
+
+            this.cancelled = true;
+            this.upstream.cancel();
+
+            if (WIP.getAndIncrement(this) == 0) {
+                clear();
+            }
+        }
+
+        @Override
+        public Context currentContext() {
+            return this.actual.currentContext();
+        }
+
+        @Override
+        public void onComplete() {
+            if (this.done) {
+                return;
+            }
+
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (this.done) {
+                Operators.onErrorDropped(t, currentContext());
+                return;
+            }
+
+            this.error = t;
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onNext(T t) {
+            if (this.done) {
+                Operators.onNextDropped(t, currentContext());
+                return;
+            }
+
+            if (!this.queue.offer(
+                    new Element<>(t, this.scheduler.now(TimeUnit.NANOSECONDS), this.sequence++))) {
+                Operators.onDiscard(t, currentContext());
+                onError(
+                        Operators.onOperatorError(
+                                this.upstream,
+                                Exceptions.failWithOverflow(
+                                        "Source emitted more elements than requested"),
+                                t,
+                                currentContext()));
+                return;
+            }
+
+            drain();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (Operators.validate(this.upstream, s)) {
+                this.upstream = s;
+                this.actual.onSubscribe(this);
+                s.request(this.prefetch == Integer.MAX_VALUE ? Long.MAX_VALUE : this.prefetch);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                drain();
+            }
+        }
+
+        private void clear() {
+            if (this.timer != null) {
+                this.timer.dispose();
+            }
+
+            Element<T> element;
+            while ((element = this.queue.poll()) != null) {
+                Operators.onDiscard(element.value, currentContext());
+            }
+            while ((element = this.heap.poll()) != null) {
+                Operators.onDiscard(element.value, currentContext());
+            }
+        }
+
+        private void drain() {
+            if (WIP.getAndIncrement(this) != 0) {
+                return;
+            }
+
+            int missed = 1;
+
+            for (; ; ) {
+                if (this.cancelled) {
+                    clear();
+                    return;
+                }
+
+                boolean d = this.done;
+                long released = 0;
+
+                if (d && this.error != null) {
+                    clear();
+                    this.actual.onError(this.error);
+                    return;
+                }
+
+                fill();
+
+                if (isFull() && !d) {
+                    if (OverflowStrategy.ERROR == this.overflowStrategy) {
+                        this.cancelled = true;
+                        this.upstream.cancel();
+                        clear();
+                        this.actual.onError(
+                                Exceptions.failWithOverflow(
+                                        String.format(
+                                                "More than %d elements arrived within the timespan",
+                                                this.capacity)));
+                        return;
+                    }
+
+                    if (OverflowStrategy.DROP_OLDEST == this.overflowStrategy) {
+                        while (isFull()) {
+                            Operators.onDiscard(this.heap.remove().value, currentContext());
+                            released++;
+                            fill();
+                        }
+                    }
+                }
+
+                long now = this.scheduler.now(TimeUnit.NANOSECONDS);
+                long r = this.requested;
+                long emitted = 0;
+
+                while (emitted != r && isReady(this.heap.peek(), d, now)) {
+                    if (this.cancelled) {
+                        clear();
+                        return;
+                    }
+
+                    this.actual.onNext(this.heap.remove().value);
+                    emitted++;
+                    fill();
+                }
+
+                if (d && this.heap.isEmpty() && this.queue.isEmpty()) {
+                    clear();
+                    this.actual.onComplete();
+                    return;
+                }
+
+                if (emitted != 0 && r != Long.MAX_VALUE) {
+                    REQUESTED.addAndGet(this, -emitted);
+                }
+
+                released += emitted;
+                if (released != 0 && !d && this.prefetch != Integer.MAX_VALUE) {
+                    this.upstream.request(released);
+                }
+
+                schedule(this.heap.peek(), now);
+
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        private void fill() {
+            while (this.heap.size() < this.capacity && !this.queue.isEmpty()) {
+                this.heap.add(this.queue.poll());
+            }
+        }
+
+        private boolean isFull() {
+            return this.heap.size() >= this.capacity && !this.queue.isEmpty();
+        }
+
+        private boolean isReady(Element<T> element, boolean d, long now) {
+            return element != null
+                    && (d
+                            || now - element.arrived >= this.timespan
+                            || (OverflowStrategy.EMIT_EARLY == this.overflowStrategy && isFull()));
+        }
+
+        private void schedule(Element<T> element, long now) {
+            if (element == null) {
+                return;
+            }
+
+            long deadline = element.arrived + this.timespan;
+
+            if (deadline - now <= 0) {
+                return;
+            }
+
+            if (this.timerPending && deadline - this.timerDeadline >= 0) {
+                return;
+            }
+
+            if (this.timer != null) {
+                this.timer.dispose();
+            }
+
+            this.timerDeadline = deadline;
+            this.timerPending = true;
+            this.timer =
+                    this.scheduler.schedule(
+                            () -> {
+                                this.timerPending = false;
+                                drain();
+                            },
+                            deadline - now,
+                            TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -16,16 +16,42 @@
 
 package org.cloudfoundry.util;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.cloudfoundry.logcache.v1.Envelope;
+import org.cloudfoundry.logcache.v1.ReadRequest;
+import org.cloudfoundry.logcache.v1.ReadResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * A utility class to provide functions for handling PaginatedResponse and those containing lists of Resources.
+ * <p>
+ * Resources are emitted as soon as the page that contains them arrives, and in page order.  Additional pages are requested with a bounded concurrency and only as the downstream subscriber
+ * signals demand, so a slow subscriber stops further pages from being requested rather than having them accumulate in memory.
  */
 public final class PaginationUtils {
 
+    /**
+     * The default maximum number of pages requested concurrently
+     */
+    public static final int DEFAULT_CONCURRENCY = 4;
+
+    /**
+     * The default number of pages requested ahead of the page being consumed when following {@code next} links
+     */
+    public static final int DEFAULT_CURSOR_PREFETCH = 1;
+
+    private static final int LOG_CACHE_LIMIT = 1000;
+
+    private static final Pattern PAGE = Pattern.compile("[?&]page=(\\d+)");
+
     private PaginationUtils() {}
 
     /**
@@ -40,11 +66,28 @@ public final class PaginationUtils {
                     T extends org.cloudfoundry.client.v2.Resource<?>,
                     U extends org.cloudfoundry.client.v2.PaginatedResponse<T>>
             Flux<T> requestClientV2Resources(Function<Integer, Mono<U>> pageSupplier) {
+        return requestClientV2Resources(pageSupplier, DEFAULT_CONCURRENCY);
+    }
 
-        return pageSupplier
-                .apply(1)
-                .flatMapMany(requestClientV2AdditionalPages(pageSupplier))
-                .flatMap(ResourceUtils::getResources);
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.client.v2.PaginatedResponse}s.
+     * @param concurrency  the maximum number of pages requested concurrently
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <
+                    T extends org.cloudfoundry.client.v2.Resource<?>,
+                    U extends org.cloudfoundry.client.v2.PaginatedResponse<T>>
+            Flux<T> requestClientV2Resources(
+                    Function<Integer, Mono<U>> pageSupplier, int concurrency) {
+        return requestResources(
+                pageSupplier,
+                response -> pageRange(response.getTotalPages()),
+                org.cloudfoundry.client.v2.PaginatedResponse::getResources,
+                concurrency);
     }
 
     /**
@@ -55,13 +98,171 @@ public final class PaginationUtils {
      * @param <U>          the type of {@link org.cloudfoundry.client.v3.PaginatedResponse}.
      * @return a stream of <code>T</code> objects.
      */
-    @SuppressWarnings("rawtypes")
     public static <T, U extends org.cloudfoundry.client.v3.PaginatedResponse<T>>
             Flux<T> requestClientV3Resources(Function<Integer, Mono<U>> pageSupplier) {
-        return pageSupplier
-                .apply(1)
-                .flatMapMany(requestClientV3AdditionalPages(pageSupplier))
-                .flatMapIterable(org.cloudfoundry.client.v3.PaginatedResponse::getResources);
+        return requestClientV3Resources(pageSupplier, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.client.v3.PaginatedResponse}s.
+     * @param concurrency  the maximum number of pages requested concurrently
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <T, U extends org.cloudfoundry.client.v3.PaginatedResponse<T>>
+            Flux<T> requestClientV3Resources(
+                    Function<Integer, Mono<U>> pageSupplier, int concurrency) {
+        return requestResources(
+                pageSupplier,
+                response -> pageRange(response.getPagination().getTotalPages()),
+                org.cloudfoundry.client.v3.PaginatedResponse::getResources,
+                concurrency);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained by following the {@code pagination.next} link of each response, rather than by calculating pages from
+     * {@code pagination.total_pages}.  Pages are requested in order, and one page is requested ahead of the page being consumed.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.client.v3.PaginatedResponse}s.  The page number is taken from the {@code page} parameter of the
+     *                     {@code next} link.
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <T, U extends org.cloudfoundry.client.v3.PaginatedResponse<T>>
+            Flux<T> requestClientV3ResourcesByCursor(Function<Integer, Mono<U>> pageSupplier) {
+        return requestClientV3ResourcesByCursor(pageSupplier, DEFAULT_CURSOR_PREFETCH);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained by following the {@code pagination.next} link of each response, rather than by calculating pages from
+     * {@code pagination.total_pages}.  Pages are requested in order, and up to {@code prefetch} pages are requested ahead of the page being consumed.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.client.v3.PaginatedResponse}s.  The page number is taken from the {@code page} parameter of the
+     *                     {@code next} link.
+     * @param prefetch     the maximum number of pages requested ahead of the page being consumed
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <T, U extends org.cloudfoundry.client.v3.PaginatedResponse<T>>
+            Flux<T> requestClientV3ResourcesByCursor(
+                    Function<Integer, Mono<U>> pageSupplier, int prefetch) {
+        return requestClientV3ResourcesByCursor(
+                pageSupplier.apply(1), href -> pageSupplier.apply(getPage(href)), prefetch);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained by following the {@code pagination.next} link of each response.  Pages are requested in order, and up to
+     * {@code prefetch} pages are requested ahead of the page being consumed.
+     *
+     * @param firstPage    the first {@link org.cloudfoundry.client.v3.PaginatedResponse}
+     * @param linkSupplier a function from the raw {@code href} of a {@code next} link to a {@link Mono} of {@link org.cloudfoundry.client.v3.PaginatedResponse}s.
+     * @param prefetch     the maximum number of pages requested ahead of the page being consumed
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <T, U extends org.cloudfoundry.client.v3.PaginatedResponse<T>>
+            Flux<T> requestClientV3ResourcesByCursor(
+                    Mono<U> firstPage, Function<String, Mono<U>> linkSupplier, int prefetch) {
+
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("prefetch must be greater than 0");
+        }
+
+        return lookAhead(
+                firstPage.expand(
+                        response ->
+                                getNext(response).map(linkSupplier).orElse(Mono.empty())),
+                org.cloudfoundry.client.v3.PaginatedResponse::getResources,
+                prefetch);
+    }
+
+    /**
+     * Generate the stream of envelopes accumulated from a series of Log Cache read responses that cover the time range of a request.  Pages are requested one at a time.
+     *
+     * @param pageSupplier a function from {@link ReadRequest}s to {@link Mono}s of {@link ReadResponse}s, such as {@link org.cloudfoundry.logcache.v1.LogCacheClient#read(ReadRequest)}
+     * @param request      the request for the first page
+     * @return a stream of {@link Envelope}s
+     * @see #requestLogCacheEnvelopes(Function, ReadRequest, int)
+     */
+    public static Flux<Envelope> requestLogCacheEnvelopes(
+            Function<ReadRequest, Mono<ReadResponse>> pageSupplier, ReadRequest request) {
+        return requestLogCacheEnvelopes(pageSupplier, request, DEFAULT_CURSOR_PREFETCH);
+    }
+
+    /**
+     * Generate the stream of envelopes accumulated from a series of Log Cache read responses that cover the time range of a request.  Each page starts where the previous page ended: the
+     * {@code start_time} of the next page is the timestamp of the last envelope when reading forwards, and the {@code end_time} of the next page is just after the timestamp of the last envelope
+     * when reading {@code descending}.  Envelopes on the boundary between pages are only emitted once.  Pages are read until one contains fewer envelopes than the {@code limit}, which defaults
+     * to, and is at most, 1000.  If a whole page shares a single timestamp, envelopes with that timestamp beyond the page are skipped so that reading can progress.
+     *
+     * @param pageSupplier a function from {@link ReadRequest}s to {@link Mono}s of {@link ReadResponse}s, such as {@link org.cloudfoundry.logcache.v1.LogCacheClient#read(ReadRequest)}
+     * @param request      the request for the first page
+     * @param prefetch     the maximum number of pages requested ahead of the page being consumed
+     * @return a stream of {@link Envelope}s
+     */
+    public static Flux<Envelope> requestLogCacheEnvelopes(
+            Function<ReadRequest, Mono<ReadResponse>> pageSupplier,
+            ReadRequest request,
+            int prefetch) {
+
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("prefetch must be greater than 0");
+        }
+
+        // Log Cache returns at most 1000 envelopes, so a larger limit would end on the first page
+        int limit =
+                Math.min(
+                        Optional.ofNullable(request.getLimit()).orElse(LOG_CACHE_LIMIT),
+                        LOG_CACHE_LIMIT);
+        ReadRequest first = ReadRequest.builder().from(request).limit(limit).build();
+
+        return lookAhead(
+                requestLogCachePage(pageSupplier, first, Collections.emptySet())
+                        .expand(
+                                page ->
+                                        Optional.ofNullable(page.next)
+                                                .map(
+                                                        next ->
+                                                                requestLogCachePage(
+                                                                        pageSupplier,
+                                                                        next,
+                                                                        page.boundary))
+                                                .orElse(Mono.empty())),
+                page -> page.envelopes,
+                prefetch);
+    }
+
+    /**
+     * Generate the stream of envelopes accumulated from a series of Log Cache read responses that cover the time range of each of a number of requests, typically for different source ids.
+     * The envelopes for each request are emitted together, in the order of the requests, while the following requests are read ahead with a bounded concurrency.
+     *
+     * @param pageSupplier a function from {@link ReadRequest}s to {@link Mono}s of {@link ReadResponse}s, such as {@link org.cloudfoundry.logcache.v1.LogCacheClient#read(ReadRequest)}
+     * @param requests     the requests for the first page of each source id
+     * @param concurrency  the maximum number of requests read concurrently
+     * @param prefetch     the maximum number of pages requested ahead of the page being consumed for each request
+     * @return a stream of {@link Envelope}s
+     * @see #requestLogCacheEnvelopes(Function, ReadRequest, int)
+     */
+    public static Flux<Envelope> requestLogCacheEnvelopes(
+            Function<ReadRequest, Mono<ReadResponse>> pageSupplier,
+            Iterable<ReadRequest> requests,
+            int concurrency,
+            int prefetch) {
+
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be greater than 0");
+        }
+
+        return Flux.fromIterable(requests)
+                .flatMapSequential(
+                        request -> requestLogCacheEnvelopes(pageSupplier, request, prefetch),
+                        concurrency);
     }
 
     /**
@@ -72,53 +273,167 @@ public final class PaginationUtils {
      * @param <U>          the type of {@link org.cloudfoundry.uaa.PaginatedResponse}.
      * @return a stream of <code>T</code> objects.
      */
-    @SuppressWarnings("rawtypes")
     public static <T, U extends org.cloudfoundry.uaa.PaginatedResponse<T>>
             Flux<T> requestUaaResources(Function<Integer, Mono<U>> pageSupplier) {
+        return requestUaaResources(pageSupplier, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.uaa.PaginatedResponse}s.
+     * @param concurrency  the maximum number of pages requested concurrently
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.uaa.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.uaa.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <T, U extends org.cloudfoundry.uaa.PaginatedResponse<T>>
+            Flux<T> requestUaaResources(Function<Integer, Mono<U>> pageSupplier, int concurrency) {
+        return requestResources(
+                pageSupplier,
+                PaginationUtils::uaaStartIndexes,
+                org.cloudfoundry.uaa.PaginatedResponse::getResources,
+                concurrency);
+    }
+
+    private static Optional<String> getNext(
+            org.cloudfoundry.client.v3.PaginatedResponse<?> response) {
+        return Optional.ofNullable(response.getPagination())
+                .map(org.cloudfoundry.client.v3.Pagination::getNext)
+                .map(org.cloudfoundry.client.v3.Link::getHref);
+    }
+
+    private static Integer getPage(String href) {
+        Matcher matcher = PAGE.matcher(href);
+
+        if (!matcher.find()) {
+            throw new IllegalStateException(
+                    String.format("Unable to determine page from link %s", href));
+        }
+
+        return Integer.valueOf(matcher.group(1));
+    }
+
+    private static long getTimestamp(Envelope envelope) {
+        return Optional.ofNullable(envelope.getTimestamp()).orElse(0L);
+    }
+
+    private static <P, R> Flux<R> lookAhead(
+            Flux<P> pages, Function<P, Iterable<R>> resources, int prefetch) {
+        // expand requests the page after each page it emits, so requesting one more page each
+        // time a page is consumed keeps prefetch pages ahead of the page being consumed
+        return pages.limitRate(prefetch, 1).flatMapIterable(resources, 1);
+    }
+
+    private static Optional<ReadRequest> nextLogCacheRequest(
+            ReadRequest request, long timestamp, boolean boundary) {
+        ReadRequest.Builder builder = ReadRequest.builder().from(request);
+
+        if (Optional.ofNullable(request.getDescending()).orElse(false)) {
+            long endTime = boundary ? timestamp + 1 : timestamp;
+
+            if (request.getStartTime() != null && endTime <= request.getStartTime()) {
+                return Optional.empty();
+            }
+
+            return Optional.of(builder.endTime(endTime).build());
+        } else {
+            long startTime = boundary ? timestamp : timestamp + 1;
+
+            if (request.getEndTime() != null && startTime >= request.getEndTime()) {
+                return Optional.empty();
+            }
+
+            return Optional.of(builder.startTime(startTime).build());
+        }
+    }
+
+    private static Flux<Integer> pageRange(Integer totalPages) {
+        int count = Optional.ofNullable(totalPages).orElse(1) - 1;
+        return count > 0 ? Flux.range(2, count) : Flux.empty();
+    }
+
+    private static <R, U> Flux<R> requestResources(
+            Function<Integer, Mono<U>> pageSupplier,
+            Function<U, Flux<Integer>> additionalPages,
+            Function<U, Iterable<R>> resources,
+            int concurrency) {
+
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be greater than 0");
+        }
+
         return pageSupplier
                 .apply(1)
-                .flatMapMany(requestUaaAdditionalPages(pageSupplier))
-                .flatMapIterable(org.cloudfoundry.uaa.PaginatedResponse::getResources);
+                .flatMapMany(
+                        response ->
+                                additionalPages
+                                        .apply(response)
+                                        .flatMapSequential(pageSupplier, concurrency, 1)
+                                        .startWith(response))
+                .flatMapIterable(resources, 1);
     }
 
-    private static <T> Function<T, Flux<T>> requestAdditionalPages(
-            Function<Integer, Mono<T>> pageSupplier, Function<T, Integer> totalPagesSupplier) {
-        return response -> {
-            Integer totalPages = Optional.ofNullable(totalPagesSupplier.apply(response)).orElse(1);
+    private static Mono<LogCachePage> requestLogCachePage(
+            Function<ReadRequest, Mono<ReadResponse>> pageSupplier,
+            ReadRequest request,
+            Set<Envelope> previousBoundary) {
+        return pageSupplier
+                .apply(request)
+                .map(
+                        response -> {
+                            List<Envelope> batch = response.getEnvelopes().getBatch();
+                            List<Envelope> envelopes =
+                                    batch.stream()
+                                            .filter(
+                                                    envelope ->
+                                                            !previousBoundary.contains(envelope))
+                                            .collect(Collectors.toList());
 
-            return Flux.range(2, totalPages - 1)
-                    .flatMap(pageSupplier)
-                    .startWith(response)
-                    .buffer()
-                    .flatMapIterable(d -> d);
-        };
-    }
+                            if (batch.isEmpty() || batch.size() < request.getLimit()) {
+                                return new LogCachePage(envelopes, null, Collections.emptySet());
+                            }
 
-    private static <T extends org.cloudfoundry.client.v2.PaginatedResponse<?>>
-            Function<T, Flux<T>> requestClientV2AdditionalPages(
-                    Function<Integer, Mono<T>> pageSupplier) {
-        return requestAdditionalPages(pageSupplier, response -> response.getTotalPages());
+                            long timestamp = getTimestamp(batch.get(batch.size() - 1));
+                            boolean progressed = getTimestamp(batch.get(0)) != timestamp;
+                            Set<Envelope> boundary =
+                                    progressed
+                                            ? batch.stream()
+                                                    .filter(
+                                                            envelope ->
+                                                                    getTimestamp(envelope)
+                                                                            == timestamp)
+                                                    .collect(Collectors.toSet())
+                                            : Collections.emptySet();
+
+                            return new LogCachePage(
+                                    envelopes,
+                                    nextLogCacheRequest(request, timestamp, progressed)
+                                            .orElse(null),
+                                    boundary);
+                        });
     }
 
-    private static <T extends org.cloudfoundry.client.v3.PaginatedResponse<?>>
-            Function<T, Flux<T>> requestClientV3AdditionalPages(
-                    Function<Integer, Mono<T>> pageSupplier) {
-        return requestAdditionalPages(
-                pageSupplier, response -> response.getPagination().getTotalPages());
+    private static <U extends org.cloudfoundry.uaa.PaginatedResponse<?>>
+            Flux<Integer> uaaStartIndexes(U response) {
+        int totalPages = (response.getTotalResults() - 1) / response.getItemsPerPage() + 1;
+
+        return Flux.range(1, Math.max(totalPages - 1, 0))
+                .map(page -> 1 + (page * response.getItemsPerPage()));
     }
 
-    private static <T extends org.cloudfoundry.uaa.PaginatedResponse<?>>
-            Function<T, Flux<T>> requestUaaAdditionalPages(
-                    Function<Integer, Mono<T>> pageSupplier) {
-        return response -> {
-            Integer totalPages = (response.getTotalResults() - 1) / response.getItemsPerPage() + 1;
+    private static final class LogCachePage {
+
+        private final Set<Envelope> boundary;
+
+        private final List<Envelope> envelopes;
+
+        private final ReadRequest next;
 
-            return Flux.range(1, totalPages - 1)
-                    .map(page -> 1 + (page * response.getItemsPerPage()))
-                    .flatMap(pageSupplier)
-                    .startWith(response)
-                    .buffer()
-                    .flatMapIterable(d -> d);
-        };
+        private LogCachePage(List<Envelope> envelopes, ReadRequest next, Set<Envelope> boundary) {
+            this.boundary = boundary;
+            this.envelopes = envelopes;
+            this.next = next;
+        }
     }
 }
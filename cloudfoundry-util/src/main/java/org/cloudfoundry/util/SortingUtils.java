@@ -16,31 +16,25 @@
 
 package org.cloudfoundry.util;
 
-import static reactor.core.publisher.Sinks.EmitFailureHandler.FAIL_FAST;
-
 import java.time.Duration;
-import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Queue;
 import java.util.function.Function;
-import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
-import reactor.util.function.Tuple2;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Utilities for sorting
  */
 public final class SortingUtils {
 
+    private static final int DEFAULT_CAPACITY = 8192;
+
     private SortingUtils() {}
 
     /**
      * Sorts the elements of a {@link Flux} within a sliding time window.  This sorter should be used when element order may be scrambled, but that scrambling has a certain 'temporal locality' to it.
-     * This assumption means that sorting can be limited to elements that arrive temporally close to one another without risking a latecomer being sorted incorrectly.
+     * This assumption means that sorting can be limited to elements that arrive temporally close to one another without risking a latecomer being sorted incorrectly.  At most 8192 elements are
+     * held, and elements that arrive once that many are held cause the first to be emitted early.
      *
      * @param comparator a {@link Comparator} to use when sorting the elements within the window
      * @param timespan   the duration of the 'temporal locality'
@@ -49,52 +43,58 @@ public final class SortingUtils {
      */
     public static <T> Function<Flux<T>, Flux<T>> timespan(
             Comparator<T> comparator, Duration timespan) {
-        return source -> {
-            Queue<Tuple2<Long, T>> accumulator =
-                    new PriorityQueue<>((o1, o2) -> comparator.compare(o1.getT2(), o2.getT2()));
-
-            Object monitor = new Object();
-
-            Sinks.Many<Object> d = Sinks.many().multicast().directBestEffort();
+        return timespan(comparator, timespan, DEFAULT_CAPACITY, OverflowStrategy.EMIT_EARLY);
+    }
 
-            Disposable disposable =
-                    source.timestamp()
-                            .subscribe(
-                                    item -> {
-                                        synchronized (monitor) {
-                                            accumulator.add(item);
-                                        }
-                                    },
-                                    throwable -> d.emitError(throwable, FAIL_FAST),
-                                    () -> d.emitComplete(FAIL_FAST));
+    /**
+     * Sorts the elements of a {@link Flux} within a sliding time window, holding at most {@code capacity} elements.  Each element is held for the timespan after it arrives, and no more elements are
+     * requested from the source than can be held.  Elements are only emitted when they are requested, so a slow subscriber causes elements to be held for longer.  The {@code overflowStrategy}
+     * determines what happens when an element arrives once {@code capacity} elements are held.
+     *
+     * @param comparator       a {@link Comparator} to use when sorting the elements within the window
+     * @param timespan         the duration of the 'temporal locality'
+     * @param capacity         the maximum number of elements to hold
+     * @param overflowStrategy what to do when an element arrives once {@code capacity} elements are held
+     * @param <T>              The type of the elements to be sorted
+     * @return a {@link Flux} providing the sorted elements
+     */
+    public static <T> Function<Flux<T>, Flux<T>> timespan(
+            Comparator<T> comparator,
+            Duration timespan,
+            int capacity,
+            OverflowStrategy overflowStrategy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
 
-            return Flux.interval(timespan)
-                    .takeUntilOther(d.asFlux())
-                    .flatMap(
-                            n -> getItems(accumulator, monitor, timespan),
-                            null,
-                            () -> getItems(accumulator, monitor, Duration.ZERO))
-                    .doOnCancel(disposable::dispose);
-        };
+        return source ->
+                new FluxReorder<>(
+                        source,
+                        comparator,
+                        timespan.toNanos(),
+                        capacity,
+                        overflowStrategy,
+                        Schedulers.parallel());
     }
 
-    private static <T> Flux<T> getItems(
-            Queue<Tuple2<Long, T>> accumulator, Object monitor, Duration timespan) {
-        List<T> items = new ArrayList<>();
+    /**
+     * What to do when an element arrives at a sorter that holds as many elements as it can
+     */
+    public enum OverflowStrategy {
 
-        synchronized (monitor) {
-            while (isBefore(accumulator.peek(), timespan)) {
-                items.add(accumulator.remove().getT2());
-            }
-        }
+        /**
+         * Drop the element that sorts first, so that it is never emitted
+         */
+        DROP_OLDEST,
 
-        return Flux.fromIterable(items);
-    }
+        /**
+         * Emit the element that sorts first, without waiting for the timespan, once it is requested
+         */
+        EMIT_EARLY,
 
-    private static <T> boolean isBefore(Tuple2<Long, T> candidate, Duration timespan) {
-        return candidate != null
-                && (Duration.ZERO == timespan
-                        || Instant.ofEpochMilli(candidate.getT1())
-                                .isBefore(Instant.now().minus(timespan)));
+        /**
+         * Signal an {@link reactor.core.Exceptions#failWithOverflow() overflow} error
+         */
+        ERROR
     }
 }
@@ -16,17 +16,25 @@
 
 package org.cloudfoundry.util;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.RETURNS_SMART_NULLS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import org.cloudfoundry.client.v2.spaces.ListSpacesRequest;
 import org.cloudfoundry.client.v2.spaces.ListSpacesResponse;
 import org.cloudfoundry.client.v2.spaces.SpaceEntity;
 import org.cloudfoundry.client.v2.spaces.SpaceResource;
 import org.cloudfoundry.client.v2.spaces.Spaces;
+import org.cloudfoundry.client.v3.Link;
 import org.cloudfoundry.client.v3.Pagination;
 import org.cloudfoundry.client.v3.packages.BitsData;
 import org.cloudfoundry.client.v3.packages.ListPackagesRequest;
@@ -35,6 +43,10 @@ import org.cloudfoundry.client.v3.packages.PackageResource;
 import org.cloudfoundry.client.v3.packages.PackageState;
 import org.cloudfoundry.client.v3.packages.PackageType;
 import org.cloudfoundry.client.v3.packages.Packages;
+import org.cloudfoundry.logcache.v1.Envelope;
+import org.cloudfoundry.logcache.v1.EnvelopeBatch;
+import org.cloudfoundry.logcache.v1.ReadRequest;
+import org.cloudfoundry.logcache.v1.ReadResponse;
 import org.cloudfoundry.uaa.users.ListUsersRequest;
 import org.cloudfoundry.uaa.users.ListUsersResponse;
 import org.cloudfoundry.uaa.users.Meta;
@@ -63,6 +75,23 @@ public final class PaginationUtilsTest {
                 .verify(Duration.ofSeconds(1));
     }
 
+    @Test
+    public void requestClientV2ResourcesBackpressure() {
+        AtomicInteger requested = new AtomicInteger();
+
+        PaginationUtils.requestClientV2Resources(
+                        page -> {
+                            requested.incrementAndGet();
+                            return Mono.just(listSpacesResponse(page, 100));
+                        },
+                        2)
+                .as(publisher -> StepVerifier.create(publisher, 1))
+                .expectNextCount(1)
+                .then(() -> assertThat(requested.get()).isLessThanOrEqualTo(4))
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+    }
+
     @Test
     public void requestClientV2ResourcesEmpty() {
         Spaces spaces = mock(Spaces.class, RETURNS_SMART_NULLS);
@@ -89,6 +118,102 @@ public final class PaginationUtilsTest {
                 .verify(Duration.ofSeconds(1));
     }
 
+    @Test
+    public void requestClientV3ResourcesByCursor() {
+        Packages packages = mock(Packages.class, RETURNS_SMART_NULLS);
+
+        requestListPackagesWithNext(packages, 1, 2);
+        requestListPackagesWithNext(packages, 2, 3);
+        requestListPackagesWithNext(packages, 3, null);
+
+        PaginationUtils.requestClientV3ResourcesByCursor(
+                        page -> packages.list(ListPackagesRequest.builder().page(page).build()))
+                .map(PackageResource::getId)
+                .as(StepVerifier::create)
+                .expectNext("1", "2", "3")
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void requestClientV3ResourcesByCursorLookAhead() {
+        AtomicInteger requested = new AtomicInteger();
+
+        PaginationUtils.requestClientV3ResourcesByCursor(
+                        page ->
+                                Mono.fromSupplier(
+                                        () -> {
+                                            requested.incrementAndGet();
+                                            ListPackagesResponse response =
+                                                    listPackagesResponseWithNext(page, page + 1);
+
+                                            return ListPackagesResponse.builder()
+                                                    .from(response)
+                                                    .resource(response.getResources().get(0))
+                                                    .build();
+                                        }),
+                        2)
+                .as(publisher -> StepVerifier.create(publisher, 1))
+                .expectNextCount(1)
+                .then(() -> assertThat(requested.get()).isEqualTo(3))
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void requestClientV3ResourcesByCursorLink() {
+        PaginationUtils.requestClientV3ResourcesByCursor(
+                        Mono.just(listPackagesResponseWithNext(1, 2)),
+                        href ->
+                                Mono.just(
+                                        href.endsWith("page=2&per_page=1")
+                                                ? listPackagesResponseWithNext(2, null)
+                                                : listPackagesResponseWithNext(-1, null)),
+                        2)
+                .map(PackageResource::getId)
+                .as(StepVerifier::create)
+                .expectNext("1", "2")
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void requestClientV3ResourcesConcurrency() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maximumInFlight = new AtomicInteger();
+
+        PaginationUtils.requestClientV3Resources(
+                        page ->
+                                Mono.delay(Duration.ofMillis(10))
+                                        .map(n -> listPackagesResponse(page, 10))
+                                        .doOnSubscribe(
+                                                s ->
+                                                        maximumInFlight.accumulateAndGet(
+                                                                inFlight.incrementAndGet(),
+                                                                Math::max))
+                                        .doOnSuccess(r -> inFlight.decrementAndGet()),
+                        3)
+                .as(StepVerifier::create)
+                .expectNextCount(10)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertThat(maximumInFlight.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    public void requestClientV3ResourcesOrdered() {
+        PaginationUtils.requestClientV3Resources(
+                        page ->
+                                Mono.delay(Duration.ofMillis(100 - (page * 20L)))
+                                        .map(n -> listPackagesResponse(page, 4)))
+                .map(PackageResource::getId)
+                .as(StepVerifier::create)
+                .expectNext("1", "2", "3", "4")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
     @Test
     public void requestClientV3Resources() {
         Packages packages = mock(Packages.class, RETURNS_SMART_NULLS);
@@ -105,6 +230,122 @@ public final class PaginationUtilsTest {
                 .verify(Duration.ofSeconds(1));
     }
 
+    @Test
+    public void requestLogCacheEnvelopes() {
+        List<Envelope> envelopes =
+                Arrays.asList(
+                        envelope("test-source-id", 1L, "1"),
+                        envelope("test-source-id", 2L, "1"),
+                        envelope("test-source-id", 2L, "2"),
+                        envelope("test-source-id", 3L, "1"),
+                        envelope("test-source-id", 4L, "1"),
+                        envelope("test-source-id", 4L, "2"),
+                        envelope("test-source-id", 4L, "3"),
+                        envelope("test-source-id", 5L, "1"));
+
+        PaginationUtils.requestLogCacheEnvelopes(
+                        request -> read(envelopes, request),
+                        ReadRequest.builder().limit(3).sourceId("test-source-id").build())
+                .collectList()
+                .as(StepVerifier::create)
+                .expectNext(envelopes)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void requestLogCacheEnvelopesDescending() {
+        List<Envelope> envelopes =
+                Arrays.asList(
+                        envelope("test-source-id", 1L, "1"),
+                        envelope("test-source-id", 2L, "1"),
+                        envelope("test-source-id", 2L, "2"),
+                        envelope("test-source-id", 3L, "1"),
+                        envelope("test-source-id", 4L, "1"));
+
+        PaginationUtils.requestLogCacheEnvelopes(
+                        request -> read(envelopes, request),
+                        ReadRequest.builder()
+                                .descending(true)
+                                .endTime(5L)
+                                .limit(2)
+                                .sourceId("test-source-id")
+                                .build())
+                .map(envelope -> envelope.getTimestamp() + "/" + envelope.getInstanceId())
+                .as(StepVerifier::create)
+                .expectNext("4/1", "3/1", "2/1", "2/2", "1/1")
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void requestLogCacheEnvelopesLimitAboveMaximum() {
+        List<Envelope> envelopes =
+                LongStream.rangeClosed(1, 1500)
+                        .mapToObj(timestamp -> envelope("test-source-id", timestamp, "1"))
+                        .collect(Collectors.toList());
+
+        PaginationUtils.requestLogCacheEnvelopes(
+                        request -> read(envelopes, request),
+                        ReadRequest.builder().limit(5000).sourceId("test-source-id").build())
+                .as(StepVerifier::create)
+                .expectNextCount(1500)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void requestLogCacheEnvelopesMultipleSources() {
+        List<Envelope> envelopes =
+                Arrays.asList(
+                        envelope("test-source-id-1", 1L, "1"),
+                        envelope("test-source-id-2", 1L, "1"),
+                        envelope("test-source-id-1", 2L, "1"),
+                        envelope("test-source-id-2", 2L, "1"),
+                        envelope("test-source-id-1", 3L, "1"));
+
+        PaginationUtils.requestLogCacheEnvelopes(
+                        request -> read(envelopes, request),
+                        Arrays.asList(
+                                ReadRequest.builder().limit(1).sourceId("test-source-id-1").build(),
+                                ReadRequest.builder()
+                                        .limit(1)
+                                        .sourceId("test-source-id-2")
+                                        .build()),
+                        2,
+                        1)
+                .map(envelope -> envelope.getSourceId() + "/" + envelope.getTimestamp())
+                .as(StepVerifier::create)
+                .expectNext(
+                        "test-source-id-1/1",
+                        "test-source-id-1/2",
+                        "test-source-id-1/3",
+                        "test-source-id-2/1",
+                        "test-source-id-2/2")
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void requestLogCacheEnvelopesSingleTimestamp() {
+        List<Envelope> envelopes =
+                Arrays.asList(
+                        envelope("test-source-id", 1L, "1"),
+                        envelope("test-source-id", 4L, "1"),
+                        envelope("test-source-id", 4L, "2"),
+                        envelope("test-source-id", 4L, "3"),
+                        envelope("test-source-id", 5L, "1"));
+
+        PaginationUtils.requestLogCacheEnvelopes(
+                        request -> read(envelopes, request),
+                        ReadRequest.builder().limit(2).sourceId("test-source-id").build())
+                .map(envelope -> envelope.getTimestamp() + "/" + envelope.getInstanceId())
+                .as(StepVerifier::create)
+                .expectNext("1/1", "4/1", "4/2", "5/1")
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
     @Test
     public void requestUaaResources() {
         Users users = mock(Users.class, RETURNS_SMART_NULLS);
@@ -138,6 +379,84 @@ public final class PaginationUtilsTest {
                 .verify(Duration.ofSeconds(1));
     }
 
+    private static Envelope envelope(String sourceId, Long timestamp, String instanceId) {
+        return Envelope.builder()
+                .instanceId(instanceId)
+                .sourceId(sourceId)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private static ListPackagesResponse listPackagesResponse(Integer page, Integer totalPages) {
+        return ListPackagesResponse.builder()
+                .resource(
+                        PackageResource.builder()
+                                .id(page.toString())
+                                .createdAt("test-created-at")
+                                .updatedAt("test-updated-at")
+                                .type(PackageType.BITS)
+                                .data(BitsData.builder().build())
+                                .state(PackageState.READY)
+                                .build())
+                .pagination(Pagination.builder().totalPages(totalPages).build())
+                .build();
+    }
+
+    private static ListPackagesResponse listPackagesResponseWithNext(Integer page, Integer next) {
+        Pagination.Builder pagination = Pagination.builder();
+
+        if (next != null) {
+            pagination.next(
+                    Link.builder()
+                            .href(
+                                    String.format(
+                                            "https://api.test/v3/packages?page=%d&per_page=1",
+                                            next))
+                            .build());
+        }
+
+        return ListPackagesResponse.builder()
+                .from(listPackagesResponse(page, 0))
+                .pagination(pagination.build())
+                .build();
+    }
+
+    private static ListSpacesResponse listSpacesResponse(Integer page, Integer totalPages) {
+        return ListSpacesResponse.builder()
+                .resource(
+                        SpaceResource.builder()
+                                .entity(SpaceEntity.builder().name(page.toString()).build())
+                                .build())
+                .totalPages(totalPages)
+                .build();
+    }
+
+    private static Mono<ReadResponse> read(List<Envelope> envelopes, ReadRequest request) {
+        boolean descending = Boolean.TRUE.equals(request.getDescending());
+        Comparator<Envelope> comparator = Comparator.comparing(Envelope::getTimestamp);
+
+        List<Envelope> batch =
+                envelopes.stream()
+                        .filter(envelope -> request.getSourceId().equals(envelope.getSourceId()))
+                        .filter(
+                                envelope ->
+                                        request.getStartTime() == null
+                                                || envelope.getTimestamp()
+                                                        >= request.getStartTime())
+                        .filter(
+                                envelope ->
+                                        request.getEndTime() == null
+                                                || envelope.getTimestamp() < request.getEndTime())
+                        .sorted(descending ? comparator.reversed() : comparator)
+                        .limit(Math.min(request.getLimit(), 1000))
+                        .collect(Collectors.toList());
+
+        return Mono.just(
+                ReadResponse.builder()
+                        .envelopes(EnvelopeBatch.builder().batch(batch).build())
+                        .build());
+    }
+
     private static void requestListPackages(Packages packages, Integer page, Integer totalPages) {
         when(packages.list(ListPackagesRequest.builder().page(page).build()))
                 .thenReturn(
@@ -167,6 +486,11 @@ public final class PaginationUtilsTest {
                                         .build()));
     }
 
+    private static void requestListPackagesWithNext(Packages packages, Integer page, Integer next) {
+        when(packages.list(ListPackagesRequest.builder().page(page).build()))
+                .thenReturn(Mono.just(listPackagesResponseWithNext(page, next)));
+    }
+
     private static void requestListSpaces(Spaces spaces, Integer page, Integer totalPages) {
         when(spaces.list(ListSpacesRequest.builder().page(page).build()))
                 .thenReturn(
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2013-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.cloudfoundry.util.SortingUtils.OverflowStrategy;
+import org.junit.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+public final class SortingUtilsTest {
+
+    @Test
+    public void timespan() {
+        TestPublisher<Long> source = TestPublisher.create();
+
+        StepVerifier.withVirtualTime(
+                        () ->
+                                source.flux()
+                                        .transform(
+                                                SortingUtils.timespan(
+                                                        Comparator.<Long>naturalOrder(),
+                                                        Duration.ofSeconds(1))))
+                .then(() -> source.next(2L, 1L))
+                .expectNoEvent(Duration.ofMillis(500))
+                .then(() -> source.next(0L))
+                .expectNoEvent(Duration.ofMillis(500))
+                .thenAwait(Duration.ofMillis(500))
+                .expectNext(0L, 1L, 2L)
+                .then(() -> source.next(4L, 3L))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext(3L, 4L)
+                .then(source::complete)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void timespanComplete() {
+        StepVerifier.withVirtualTime(
+                        () ->
+                                Flux.just(3L, 1L, 2L)
+                                        .transform(
+                                                SortingUtils.timespan(
+                                                        Comparator.<Long>naturalOrder(),
+                                                        Duration.ofSeconds(1))))
+                .expectNext(1L, 2L, 3L)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void timespanDemand() {
+        TestPublisher<Long> source = TestPublisher.create();
+
+        StepVerifier.withVirtualTime(
+                        () ->
+                                source.flux()
+                                        .transform(
+                                                SortingUtils.timespan(
+                                                        Comparator.<Long>naturalOrder(),
+                                                        Duration.ofSeconds(1),
+                                                        4,
+                                                        OverflowStrategy.EMIT_EARLY)),
+                        1)
+                .then(() -> source.assertMinRequested(5))
+                .then(() -> source.next(3L, 2L, 1L))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext(1L)
+                .expectNoEvent(Duration.ofSeconds(1))
+                .then(() -> source.assertMinRequested(3).assertMaxRequested(3))
+                .thenRequest(2)
+                .expectNext(2L, 3L)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        source.assertCancelled();
+    }
+
+    @Test
+    public void timespanDropOldest() {
+        TestPublisher<Long> source = TestPublisher.create();
+
+        StepVerifier.withVirtualTime(
+                        () ->
+                                source.flux()
+                                        .transform(
+                                                SortingUtils.timespan(
+                                                        Comparator.<Long>naturalOrder(),
+                                                        Duration.ofSeconds(1),
+                                                        2,
+                                                        OverflowStrategy.DROP_OLDEST)))
+                .then(() -> source.next(2L, 1L, 4L, 3L))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext(3L, 4L)
+                .then(source::complete)
+                .expectComplete()
+                .verifyThenAssertThat()
+                .hasDiscardedExactly(1L, 2L);
+    }
+
+    @Test
+    public void timespanEmitEarly() {
+        TestPublisher<Long> source = TestPublisher.create();
+
+        StepVerifier.withVirtualTime(
+                        () ->
+                                source.flux()
+                                        .transform(
+                                                SortingUtils.timespan(
+                                                        Comparator.<Long>naturalOrder(),
+                                                        Duration.ofSeconds(1),
+                                                        2,
+                                                        OverflowStrategy.EMIT_EARLY)))
+                .then(() -> source.next(2L, 1L, 4L))
+                .expectNext(1L)
+                .then(() -> source.next(3L))
+                .expectNext(2L)
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNext(3L, 4L)
+                .then(source::complete)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void timespanError() {
+        TestPublisher<Long> source = TestPublisher.create();
+
+        StepVerifier.withVirtualTime(
+                        () ->
+                                source.flux()
+                                        .transform(
+                                                SortingUtils.timespan(
+                                                        Comparator.<Long>naturalOrder(),
+                                                        Duration.ofSeconds(1),
+                                                        2,
+                                                        OverflowStrategy.ERROR)))
+                .then(() -> source.next(2L, 1L, 3L))
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verify(Duration.ofSeconds(5));
+
+        source.assertCancelled();
+    }
+
+    @Test
+    public void timespanHighThroughput() {
+        Random random = new Random(0);
+        List<Long> expected = LongStream.range(0, 1_000_000).boxed().collect(Collectors.toList());
+        List<Long> scrambled = new ArrayList<>(expected);
+
+        for (int i = 0; i < scrambled.size(); i += 16) {
+            Collections.shuffle(scrambled.subList(i, Math.min(i + 16, scrambled.size())), random);
+        }
+
+        Flux.fromIterable(scrambled)
+                .publishOn(Schedulers.parallel())
+                .transform(
+                        SortingUtils.timespan(
+                                Comparator.<Long>naturalOrder(),
+                                Duration.ofSeconds(5),
+                                1024,
+                                OverflowStrategy.EMIT_EARLY))
+                .publishOn(Schedulers.single())
+                .collectList()
+                .as(StepVerifier::create)
+                .consumeNextWith(actual -> assertThat(actual).isEqualTo(expected))
+                .expectComplete()
+                .verify(Duration.ofSeconds(30));
+    }
+}